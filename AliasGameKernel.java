@@ -0,0 +1,219 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * A game kernel that resolves each round with one random draw and an O(1)
+ * lookup in a Walker/Vose alias table.
+ *
+ * Like {@link CountingGameKernel}, it only samples what a round decides: the
+ * lowest face 1, 2, 4, 5 or 6 when no 3 was rolled, or the number {@code k}
+ * of 3s. For every board size the {@code n + 5} outcome probabilities are
+ * turned into an alias table once, and the tables are shared by every kernel
+ * for the same dice count. A round takes one 64-bit draw: the high 32 bits
+ * pick a column by multiply-shift, which is uniform to within
+ * {@code columns / 2^32}, and the low 32 bits decide between the column's
+ * own outcome and its alias.
+ *
+ * The tables hold about {@code numDice^2 / 2} entries. Board sizes beyond
+ * {@code maxTableEntries} worth of tables are played by rolling every die
+ * instead, until enough dice have been removed to use the tables.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class AliasGameKernel implements TracedGameKernel {
+    public static final int DEFAULT_MAX_TABLE_ENTRIES = 1 << 18;
+    private static final int DIE_FACES = 6;
+    private static final int NEUTRAL_VALUE = 3;
+    private static final int MIN_DIE_VALUE = 1;
+    private static final int MAX_DIE_VALUE = 6;
+    private static final int INITIAL_LOWEST_VALUE = MAX_DIE_VALUE + 1;
+    private static final int[] SCORING_FACES = {1, 2, 4, 5, 6};
+    private static final long ALWAYS = 1L << 32;
+    private static final Map<Integer, AliasTable[]> TABLES = new ConcurrentHashMap<>();
+
+    private final int numDice;
+    private final int tabledDice;
+    private final AliasTable[] tables;
+    private int lastRounds;
+    private int lastNeutralRounds;
+
+    /**
+     * Constructs a kernel for games with the given number of dice and the default table budget.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public AliasGameKernel(int numDice) {
+        this(numDice, DEFAULT_MAX_TABLE_ENTRIES);
+    }
+
+    /**
+     * Constructs a kernel whose tables hold at most the given number of entries.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @param maxTableEntries the table budget; larger boards are rolled die by die (must be positive)
+     * @throws IllegalArgumentException if either parameter is non-positive
+     */
+    public AliasGameKernel(int numDice, int maxTableEntries) {
+        if (numDice <= 0 || maxTableEntries <= 0) {
+            throw new IllegalArgumentException("Number of dice and table size must be positive");
+        }
+        int tabled = 0;
+        long entries = 0;
+        while (tabled < numDice && entries + tabled + 1 + SCORING_FACES.length <= maxTableEntries) {
+            tabled++;
+            entries += tabled + SCORING_FACES.length;
+        }
+        this.numDice = numDice;
+        this.tabledDice = tabled;
+        this.tables = TABLES.computeIfAbsent(tabled, AliasGameKernel::buildTables);
+    }
+
+    @Override
+    public int playGame(RandomGenerator random) {
+        int activeDice = numDice;
+        int totalScore = 0;
+        int rounds = 0;
+        int neutralRounds = 0;
+
+        while (activeDice > tabledDice) {
+            rounds++;
+            int neutralDice = 0;
+            int lowestValue = INITIAL_LOWEST_VALUE;
+            for (int i = 0; i < activeDice; i++) {
+                int value = random.nextInt(DIE_FACES) + MIN_DIE_VALUE;
+                if (value == NEUTRAL_VALUE) {
+                    neutralDice++;
+                }
+                lowestValue = Math.min(lowestValue, value);
+            }
+            if (neutralDice > 0) {
+                neutralRounds++;
+                activeDice -= neutralDice;
+            } else {
+                totalScore += lowestValue;
+                activeDice--;
+            }
+        }
+
+        while (activeDice > 0) {
+            rounds++;
+            AliasTable table = tables[activeDice];
+            long bits = random.nextLong();
+            int column = (int) (((bits >>> 32) * table.aliases.length) >>> 32);
+            int outcome = (bits & 0xFFFFFFFFL) < table.thresholds[column] ? column : table.aliases[column];
+            if (outcome < SCORING_FACES.length) {
+                totalScore += SCORING_FACES[outcome];
+                activeDice--;
+            } else {
+                neutralRounds++;
+                activeDice -= outcome - SCORING_FACES.length + 1;
+            }
+        }
+
+        lastRounds = rounds;
+        lastNeutralRounds = neutralRounds;
+        return totalScore;
+    }
+
+    @Override
+    public int maxScore() {
+        return numDice * MAX_DIE_VALUE;
+    }
+
+    @Override
+    public int lastRounds() {
+        return lastRounds;
+    }
+
+    @Override
+    public int lastNeutralRounds() {
+        return lastNeutralRounds;
+    }
+
+    /**
+     * @return the largest board size resolved through the tables
+     */
+    int tabledDice() {
+        return tabledDice;
+    }
+
+    /**
+     * Builds the alias table for every board size from 1 to tabledDice. Outcomes
+     * 0-4 are the scoring faces in ascending order, outcome 4 + k is k neutral values.
+     */
+    private static AliasTable[] buildTables(int tabledDice) {
+        AliasTable[] tables = new AliasTable[tabledDice + 1];
+        for (int n = 1; n <= tabledDice; n++) {
+            double[] lowestFaces = ExactDistributionSolver.lowestFaceProbabilities(n);
+            double[] neutralCounts = ExactDistributionSolver.neutralCountProbabilities(n);
+            double[] probabilities = new double[SCORING_FACES.length + n];
+            for (int i = 0; i < SCORING_FACES.length; i++) {
+                probabilities[i] = lowestFaces[SCORING_FACES[i]];
+            }
+            for (int k = 1; k <= n; k++) {
+                probabilities[SCORING_FACES.length + k - 1] = neutralCounts[k];
+            }
+            tables[n] = new AliasTable(probabilities);
+        }
+        return tables;
+    }
+
+    /**
+     * An alias table built with Vose's method. Column i keeps outcome i with
+     * probability thresholds[i] / 2^32 and otherwise yields aliases[i].
+     */
+    static final class AliasTable {
+        final long[] thresholds;
+        final int[] aliases;
+
+        AliasTable(double[] probabilities) {
+            int size = probabilities.length;
+            double total = 0;
+            for (double probability : probabilities) {
+                total += probability;
+            }
+            double[] scaled = new double[size];
+            int[] small = new int[size];
+            int[] large = new int[size];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < size; i++) {
+                scaled[i] = probabilities[i] * size / total;
+                if (scaled[i] < 1) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            thresholds = new long[size];
+            aliases = new int[size];
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                thresholds[less] = Math.round(scaled[less] * ALWAYS);
+                aliases[less] = more;
+                scaled[more] += scaled[less] - 1;
+                if (scaled[more] < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // Whatever is left is 1 up to rounding and always keeps its own outcome.
+            while (largeCount > 0) {
+                int column = large[--largeCount];
+                thresholds[column] = ALWAYS;
+                aliases[column] = column;
+            }
+            while (smallCount > 0) {
+                int column = small[--smallCount];
+                thresholds[column] = ALWAYS;
+                aliases[column] = column;
+            }
+        }
+    }
+}
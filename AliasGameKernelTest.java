@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the AliasGameKernel class.
+ */
+@DisplayName("AliasGameKernel Unit Tests")
+public class AliasGameKernelTest {
+
+    private static void assertMatchesExact(int numDice, Supplier<GameKernel> kernels, long seed) {
+        int games = 500_000;
+        long[] histogram = new ForkJoinSimulator(2, 10000).simulate(kernels, games, RandomSource.seeded(seed));
+        double[] expected = new ExactDistributionSolver().distribution(numDice);
+        double pValue = Statistics.chiSquaredPValue(histogram, expected);
+        assertTrue(pValue > 1e-4, numDice + " dice: chi-squared p-value " + pValue);
+    }
+
+    @Test
+    @DisplayName("Alias tables should reproduce their probabilities exactly")
+    void testAliasTable() {
+        double[] probabilities = {0.5, 0.25, 0.125, 0.0625, 0.0625, 0};
+        AliasGameKernel.AliasTable table = new AliasGameKernel.AliasTable(probabilities);
+        double[] implied = new double[probabilities.length];
+        int columns = table.aliases.length;
+        for (int column = 0; column < columns; column++) {
+            double keep = table.thresholds[column] / (double) (1L << 32);
+            implied[column] += keep / columns;
+            implied[table.aliases[column]] += (1 - keep) / columns;
+        }
+        assertArrayEquals(probabilities, implied, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Distribution should pass a chi-squared test against the exact solver")
+    void testMatchesExactDistribution() {
+        for (int numDice : new int[] {1, 5, 12}) {
+            assertMatchesExact(numDice, () -> new AliasGameKernel(numDice), 40L + numDice);
+        }
+    }
+
+    @Test
+    @DisplayName("Boards beyond the table budget should be rolled directly")
+    void testFallback() {
+        AliasGameKernel kernel = new AliasGameKernel(10, 20);
+        assertEquals(2, kernel.tabledDice(), "Sizes 1 and 2 take 6 + 7 entries, size 3 would exceed 20");
+        assertEquals(10, new AliasGameKernel(10).tabledDice());
+        assertMatchesExact(10, () -> new AliasGameKernel(10, 20), 50L);
+    }
+
+    @Test
+    @DisplayName("Rounds should be reported like the array kernel does")
+    void testRounds() {
+        AliasGameKernel kernel = new AliasGameKernel(1);
+        RandomGenerator random = RandomSource.seeded(51L).stream(0);
+        for (int i = 0; i < 100; i++) {
+            int score = kernel.playGame(random);
+            assertEquals(1, kernel.lastRounds());
+            assertEquals(score == 0 ? 1 : 0, kernel.lastNeutralRounds());
+        }
+        assertTrue(GameKernels.byName("alias", 7).get() instanceof AliasGameKernel);
+        assertThrows(IllegalArgumentException.class, () -> new AliasGameKernel(0));
+        assertThrows(IllegalArgumentException.class, () -> new AliasGameKernel(5, 0));
+    }
+}
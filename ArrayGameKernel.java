@@ -0,0 +1,123 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The reference game kernel: keeps every die in an array and applies the
+ * rules of {@link DiceGame} exactly as written.
+ * 
+ * Besides the score, each game records how many rounds it took and in how
+ * many of them 3s were removed, so it can be used for per-game traces.
+ * 
+ * The dice buffer is allocated once and reused for every game, so a kernel
+ * must only be used by one thread at a time.
+ * 
+ * @author Generated
+ * @version 1.0
+ */
+public class ArrayGameKernel implements TracedGameKernel {
+    private static final int DIE_FACES = 6;
+    private static final int NEUTRAL_VALUE = 3;
+    private static final int MIN_DIE_VALUE = 1;
+    private static final int MAX_DIE_VALUE = 6;
+    private static final int INITIAL_LOWEST_VALUE = MAX_DIE_VALUE + 1;
+    
+    private final int numDice;
+    private final int[] dice;
+    private int lastRounds;
+    private int lastNeutralRounds;
+    
+    /**
+     * Constructs a kernel for games with the given number of dice.
+     * 
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public ArrayGameKernel(int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        this.numDice = numDice;
+        this.dice = new int[numDice];
+    }
+    
+    @Override
+    public int playGame(RandomGenerator random) {
+        int[] dice = this.dice;
+        int activeDice = numDice;
+        rollActiveDice(dice, activeDice, random);
+        
+        int totalScore = 0;
+        int rounds = 0;
+        int neutralRounds = 0;
+        
+        while (activeDice > 0) {
+            rounds++;
+            boolean hasNeutralValues = false;
+            int lowestValue = INITIAL_LOWEST_VALUE;
+            int lowestIndex = -1;
+            
+            for (int i = 0; i < activeDice; i++) {
+                if (dice[i] == NEUTRAL_VALUE) {
+                    hasNeutralValues = true;
+                }
+                if (dice[i] < lowestValue) {
+                    lowestValue = dice[i];
+                    lowestIndex = i;
+                }
+            }
+            
+            if (hasNeutralValues) {
+                neutralRounds++;
+                activeDice = removeNeutralValues(dice, activeDice);
+            } else {
+                totalScore += lowestValue;
+                dice[lowestIndex] = dice[activeDice - 1];
+                activeDice--;
+            }
+            
+            rollActiveDice(dice, activeDice, random);
+        }
+        
+        lastRounds = rounds;
+        lastNeutralRounds = neutralRounds;
+        return totalScore;
+    }
+    
+    @Override
+    public int maxScore() {
+        return numDice * MAX_DIE_VALUE;
+    }
+    
+    @Override
+    public int lastRounds() {
+        return lastRounds;
+    }
+    
+    @Override
+    public int lastNeutralRounds() {
+        return lastNeutralRounds;
+    }
+    
+    /**
+     * Removes all neutral values (3s) by compacting the active dice to the left.
+     * 
+     * @return the new number of active dice after removal
+     */
+    private static int removeNeutralValues(int[] dice, int activeDice) {
+        int writeIndex = 0;
+        for (int i = 0; i < activeDice; i++) {
+            if (dice[i] != NEUTRAL_VALUE) {
+                dice[writeIndex++] = dice[i];
+            }
+        }
+        return writeIndex;
+    }
+    
+    /**
+     * Re-rolls the first activeDice positions of the array.
+     */
+    private static void rollActiveDice(int[] dice, int activeDice, RandomGenerator random) {
+        for (int i = 0; i < activeDice; i++) {
+            dice[i] = random.nextInt(DIE_FACES) + MIN_DIE_VALUE;
+        }
+    }
+}
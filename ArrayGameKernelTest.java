@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the ArrayGameKernel class.
+ * 
+ * Besides the game rules, checks that the hot path allocates nothing once it
+ * has warmed up, using the per-thread allocation counter of the JVM.
+ */
+@DisplayName("ArrayGameKernel Unit Tests")
+public class ArrayGameKernelTest {
+    
+    private static final int WARMUP_GAMES = 200000;
+    private static final int MEASURED_GAMES = 100000;
+    private static final long ALLOCATION_SLACK_BYTES = 1024;
+    
+    @Test
+    @DisplayName("Scores should stay between 0 and the maximum score")
+    void testScoreBounds() {
+        ArrayGameKernel kernel = new ArrayGameKernel(4);
+        RandomGenerator random = RandomSource.seeded(1L).stream(0);
+        
+        assertEquals(24, kernel.maxScore());
+        for (int i = 0; i < 1000; i++) {
+            int score = kernel.playGame(random);
+            assertTrue(score >= 0 && score <= kernel.maxScore(), "Score out of range: " + score);
+        }
+    }
+    
+    @Test
+    @DisplayName("Constructor should reject non-positive dice counts")
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayGameKernel(0));
+    }
+    
+    @Test
+    @DisplayName("playGame should not allocate in steady state")
+    void testPlayGameDoesNotAllocate() {
+        ArrayGameKernel kernel = new ArrayGameKernel(5);
+        RandomGenerator random = RandomSource.seeded(2L).stream(0);
+        
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < MEASURED_GAMES; i++) {
+                kernel.playGame(random);
+            }
+        }, () -> {
+            for (int i = 0; i < WARMUP_GAMES; i++) {
+                kernel.playGame(random);
+            }
+        });
+        
+        assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+            "Expected no allocation per game but " + allocated + " bytes were allocated");
+    }
+    
+    @Test
+    @DisplayName("DiceGame.playGame should not allocate in steady state")
+    void testDiceGamePlayGameDoesNotAllocate() {
+        DiceGame game = new DiceGame(5, 1);
+        
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < MEASURED_GAMES; i++) {
+                game.playGame();
+            }
+        }, () -> {
+            for (int i = 0; i < WARMUP_GAMES; i++) {
+                game.playGame();
+            }
+        });
+        
+        assertTrue(allocated < ALLOCATION_SLACK_BYTES,
+            "Expected no allocation per game but " + allocated + " bytes were allocated");
+    }
+    
+    /**
+     * Runs the warm-up, then returns the bytes the current thread allocated while running the work.
+     */
+    private static long allocatedBytes(Runnable work, Runnable warmup) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        warmup.run();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        work.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+}
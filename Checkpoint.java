@@ -0,0 +1,205 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The saved state of a long simulation: the partial histogram, how many games
+ * are done and where the random streams continue.
+ *
+ * Because every chunk of games draws from its own indexed stream of the
+ * {@link RandomSource}, the random state of a run is fully described by its
+ * algorithm, seed and the index of the next unused stream. A run resumed from
+ * a checkpoint therefore plays exactly the games the interrupted run would
+ * have played.
+ *
+ * File format (big-endian): magic "DGCHKPT1" (long), version (int), number of
+ * dice (int), algorithm (UTF), seed (long), chunk size (int), total games
+ * (long), games done (long), next stream (long), histogram length (int), the
+ * non-zero counts in the compact form of {@link ScoreHistogram#writeTo}, and
+ * a CRC-32 of everything before it (long). Files are
+ * written to a temporary name, forced to disk and renamed into place, so a
+ * crash leaves either the previous checkpoint or the new one.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class Checkpoint {
+    private static final long MAGIC = 0x444743484B505431L;
+    private static final int VERSION = 2;
+
+    private final int numDice;
+    private final String algorithm;
+    private final long seed;
+    private final int chunkSize;
+    private final long totalGames;
+    private final long gamesDone;
+    private final long nextStream;
+    private final long[] histogram;
+
+    /**
+     * Creates a checkpoint. The histogram is copied.
+     *
+     * @param numDice the number of dice per game
+     * @param randomSource the run's random source
+     * @param chunkSize the number of games played per stream
+     * @param totalGames the number of games the run will play
+     * @param gamesDone the number of games played so far
+     * @param nextStream the index of the first stream not used yet
+     * @param histogram the scores of the games played so far
+     */
+    public Checkpoint(int numDice, RandomSource randomSource, int chunkSize, long totalGames, long gamesDone,
+            long nextStream, long[] histogram) {
+        this(numDice, randomSource.algorithm(), randomSource.seed(), chunkSize, totalGames, gamesDone,
+            nextStream, histogram.clone());
+    }
+
+    private Checkpoint(int numDice, String algorithm, long seed, int chunkSize, long totalGames, long gamesDone,
+            long nextStream, long[] histogram) {
+        this.numDice = numDice;
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.totalGames = totalGames;
+        this.gamesDone = gamesDone;
+        this.nextStream = nextStream;
+        this.histogram = histogram;
+    }
+
+    /**
+     * @return the number of dice per game
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * @return the random source the run draws from
+     */
+    public RandomSource randomSource() {
+        return RandomSource.of(algorithm, seed);
+    }
+
+    /**
+     * @return the number of games played per stream
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of games the run will play
+     */
+    public long totalGames() {
+        return totalGames;
+    }
+
+    /**
+     * @return the number of games played so far
+     */
+    public long gamesDone() {
+        return gamesDone;
+    }
+
+    /**
+     * @return the index of the first stream not used yet
+     */
+    public long nextStream() {
+        return nextStream;
+    }
+
+    /**
+     * @return a copy of the scores of the games played so far
+     */
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Writes the checkpoint atomically, replacing any previous one.
+     *
+     * @param path the checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numDice);
+            out.writeUTF(algorithm);
+            out.writeLong(seed);
+            out.writeInt(chunkSize);
+            out.writeLong(totalGames);
+            out.writeLong(gamesDone);
+            out.writeLong(nextStream);
+            out.writeInt(histogram.length);
+            ScoreHistogram.of(histogram).writeTo(out);
+            out.writeLong(crc(bytes.toByteArray(), bytes.size()));
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @param path the checkpoint file
+     * @return the checkpoint
+     * @throws IOException if the file cannot be read, is not a checkpoint or is corrupt
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < Long.BYTES) {
+            throw new IOException("Not a checkpoint: " + path);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a checkpoint: " + path);
+            }
+            int numDice = in.readInt();
+            String algorithm = in.readUTF();
+            long seed = in.readLong();
+            int chunkSize = in.readInt();
+            long totalGames = in.readLong();
+            long gamesDone = in.readLong();
+            long nextStream = in.readLong();
+            int length = in.readInt();
+            if (numDice <= 0 || length != numDice * 6 + 1) {
+                throw new IOException("Corrupt checkpoint: " + path);
+            }
+            ScoreHistogram counts = ScoreHistogram.readFrom(in);
+            if (counts.maxScore() >= length || in.readLong() != crc(bytes, bytes.length - Long.BYTES)) {
+                throw new IOException("Corrupt checkpoint: " + path);
+            }
+            return new Checkpoint(numDice, algorithm, seed, chunkSize, totalGames, gamesDone, nextStream,
+                counts.toArray(length));
+        } catch (EOFException e) {
+            throw new IOException("Truncated checkpoint: " + path, e);
+        }
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
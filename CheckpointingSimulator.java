@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a long simulation in batches and periodically saves a {@link Checkpoint}
+ * so that a killed run can be resumed where it stopped.
+ *
+ * Batches are played on one pool for the whole run by
+ * {@link ForkJoinSimulator#batches}, each continuing with the random streams
+ * where the previous one stopped, exactly as in {@link StreamingSimulator}.
+ * Once the checkpoint interval has passed, the histogram is copied at the
+ * next batch boundary and handed to a background writer thread; the workers
+ * are already playing the following batches while the copy is made and the
+ * file is written. If the previous checkpoint is still being written, the new one is
+ * skipped rather than waited for. A resumed run plays exactly the games the
+ * interrupted run had left, so its final histogram is identical to that of a
+ * run that was never interrupted.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class CheckpointingSimulator {
+    public static final long DEFAULT_INTERVAL_MILLIS = 10_000;
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final long DEFAULT_NUM_SIMULATIONS = 100_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final ForkJoinSimulator simulator;
+    private final int batchSize;
+    private final Path checkpointFile;
+    private final long intervalMillis;
+
+    /**
+     * Constructs a checkpointing simulator. The batch size is rounded up to a
+     * whole number of simulator chunks.
+     *
+     * @param simulator the simulator that plays each batch
+     * @param batchSize the number of games between possible checkpoints (must be positive)
+     * @param checkpointFile the file the checkpoints are written to
+     * @param intervalMillis the minimum time between checkpoints (must not be negative)
+     * @throws IllegalArgumentException if batchSize is non-positive or intervalMillis is negative
+     */
+    public CheckpointingSimulator(ForkJoinSimulator simulator, int batchSize, Path checkpointFile,
+            long intervalMillis) {
+        if (batchSize <= 0 || intervalMillis < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and interval not negative");
+        }
+        int chunkSize = simulator.chunkSize();
+        long alignedBatch = ((long) batchSize + chunkSize - 1) / chunkSize * chunkSize;
+        this.simulator = simulator;
+        this.batchSize = (int) Math.min(alignedBatch, Integer.MAX_VALUE / chunkSize * chunkSize);
+        this.checkpointFile = checkpointFile;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Plays the given number of games, checkpointing as it goes. The final
+     * state is always written, so resuming a finished run returns at once.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param totalGames the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams; ignored when resuming
+     * @param resume whether to continue from the checkpoint file if there is one
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if a parameter is out of range or the
+     *         checkpoint belongs to a different run
+     * @throws IOException if the checkpoint cannot be read or the final checkpoint cannot be written
+     */
+    public long[] run(int numDice, long totalGames, RandomSource randomSource, boolean resume) throws IOException {
+        if (numDice <= 0 || totalGames <= 0) {
+            throw new IllegalArgumentException("Number of dice and games must be positive");
+        }
+        long[] histogram = new long[numDice * 6 + 1];
+        long games = 0;
+        long nextStream = 0;
+        RandomSource source = randomSource;
+
+        if (resume && Files.exists(checkpointFile)) {
+            Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+            if (checkpoint.numDice() != numDice || checkpoint.chunkSize() != simulator.chunkSize()) {
+                throw new IllegalArgumentException("Checkpoint is for " + checkpoint.numDice()
+                    + " dice and chunk size " + checkpoint.chunkSize());
+            }
+            if (checkpoint.gamesDone() > totalGames) {
+                throw new IllegalArgumentException("Checkpoint has already played " + checkpoint.gamesDone()
+                    + " games");
+            }
+            histogram = checkpoint.histogram();
+            games = checkpoint.gamesDone();
+            nextStream = checkpoint.nextStream();
+            source = checkpoint.randomSource();
+        }
+
+        ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScoreHistogram total = ScoreHistogram.of(histogram);
+        try (ForkJoinSimulator.Batches batches = games < totalGames
+                ? simulator.batches(() -> new ArrayGameKernel(numDice), totalGames - games, source, nextStream,
+                    batchSize)
+                : null) {
+            Future<?> pendingWrite = null;
+            long lastCheckpoint = System.nanoTime();
+            long firstGame = games;
+            while (batches != null && batches.hasNext()) {
+                total.merge(ScoreHistogram.of(batches.next()));
+                games = firstGame + batches.games();
+                nextStream = batches.nextStream();
+
+                long now = System.nanoTime();
+                boolean due = (now - lastCheckpoint) / NANOS_PER_MILLI >= intervalMillis;
+                if (due && games < totalGames && (pendingWrite == null || pendingWrite.isDone())) {
+                    reportFailure(pendingWrite);
+                    Checkpoint checkpoint = new Checkpoint(numDice, source, simulator.chunkSize(), totalGames, games,
+                        nextStream, total.toArray(histogram.length));
+                    pendingWrite = writer.submit(() -> {
+                        checkpoint.write(checkpointFile);
+                        return null;
+                    });
+                    lastCheckpoint = now;
+                }
+            }
+            if (pendingWrite != null) {
+                awaitQuietly(pendingWrite);
+            }
+        } finally {
+            writer.shutdown();
+        }
+
+        histogram = total.toArray(histogram.length);
+        new Checkpoint(numDice, source, simulator.chunkSize(), totalGames, games, nextStream, histogram)
+            .write(checkpointFile);
+        return histogram;
+    }
+
+    /**
+     * Warns about a background write that failed; the run goes on and the next checkpoint tries again.
+     */
+    private static void reportFailure(Future<?> write) {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (ExecutionException e) {
+            System.err.println("Checkpoint could not be written: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(Future<?> write) {
+        try {
+            write.get(1, TimeUnit.MINUTES);
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Checkpoint could not be written: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Main entry point for a checkpointed simulation.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: number of games (optional, default: 100000000)
+     * - args[2]: checkpoint file (optional, default: simulation.checkpoint)
+     * - args[3]: "resume" to continue from the checkpoint file (optional)
+     *
+     * @param args command line arguments for customizing the simulation
+     * @throws IOException if the checkpoint cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_NUM_DICE;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : DEFAULT_NUM_SIMULATIONS;
+        Path checkpointFile = Paths.get(args.length >= 3 ? args[2] : "simulation.checkpoint");
+        boolean resume = args.length >= 4 && "resume".equals(args[3]);
+
+        ForkJoinSimulator simulator = new ForkJoinSimulator();
+        CheckpointingSimulator checkpointing = new CheckpointingSimulator(simulator,
+            StreamingSimulator.DEFAULT_BATCH_SIZE * 10, checkpointFile, DEFAULT_INTERVAL_MILLIS);
+        long start = System.nanoTime();
+        long[] histogram = checkpointing.run(numDice, games, RandomSource.unseeded(), resume);
+        new SimulationResult(SimulationEngines.FORK_JOIN, simulator.parallelism(), histogram,
+            System.nanoTime() - start).writeTable(numDice, System.out);
+    }
+}
@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the CheckpointingSimulator and Checkpoint classes.
+ */
+@DisplayName("CheckpointingSimulator Unit Tests")
+public class CheckpointingSimulatorTest {
+
+    private static final long SEED = 31L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("A resumed run should end with the histogram of an uninterrupted run")
+    void testResumeMatchesUninterruptedRun() throws IOException {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(2, 500);
+        long[] uninterrupted = simulator.simulate(() -> new ArrayGameKernel(5), 20000, RandomSource.seeded(SEED));
+
+        // The state an interrupted run leaves behind after 6000 games.
+        Path file = directory.resolve("run.checkpoint");
+        long[] partial = simulator.simulate(() -> new ArrayGameKernel(5), 6000, RandomSource.seeded(SEED));
+        new Checkpoint(5, RandomSource.seeded(SEED), 500, 20000, 6000, 12, partial).write(file);
+
+        CheckpointingSimulator checkpointing = new CheckpointingSimulator(simulator, 1500, file, 0);
+        long[] resumed = checkpointing.run(5, 20000, RandomSource.seeded(SEED + 1), true);
+        assertArrayEquals(uninterrupted, resumed);
+
+        Checkpoint last = Checkpoint.read(file);
+        assertEquals(20000, last.gamesDone());
+        assertEquals(40, last.nextStream());
+        assertArrayEquals(uninterrupted, last.histogram());
+        assertArrayEquals(uninterrupted, checkpointing.run(5, 20000, RandomSource.seeded(SEED), true));
+    }
+
+    @Test
+    @DisplayName("Checkpoints should be written while the run goes on")
+    void testPeriodicCheckpoints() throws IOException {
+        Path file = directory.resolve("periodic.checkpoint");
+        ForkJoinSimulator simulator = new ForkJoinSimulator(2, 500);
+        CheckpointingSimulator checkpointing = new CheckpointingSimulator(simulator, 500, file, 0);
+
+        long[] histogram = checkpointing.run(4, 10000, RandomSource.seeded(SEED), false);
+        long[] expected = simulator.simulate(() -> new ArrayGameKernel(4), 10000, RandomSource.seeded(SEED));
+        assertArrayEquals(expected, histogram);
+        assertFalse(Files.exists(directory.resolve("periodic.checkpoint.tmp")));
+        assertEquals(10000, Checkpoint.read(file).gamesDone());
+    }
+
+    @Test
+    @DisplayName("Corrupt or mismatched checkpoints should be rejected")
+    void testValidation() throws IOException {
+        Path file = directory.resolve("bad.checkpoint");
+        new Checkpoint(3, RandomSource.seeded(SEED), 500, 1000, 500, 1, new long[19]).write(file);
+        ForkJoinSimulator simulator = new ForkJoinSimulator(1, 500);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> new CheckpointingSimulator(simulator, 500, file, 0).run(4, 1000, RandomSource.seeded(SEED), true));
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointingSimulator(new ForkJoinSimulator(1, 250),
+            500, file, 0).run(3, 1000, RandomSource.seeded(SEED), true));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+    }
+}
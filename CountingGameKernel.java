@@ -0,0 +1,169 @@
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A game kernel that samples the outcome of each round instead of rolling every die.
+ *
+ * A round with {@code n} dice only matters through how many 3s were rolled
+ * and, when there were none, which face was the lowest. Both follow closed
+ * forms (see {@link ExactDistributionSolver}), so the kernel precomputes, for
+ * every board size, the cumulative probabilities of the {@code n + 5} possible
+ * outcomes: lowest face 1, 2, 4, 5 or 6 with no 3s, or exactly {@code k} 3s.
+ * Each round then costs one uniform draw and a binary search over that table,
+ * O(log n) instead of O(n) random numbers, which makes 1,000-dice games cheap.
+ *
+ * A board of {@code n} dice has the same table whatever size of game it is
+ * part of, so all kernels share one set of tables, grown to the largest
+ * dice count requested so far. Outcomes at either end of a table whose
+ * combined probability is below {@code 2^-53}, the resolution of
+ * {@link RandomGenerator#nextDouble()}, are dropped; for thousands of dice
+ * that leaves the few hundred neutral counts around {@code n / 6}, so the
+ * tables grow with {@code n^1.5} rather than {@code n^2}.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class CountingGameKernel implements GameKernel {
+    private static final int MAX_DIE_VALUE = 6;
+    private static final int[] SCORING_FACES = {1, 2, 4, 5, 6};
+    /** Probability mass that a draw from nextDouble() cannot resolve. */
+    private static final double NEGLIGIBLE = 0x1p-53;
+    private static volatile OutcomeTables sharedTables = new OutcomeTables(new int[1], new double[1][]);
+
+    private final int numDice;
+    private final int[] firstOutcomes;
+    private final double[][] cumulativeOutcomes;
+
+    /**
+     * Constructs a kernel for games with the given number of dice.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public CountingGameKernel(int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        OutcomeTables tables = tables(numDice);
+        this.numDice = numDice;
+        this.firstOutcomes = tables.firstOutcomes;
+        this.cumulativeOutcomes = tables.cumulative;
+    }
+
+    @Override
+    public int playGame(RandomGenerator random) {
+        int activeDice = numDice;
+        int totalScore = 0;
+
+        while (activeDice > 0) {
+            int outcome = firstOutcomes[activeDice]
+                + sampleOutcome(cumulativeOutcomes[activeDice], random.nextDouble());
+            if (outcome < SCORING_FACES.length) {
+                totalScore += SCORING_FACES[outcome];
+                activeDice--;
+            } else {
+                activeDice -= outcome - SCORING_FACES.length + 1;
+            }
+        }
+
+        return totalScore;
+    }
+
+    @Override
+    public int maxScore() {
+        return numDice * MAX_DIE_VALUE;
+    }
+
+    /**
+     * Finds the first outcome whose cumulative probability exceeds u.
+     * Rounding can leave the final entry a hair below 1, so values of u above
+     * it fall into the last outcome.
+     */
+    private static int sampleOutcome(double[] cumulative, double u) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (u < cumulative[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the shared tables, first growing them to cover the given number of dice.
+     */
+    private static OutcomeTables tables(int numDice) {
+        OutcomeTables tables = sharedTables;
+        if (tables.cumulative.length > numDice) {
+            return tables;
+        }
+        synchronized (CountingGameKernel.class) {
+            tables = sharedTables;
+            int built = tables.cumulative.length;
+            if (built <= numDice) {
+                int[] firstOutcomes = Arrays.copyOf(tables.firstOutcomes, numDice + 1);
+                double[][] cumulative = Arrays.copyOf(tables.cumulative, numDice + 1);
+                for (int n = built; n <= numDice; n++) {
+                    buildTable(n, firstOutcomes, cumulative);
+                }
+                tables = new OutcomeTables(firstOutcomes, cumulative);
+                sharedTables = tables;
+            }
+            return tables;
+        }
+    }
+
+    /**
+     * Builds the cumulative outcome table for a board of n dice. Outcomes 0-4
+     * are the scoring faces in ascending order, outcome 4 + k is k neutral
+     * values; the table covers outcomes firstOutcomes[n] onwards.
+     */
+    private static void buildTable(int n, int[] firstOutcomes, double[][] cumulative) {
+        double[] lowestFaces = ExactDistributionSolver.lowestFaceProbabilities(n);
+        double[] neutralCounts = ExactDistributionSolver.neutralCountProbabilities(n);
+        double[] probabilities = new double[SCORING_FACES.length + n];
+        for (int i = 0; i < SCORING_FACES.length; i++) {
+            probabilities[i] = lowestFaces[SCORING_FACES[i]];
+        }
+        for (int k = 1; k <= n; k++) {
+            probabilities[SCORING_FACES.length + k - 1] = neutralCounts[k];
+        }
+
+        int first = 0;
+        double below = probabilities[0];
+        while (first < probabilities.length - 1 && below < NEGLIGIBLE) {
+            below += probabilities[++first];
+        }
+        int last = probabilities.length - 1;
+        double above = probabilities[last];
+        while (last > first && above < NEGLIGIBLE) {
+            above += probabilities[--last];
+        }
+        // Draws above the last entry, the dropped mass and any rounding, fall into the last outcome.
+        double[] table = new double[last - first + 1];
+        double total = 0;
+        for (int outcome = first; outcome <= last; outcome++) {
+            total += probabilities[outcome];
+            table[outcome - first] = total;
+        }
+        firstOutcomes[n] = first;
+        cumulative[n] = table;
+    }
+
+    /**
+     * The tables for every board size up to some number of dice, published together.
+     */
+    private static final class OutcomeTables {
+        final int[] firstOutcomes;
+        final double[][] cumulative;
+
+        OutcomeTables(int[] firstOutcomes, double[][] cumulative) {
+            this.firstOutcomes = firstOutcomes;
+            this.cumulative = cumulative;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the CountingGameKernel class.
+ * 
+ * The counting kernel must reproduce the distribution of the array kernel,
+ * which is checked against the exact solver within statistical tolerance.
+ */
+@DisplayName("CountingGameKernel Unit Tests")
+public class CountingGameKernelTest {
+    
+    @Test
+    @DisplayName("Distribution should match the exact solver")
+    void testMatchesExactDistribution() {
+        int numDice = 5;
+        int games = 200000;
+        double[] expected = new ExactDistributionSolver().distribution(numDice);
+        long[] histogram = new ForkJoinSimulator(2, 10000).simulate(
+            () -> new CountingGameKernel(numDice), games, RandomSource.seeded(7L));
+        
+        for (int score = 0; score < expected.length; score++) {
+            double observed = (double) histogram[score] / games;
+            double standardError = Math.sqrt(expected[score] * (1 - expected[score]) / games);
+            assertEquals(expected[score], observed, 5 * standardError + 1e-9,
+                "Score " + score + " is out of tolerance");
+        }
+    }
+    
+    @Test
+    @DisplayName("Mean score for many dice should match the exact solver")
+    void testMeanForManyDice() {
+        int numDice = 100;
+        int games = 20000;
+        double[] expected = new ExactDistributionSolver().distribution(numDice);
+        double expectedMean = 0;
+        double expectedSquare = 0;
+        for (int score = 0; score < expected.length; score++) {
+            expectedMean += score * expected[score];
+            expectedSquare += (double) score * score * expected[score];
+        }
+        double standardError = Math.sqrt((expectedSquare - expectedMean * expectedMean) / games);
+        
+        CountingGameKernel kernel = new CountingGameKernel(numDice);
+        RandomGenerator random = RandomSource.seeded(8L).stream(0);
+        double total = 0;
+        for (int i = 0; i < games; i++) {
+            total += kernel.playGame(random);
+        }
+        
+        assertEquals(expectedMean, total / games, 5 * standardError);
+    }
+    
+    @Test
+    @DisplayName("1,000-dice games should complete with valid scores")
+    void testThousandDice() {
+        CountingGameKernel kernel = new CountingGameKernel(1000);
+        RandomGenerator random = RandomSource.seeded(9L).stream(0);
+        
+        for (int i = 0; i < 1000; i++) {
+            int score = kernel.playGame(random);
+            assertTrue(score >= 0 && score <= kernel.maxScore(), "Score out of range: " + score);
+        }
+    }
+    
+    @Test
+    @DisplayName("Games beyond 4,083 dice should not lose their scores to underflow")
+    void testFiveThousandDice() {
+        CountingGameKernel kernel = new CountingGameKernel(5000);
+        RandomGenerator random = RandomSource.seeded(10L).stream(0);
+        int games = 4000;
+        long total = 0;
+        for (int i = 0; i < games; i++) {
+            total += kernel.playGame(random);
+        }
+        // The mean levels off at about 7.85 for large boards, with a standard deviation near 4.
+        assertEquals(7.85, (double) total / games, 0.3);
+        assertEquals(30_000, kernel.maxScore());
+    }
+
+    @Test
+    @DisplayName("Constructor should reject non-positive dice counts")
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new CountingGameKernel(0));
+    }
+}
@@ -1,5 +1,7 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 /**
  * A dice game simulator that plays a game with configurable number of dice.
@@ -12,7 +14,12 @@ import java.util.stream.IntStream;
  * - The total score is the sum of all non-zero rolls
  * 
  * This class can simulate thousands of games and provide statistical analysis
- * of score distributions.
+ * of score distributions. The games are played by a {@link SimulationEngine},
+ * sequential by default; the command line can select any other engine and
+ * game kernel (see {@link SimulationOptions}).
+ * 
+ * The dice buffer of {@link #playGame()} is per instance, so an instance must
+ * only play games on one thread at a time.
  * 
  * @author Generated
  * @version 1.0
@@ -23,13 +30,14 @@ public class DiceGame {
     private static final int MIN_DIE_VALUE = 1;
     private static final int MAX_DIE_VALUE = 6;
     private static final int INITIAL_LOWEST_VALUE = MAX_DIE_VALUE + 1;
-    private static final int PERCENTAGE_MULTIPLIER = 100;
-    private static final int DEFAULT_NUM_DICE = 5;
-    private static final int DEFAULT_NUM_SIMULATIONS = 10000;
     
     private final int numDice;
-    private final int numSimulations;
+    private final long numSimulations;
     private final Random random;
+    private final int[] dice;
+    private final SimulationEngine engine;
+    private final GameRules rules;
+    private final Supplier<GameKernel> kernels;
     
     /**
      * Constructs a new DiceGame with the specified parameters.
@@ -38,22 +46,70 @@ public class DiceGame {
      * @param numSimulations the number of game simulations to run (must be positive)
      * @throws IllegalArgumentException if either parameter is non-positive
      */
-    public DiceGame(int numDice, int numSimulations) {
+    public DiceGame(int numDice, long numSimulations) {
+        this(numDice, numSimulations, new SequentialEngine(ForkJoinSimulator.DEFAULT_CHUNK_SIZE),
+            GameKernels.DEFAULT_KERNEL);
+    }
+    
+    /**
+     * Constructs a new DiceGame whose simulations run on the given engine and kernel.
+     * 
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @param numSimulations the number of game simulations to run (must be positive)
+     * @param engine the engine that plays the simulations
+     * @param kernelName the {@link GameKernels} name of the kernel each worker uses
+     * @throws IllegalArgumentException if either count is non-positive, the engine is null
+     *         or the kernel is unknown
+     */
+    public DiceGame(int numDice, long numSimulations, SimulationEngine engine, String kernelName) {
+        this(numDice, numSimulations, engine, kernelName, GameRules.standard());
+    }
+    
+    /**
+     * Constructs a new DiceGame whose simulations play a house variant of the
+     * rules. {@link #playGame()} always plays the standard rules.
+     * 
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @param numSimulations the number of game simulations to run (must be positive)
+     * @param engine the engine that plays the simulations
+     * @param kernelName the {@link GameKernels} name of the kernel for the standard rules
+     * @param rules the rules to simulate; any other rules are compiled by {@link GameRules}
+     *        and need the default kernel name
+     * @throws IllegalArgumentException if either count is non-positive, the engine or rules
+     *         are null, or the kernel is unknown or does not support the rules
+     */
+    public DiceGame(int numDice, long numSimulations, SimulationEngine engine, String kernelName,
+            GameRules rules) {
         if (numDice <= 0 || numSimulations <= 0) {
             throw new IllegalArgumentException("Number of dice and simulations must be positive");
         }
+        if (engine == null || rules == null) {
+            throw new IllegalArgumentException("Engine and rules must not be null");
+        }
+        if (rules.isStandard()) {
+            this.kernels = GameKernels.byName(kernelName, numDice);
+        } else if (GameKernels.DEFAULT_KERNEL.equals(kernelName)) {
+            this.kernels = rules.kernels(numDice);
+        } else {
+            throw new IllegalArgumentException("Kernel " + kernelName + " only plays the standard rules");
+        }
         this.numDice = numDice;
         this.numSimulations = numSimulations;
         this.random = new Random();
+        this.dice = new int[numDice];
+        this.engine = engine;
+        this.rules = rules;
     }
     
     /**
      * Plays a single game according to the dice game rules.
+     * The dice buffer is reused between games, so no memory is allocated per game,
+     * and an instance must therefore not be played from several threads at once.
      * 
      * @return the total score for this game (sum of all scoring rolls)
      */
     public int playGame() {
-        int[] dice = new int[numDice];
+        int[] dice = this.dice;
         int activeDice = numDice;
         
         for (int i = 0; i < activeDice; i++) {
@@ -125,7 +181,9 @@ public class DiceGame {
      * @param activeDice the number of dice positions to re-roll
      */
     private void rollActiveDice(int[] dice, int activeDice) {
-        IntStream.range(0, activeDice).forEach(i -> dice[i] = rollDie());
+        for (int i = 0; i < activeDice; i++) {
+            dice[i] = rollDie();
+        }
     }
     
     /**
@@ -139,54 +197,144 @@ public class DiceGame {
      * Output is formatted for easy analysis of game statistics.
      */
     public void runSimulation() {
-        long startTime = System.currentTimeMillis();
-        int[] scoreFrequency = new int[numDice * MAX_DIE_VALUE + 1];
-        
-        for (int i = 0; i < numSimulations; i++) {
-            int gameScore = playGame();
-            if (gameScore < scoreFrequency.length) {
-                scoreFrequency[gameScore]++;
-            }
+        simulate().writeTable(numDice, System.out);
+    }
+    
+    /**
+     * Plays all simulations on the engine and returns the result without printing it.
+     * 
+     * @return the score histogram together with the engine and run time
+     */
+    public SimulationResult simulate() {
+        return engine.run(kernels, numSimulations,
+            RandomSource.seeded(random.nextLong()));
+    }
+    
+    /**
+     * Runs the simulations like {@link #runSimulation()} and also writes the
+     * score, number of rounds and number of 3-removal rounds of every game to
+     * a binary trace file (see {@link TraceWriter}). Traced runs always use the
+     * fork-join simulator and the array kernel, with the engine's thread count.
+     * 
+     * @param traceFile the file to write the traces to
+     * @throws IOException if the trace file cannot be written
+     * @throws IllegalStateException if the game plays a house variant of the rules
+     */
+    public void runSimulation(Path traceFile) throws IOException {
+        if (!rules.isStandard()) {
+            throw new IllegalStateException("Traces are only written for the standard rules");
         }
-        
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-        
-        System.out.println("Number of simulations was " + numSimulations + " using " + numDice + " dice.");
-        
-        for (int score = 0; score < scoreFrequency.length; score++) {
-            int count = scoreFrequency[score];
-            if (count > 0) {
-                double percentage = (double) count * PERCENTAGE_MULTIPLIER / numSimulations;
-                System.out.printf("Total %d occurs %.2f%% occurred %.1f times.%n",
-                    score, percentage, (double) count);
-            }
+        ForkJoinSimulator simulator = new ForkJoinSimulator(engine.parallelism(),
+            ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+        long startTime = System.nanoTime();
+        long[] scoreFrequency;
+        try (TraceWriter trace = TraceWriter.create(traceFile, numDice, numSimulations)) {
+            scoreFrequency = simulator.simulate(() -> new ArrayGameKernel(numDice), numSimulations,
+                RandomSource.seeded(random.nextLong()), trace);
         }
-        
-    System.out.printf("Total simulation took %d milliseconds.%n", duration);
+        new SimulationResult(SimulationEngines.FORK_JOIN, simulator.parallelism(), scoreFrequency,
+            System.nanoTime() - startTime).writeTable(numDice, System.out);
+        System.out.println("Traces of " + numSimulations + " games written to " + traceFile + ".");
+    }
+    
+    /**
+     * Runs the simulations like {@link #runSimulation()} while saving the
+     * progress to a checkpoint file, so that a killed run can be resumed.
+     * Checkpointed runs use the fork-join simulator and the array kernel, with
+     * the engine's thread count.
+     * 
+     * @param checkpointFile the file to save the progress to
+     * @param resume whether to continue from the checkpoint file if there is one
+     * @throws IOException if the checkpoint cannot be read or written
+     * @throws IllegalStateException if the game plays a house variant of the rules
+     */
+    public void runCheckpointed(Path checkpointFile, boolean resume) throws IOException {
+        if (!rules.isStandard()) {
+            throw new IllegalStateException("Checkpoints are only written for the standard rules");
+        }
+        ForkJoinSimulator simulator = new ForkJoinSimulator(engine.parallelism(),
+            ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+        CheckpointingSimulator checkpointing = new CheckpointingSimulator(simulator,
+            StreamingSimulator.DEFAULT_BATCH_SIZE, checkpointFile, CheckpointingSimulator.DEFAULT_INTERVAL_MILLIS);
+        long startTime = System.nanoTime();
+        long[] scoreFrequency = checkpointing.run(numDice, numSimulations, RandomSource.seeded(random.nextLong()),
+            resume);
+        new SimulationResult(SimulationEngines.FORK_JOIN, simulator.parallelism(), scoreFrequency,
+            System.nanoTime() - startTime).writeTable(numDice, System.out);
+    }
+    
+    /**
+     * Answers the simulation from a {@link ResultCache}, playing only the games
+     * the cache does not hold yet, and prints the cached distribution with all
+     * its games. Cached runs use the fork-join simulator with the engine's
+     * thread count and work for any rules.
+     * 
+     * @param cacheDirectory the directory holding the cached results
+     * @throws IOException if the cache cannot be read or written
+     */
+    public void runCached(Path cacheDirectory) throws IOException {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(engine.parallelism(),
+            ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+        ResultCache cache = new ResultCache(cacheDirectory, ResultCache.DEFAULT_MAX_DISK_BYTES,
+            ResultCache.DEFAULT_MEMORY_ENTRIES, simulator);
+        long startTime = System.nanoTime();
+        SimulationSnapshot snapshot = cache.get(numDice, rules, numSimulations);
+        new SimulationResult(SimulationEngines.FORK_JOIN, simulator.parallelism(), snapshot.histogram(),
+            System.nanoTime() - startTime).writeTable(numDice, System.out);
+        System.out.println("Simulated " + cache.gamesSimulated() + " of " + snapshot.games()
+            + " games; the rest came from " + cacheDirectory + ".");
     }
     
     /**
      * Main entry point for the dice game simulator.
      * 
-     * Command line arguments:
+     * Command line arguments (see {@link SimulationOptions}):
      * - args[0]: number of dice (optional, default: 5)
      * - args[1]: number of simulations (optional, default: 10000)
+     * - args[2]: file to write per-game traces to (optional, default: no traces)
+     * - --engine=NAME, --threads=N, --kernel=NAME, --rules=SPEC, --checkpoint=FILE, --resume, --cache=DIR
+     *   anywhere (optional, default: sequential, all processors, auto, standard rules, no checkpoints,
+     *   no cache)
      * 
      * @param args command line arguments for customizing the simulation
+     * @throws IOException if the trace file cannot be written
      */
-    public static void main(String[] args) {
-        int numDice = DEFAULT_NUM_DICE;
-        int numSimulations = DEFAULT_NUM_SIMULATIONS;
-        
-        if (args.length >= 1) {
-            numDice = Integer.parseInt(args[0]);
-        }
-        if (args.length >= 2) {
-            numSimulations = Integer.parseInt(args[1]);
+    public static void main(String[] args) throws IOException {
+        run(args, SimulationEngines.SEQUENTIAL);
+    }
+    
+    /**
+     * Parses the command line and runs the simulation it describes.
+     * 
+     * @param args command line arguments
+     * @param defaultEngine the engine used when no --engine option is given
+     * @throws IOException if the trace file cannot be written
+     */
+    static void run(String[] args, String defaultEngine) throws IOException {
+        DiceGame game;
+        SimulationOptions options;
+        try {
+            options = SimulationOptions.parse(args, defaultEngine);
+            game = new DiceGame(options.numDice(), options.numSimulations(), options.newEngine(),
+                options.kernel(), options.rules());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SimulationOptions.USAGE);
+            System.exit(2);
+            return;
         }
         
-        DiceGame game = new DiceGame(numDice, numSimulations);
-        game.runSimulation();
+        if (options.traceFile() != null) {
+            game.runSimulation(options.traceFile());
+        } else if (options.checkpointFile() != null) {
+            game.runCheckpointed(options.checkpointFile(), options.resume());
+        } else if (options.cacheDirectory() != null) {
+            game.runCached(options.cacheDirectory());
+        } else {
+            if (!options.rules().isStandard()) {
+                System.out.println("Rules: " + options.rules() + ".");
+            }
+            game.runSimulation();
+        }
     }
 }
\ No newline at end of file
@@ -1,36 +1,26 @@
+import java.io.IOException;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicIntegerArray;
-import java.util.stream.IntStream;
 
 /**
- * A dice game simulator that plays a game with configurable number of dice.
+ * The parallel dice game simulator.
  * 
- * Game Rules:
- * - All dice are thrown initially
- * - If any dice show 3, all 3s are removed and 0 points are awarded for this roll
- * - If no 3s are present, the lowest die is removed and its value is added to the score
- * - Remaining dice are re-rolled and the process repeats until no dice remain
- * - The total score is the sum of all non-zero rolls
- * 
- * This class can simulate thousands of games and provide statistical analysis
- * of score distributions.
+ * Plays the same game as {@link DiceGame} (the rules live in
+ * {@link ArrayGameKernel}), but runs its simulations on a
+ * {@link ForkJoinEngine} using all available processors by default. Both
+ * classes share one command line; from there this one defaults to the "auto"
+ * engine, which only goes parallel when the run is large enough to pay for it
+ * (see {@link ExecutionPlanner}).
  * 
  * @author Generated
  * @version 1.0
  */
 public class DiceGame2 {
-    private static final int DIE_FACES = 6;
-    private static final int NEUTRAL_VALUE = 3;
-    private static final int MIN_DIE_VALUE = 1;
-    private static final int MAX_DIE_VALUE = 6;
-    private static final int INITIAL_LOWEST_VALUE = MAX_DIE_VALUE + 1;
-    private static final int PERCENTAGE_MULTIPLIER = 100;
-    private static final int DEFAULT_NUM_DICE = 5;
-    private static final int DEFAULT_NUM_SIMULATIONS = 10000;
-    
     private final int numDice;
-    private final int numSimulations;
+    private final long numSimulations;
     private final Random random;
+    private final RandomSource randomSource;
+    private final SimulationEngine engine;
+    private final ThreadLocal<ArrayGameKernel> kernels;
     
     /**
      * Constructs a new DiceGame with the specified parameters.
@@ -39,94 +29,57 @@ public class DiceGame2 {
      * @param numSimulations the number of game simulations to run (must be positive)
      * @throws IllegalArgumentException if either parameter is non-positive
      */
-    public DiceGame2(int numDice, int numSimulations) {
-        if (numDice <= 0 || numSimulations <= 0) {
-            throw new IllegalArgumentException("Number of dice and simulations must be positive");
-        }
-        this.numDice = numDice;
-        this.numSimulations = numSimulations;
-        this.random = new Random();
-    }
-    
-    /**
-     * Plays a single game according to the dice game rules.
-     * 
-     * @return the total score for this game (sum of all scoring rolls)
-     */
-    public int playGame() {
-        int[] dice = new int[numDice];
-        int activeDice = numDice;
-        
-        for (int i = 0; i < activeDice; i++) {
-            dice[i] = rollDie();
-        }
-        
-        int totalScore = 0;
-        
-        while (activeDice > 0) {
-            boolean hasNeutralValues = false;
-            int lowestValue = INITIAL_LOWEST_VALUE;
-            int lowestIndex = -1;
-            
-            for (int i = 0; i < activeDice; i++) {
-                if (dice[i] == NEUTRAL_VALUE) {
-                    hasNeutralValues = true;
-                }
-                if (dice[i] < lowestValue) {
-                    lowestValue = dice[i];
-                    lowestIndex = i;
-                }
-            }
-            
-            if (hasNeutralValues) {
-                activeDice = removeNeutralValues(dice, activeDice);
-            } else {
-                totalScore += lowestValue;
-                dice[lowestIndex] = dice[activeDice - 1];
-                activeDice--;
-            }
-            
-            rollActiveDice(dice, activeDice);
-        }
-        
-        return totalScore;
+    public DiceGame2(int numDice, long numSimulations) {
+        this(numDice, numSimulations, RandomSource.unseeded());
     }
     
     /**
-     * Rolls a single six-sided die.
+     * Constructs a new DiceGame2 whose parallel simulation draws from the given
+     * random source. Passing a seeded source makes {@link #runSimulation()}
+     * reproducible regardless of how many worker threads take part.
      * 
-     * @return a random integer between 1 and 6 inclusive
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @param numSimulations the number of game simulations to run (must be positive)
+     * @param randomSource the source of per-worker random streams
+     * @throws IllegalArgumentException if either count is non-positive or the source is null
      */
-    private int rollDie() {
-        return random.nextInt(DIE_FACES) + MIN_DIE_VALUE;
+    public DiceGame2(int numDice, long numSimulations, RandomSource randomSource) {
+        this(numDice, numSimulations, randomSource, new ForkJoinSimulator());
     }
     
     /**
-     * Removes all neutral values (3s) from the active dice array.
-     * This is done in-place by compacting the array to the left.
+     * Constructs a new DiceGame2 that runs on the given fork-join simulator,
+     * which fixes the number of worker threads and the games per chunk.
      * 
-     * @param dice the array containing current dice values
-     * @param activeDice the number of currently active dice
-     * @return the new number of active dice after removal
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @param numSimulations the number of game simulations to run (must be positive)
+     * @param randomSource the source of per-worker random streams
+     * @param simulator the simulator that plays the games
+     * @throws IllegalArgumentException if either count is non-positive or a dependency is null
      */
-    private int removeNeutralValues(int[] dice, int activeDice) {
-        int writeIndex = 0;
-        for (int i = 0; i < activeDice; i++) {
-            if (dice[i] != NEUTRAL_VALUE) {
-                dice[writeIndex++] = dice[i];
-            }
+    public DiceGame2(int numDice, long numSimulations, RandomSource randomSource, ForkJoinSimulator simulator) {
+        if (numDice <= 0 || numSimulations <= 0) {
+            throw new IllegalArgumentException("Number of dice and simulations must be positive");
+        }
+        if (randomSource == null || simulator == null) {
+            throw new IllegalArgumentException("Random source and simulator must not be null");
         }
-        return writeIndex;
+        this.numDice = numDice;
+        this.numSimulations = numSimulations;
+        this.random = new Random();
+        this.randomSource = randomSource;
+        this.engine = new ForkJoinEngine(simulator);
+        this.kernels = ThreadLocal.withInitial(() -> new ArrayGameKernel(numDice));
     }
     
     /**
-     * Re-rolls all currently active dice with new random values.
+     * Plays a single game according to the dice game rules.
+     * Each calling thread reuses its own kernel, so no memory is allocated per game.
      * 
-     * @param dice the array to update with new dice values
-     * @param activeDice the number of dice positions to re-roll
+     * @return the total score for this game (sum of all scoring rolls)
      */
-    private void rollActiveDice(int[] dice, int activeDice) {
-        IntStream.range(0, activeDice).forEach(i -> dice[i] = rollDie());
+    public int playGame() {
+        return kernels.get().playGame(random);
     }
     
     /**
@@ -140,56 +93,34 @@ public class DiceGame2 {
      * Output is formatted for easy analysis of game statistics.
      */
     public void runSimulation() {
-        long startTime = System.currentTimeMillis();
-        AtomicIntegerArray scoreFrequency = new AtomicIntegerArray(numDice * MAX_DIE_VALUE + 1);
-        
-        IntStream.range(0, numSimulations)
-                .parallel()
-                .forEach(i -> {
-                    int gameScore = playGame();
-                    if (gameScore < scoreFrequency.length()) {
-                        scoreFrequency.incrementAndGet(gameScore);
-                    }
-                });
-        
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-        
-        System.out.println("Number of simulations was " + numSimulations + " using " + numDice + " dice.");
-        
-        for (int score = 0; score < scoreFrequency.length(); score++) {
-            int count = scoreFrequency.get(score);
-            if (count > 0) {
-                double percentage = (double) count * PERCENTAGE_MULTIPLIER / numSimulations;
-                System.out.printf("Total %d occurs %.2f%% occurred %.1f times.%n",
-                    score, percentage, (double) count);
-            }
-        }
-        
-    System.out.printf("Total simulation took %d milliseconds.%n", duration);
+        engine.run(() -> new ArrayGameKernel(numDice), numSimulations, randomSource)
+            .writeTable(numDice, System.out);
+    }
+    
+    /**
+     * Plays all simulations in parallel and returns the score frequencies.
+     * 
+     * The games are split into fixed-size chunks, each played into its own
+     * histogram with its own random stream, and the chunk histograms are summed
+     * at the end. Workers never touch shared counters or a shared generator, and
+     * the outcome for a seeded source does not depend on the thread count.
+     * 
+     * @return the number of games that ended with each score, indexed by score
+     */
+    public long[] simulate() {
+        return engine.simulate(() -> new ArrayGameKernel(numDice), numSimulations, randomSource);
     }
     
     /**
-     * Main entry point for the dice game simulator.
+     * Main entry point for the parallel dice game simulator.
      * 
-     * Command line arguments:
-     * - args[0]: number of dice (optional, default: 5)
-     * - args[1]: number of simulations (optional, default: 10000)
+     * Takes the same arguments as {@link DiceGame#main(String[])} but defaults
+     * to the "auto" engine.
      * 
      * @param args command line arguments for customizing the simulation
+     * @throws IOException if the trace file cannot be written
      */
-    public static void main(String[] args) {
-        int numDice = DEFAULT_NUM_DICE;
-        int numSimulations = DEFAULT_NUM_SIMULATIONS;
-        
-        if (args.length >= 1) {
-            numDice = Integer.parseInt(args[0]);
-        }
-        if (args.length >= 2) {
-            numSimulations = Integer.parseInt(args[1]);
-        }
-        
-        DiceGame game = new DiceGame(numDice, numSimulations);
-        game.runSimulation();
+    public static void main(String[] args) throws IOException {
+        DiceGame.run(args, SimulationEngines.AUTO);
     }
-}
\ No newline at end of file
+}
@@ -41,7 +41,7 @@ public class DiceGameTest {
             randomField.setAccessible(true);
             
             assertEquals(TEST_NUM_DICE, numDiceField.get(game));
-            assertEquals(TEST_NUM_SIMULATIONS, numSimulationsField.get(game));
+            assertEquals((long) TEST_NUM_SIMULATIONS, numSimulationsField.get(game));
             assertNotNull(randomField.get(game));
         } catch (Exception e) {
             fail("Failed to access private fields: " + e.getMessage());
@@ -0,0 +1,297 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Checks that an engine and kernel produce the right score distribution, so
+ * that faster implementations of {@link GameKernel#playGame} can be trusted.
+ *
+ * Each check plays a fixed budget of games with a fixed seed on the given
+ * engine and compares the histogram with a reference: either exact
+ * probabilities, by default those of {@link ExactDistributionSolver}, or the
+ * histogram of a trusted long run. Two tests are applied, both from
+ * {@link Statistics}: Pearson's chi-squared test, which notices a wrong
+ * probability for any score, and the Kolmogorov-Smirnov test, which is more
+ * sensitive to a small shift of the whole distribution. A check passes when
+ * neither p-value falls below the significance level. With a fixed seed the
+ * outcome is reproducible, so a check that passes keeps passing until the
+ * kernel changes what it computes.
+ *
+ * A trusted run used as the reference must come from a different seed than
+ * the checks; otherwise an engine that reproduces the reference kernel's
+ * streams trivially matches it.
+ *
+ * The counting kernel samples from the same neutral-count and lowest-face
+ * probabilities that {@link ExactDistributionSolver} is built from, so
+ * agreeing with the solver would not show either of them right. It is
+ * checked instead against a longer trusted run of {@link ArrayGameKernel},
+ * which plays every die, both at the requested number of dice and at
+ * {@value #LARGE_NUM_DICE} dice, where its outcome tables are trimmed.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class EquivalenceHarness {
+    public static final long DEFAULT_GAMES = 1_000_000;
+    public static final long DEFAULT_SEED = 42L;
+    /** The significance level of each test; a correct engine fails a check about twice this often. */
+    public static final double DEFAULT_SIGNIFICANCE = 1e-3;
+    /** The number of dice of the large-game check of the counting kernel. */
+    public static final int LARGE_NUM_DICE = 5000;
+    /** How many times fewer games the large-game check plays, since each game rolls thousands of dice. */
+    static final long LARGE_GAMES_DIVISOR = 100;
+    /** How many times more games a trusted reference run plays than the check it serves. */
+    static final long TRUSTED_RUN_MULTIPLIER = 4;
+    private static final String[] KERNELS = {"array", "vector", "swar", "alias"};
+    private static final String[] OTHER_ENGINES = {SimulationEngines.SEQUENTIAL, SimulationEngines.PARALLEL_STREAM};
+
+    private final long games;
+    private final long seed;
+    private final double significance;
+    private final ExactDistributionSolver solver = new ExactDistributionSolver();
+
+    /**
+     * Constructs a harness with the default budget, seed and significance level.
+     */
+    public EquivalenceHarness() {
+        this(DEFAULT_GAMES, DEFAULT_SEED, DEFAULT_SIGNIFICANCE);
+    }
+
+    /**
+     * Constructs a harness.
+     *
+     * @param games the number of games each check plays (must be positive)
+     * @param seed the seed of every check's random streams
+     * @param significance the p-value below which a test fails (must be in (0, 1))
+     * @throws IllegalArgumentException if games or significance is out of range
+     */
+    public EquivalenceHarness(long games, long seed, double significance) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("Number of games must be positive");
+        }
+        if (!(significance > 0 && significance < 1)) {
+            throw new IllegalArgumentException("Significance must be in (0, 1)");
+        }
+        this.games = games;
+        this.seed = seed;
+        this.significance = significance;
+    }
+
+    /**
+     * Checks an engine and kernel against the exact distribution of the standard game.
+     *
+     * @param name a label for the report
+     * @param engine the engine to run
+     * @param kernels creates the kernel under test
+     * @param numDice the number of dice the kernels play with (must be positive)
+     * @return the report
+     * @throws IllegalArgumentException if numDice is non-positive or does not match the kernels
+     */
+    public Report check(String name, SimulationEngine engine, Supplier<? extends GameKernel> kernels, int numDice) {
+        return check(name, engine, kernels, solver.distribution(numDice));
+    }
+
+    /**
+     * Checks an engine and kernel against exact probabilities.
+     *
+     * @param name a label for the report
+     * @param engine the engine to run
+     * @param kernels creates the kernel under test
+     * @param probabilities the probability of every score, indexed by score
+     * @return the report
+     * @throws IllegalArgumentException if the probabilities do not cover the kernels' scores
+     */
+    public Report check(String name, SimulationEngine engine, Supplier<? extends GameKernel> kernels,
+            double[] probabilities) {
+        SimulationResult result = engine.run(kernels, games, RandomSource.seeded(seed));
+        long[] histogram = result.histogram();
+        return new Report(name, result, Statistics.chiSquaredPValue(histogram, probabilities),
+            Statistics.kolmogorovSmirnovStatistic(histogram, probabilities),
+            Statistics.kolmogorovSmirnovPValue(histogram, probabilities), significance);
+    }
+
+    /**
+     * Checks an engine and kernel against the histogram of a trusted run.
+     *
+     * @param name a label for the report
+     * @param engine the engine to run
+     * @param kernels creates the kernel under test
+     * @param reference the number of games of the trusted run that ended with each score
+     * @return the report
+     * @throws IllegalArgumentException if the reference does not cover the kernels' scores or is empty
+     */
+    public Report check(String name, SimulationEngine engine, Supplier<? extends GameKernel> kernels,
+            long[] reference) {
+        SimulationResult result = engine.run(kernels, games, RandomSource.seeded(seed));
+        long[] histogram = result.histogram();
+        return new Report(name, result, Statistics.chiSquaredPValue(histogram, reference),
+            Statistics.kolmogorovSmirnovStatistic(histogram, reference),
+            Statistics.kolmogorovSmirnovPValue(histogram, reference), significance);
+    }
+
+    /**
+     * Checks every known kernel on the fork-join engine and the reference
+     * kernel on every engine, against the exact distribution, except the
+     * counting kernel, which is checked against trusted runs of the reference
+     * kernel at numDice and at {@value #LARGE_NUM_DICE} dice.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param parallelism the number of worker threads of the parallel engines (must be positive)
+     * @return one report per check
+     * @throws IllegalArgumentException if numDice or parallelism is non-positive
+     */
+    public List<Report> checkAll(int numDice, int parallelism) {
+        List<Report> reports = new ArrayList<>();
+        SimulationEngine forkJoin = SimulationEngines.byName(SimulationEngines.FORK_JOIN, parallelism,
+            ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+        for (String kernel : KERNELS) {
+            reports.add(check(kernel, forkJoin, GameKernels.byName(kernel, numDice), numDice));
+        }
+        reports.add(check("counting", forkJoin, GameKernels.byName("counting", numDice),
+            trustedRun(forkJoin, numDice, games * TRUSTED_RUN_MULTIPLIER)));
+        EquivalenceHarness large = new EquivalenceHarness(Math.max(1, games / LARGE_GAMES_DIVISOR), seed,
+            significance);
+        reports.add(large.check("counting " + LARGE_NUM_DICE + " dice", forkJoin,
+            GameKernels.byName("counting", LARGE_NUM_DICE),
+            trustedRun(forkJoin, LARGE_NUM_DICE, large.games * TRUSTED_RUN_MULTIPLIER)));
+        for (String engine : OTHER_ENGINES) {
+            reports.add(check("array", SimulationEngines.byName(engine, parallelism,
+                ForkJoinSimulator.DEFAULT_CHUNK_SIZE), GameKernels.byName("array", numDice), numDice));
+        }
+        return reports;
+    }
+
+    /**
+     * Plays a trusted run of the reference kernel, seeded differently from the checks.
+     */
+    private long[] trustedRun(SimulationEngine engine, int numDice, long trustedGames) {
+        return engine.run(GameKernels.byName("array", numDice), trustedGames, RandomSource.seeded(~seed))
+            .histogram();
+    }
+
+    /**
+     * The outcome of one check.
+     */
+    public static final class Report {
+        private final String name;
+        private final String engine;
+        private final long games;
+        private final long elapsedNanos;
+        private final double chiSquaredPValue;
+        private final double ksStatistic;
+        private final double ksPValue;
+        private final double significance;
+
+        Report(String name, SimulationResult result, double chiSquaredPValue, double ksStatistic, double ksPValue,
+                double significance) {
+            this.name = name;
+            this.engine = result.engine();
+            this.games = result.games();
+            this.elapsedNanos = result.elapsedNanos();
+            this.chiSquaredPValue = chiSquaredPValue;
+            this.ksStatistic = ksStatistic;
+            this.ksPValue = ksPValue;
+            this.significance = significance;
+        }
+
+        /**
+         * @return the label of the check
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the name of the engine that ran the games
+         */
+        public String engine() {
+            return engine;
+        }
+
+        /**
+         * @return the number of games played
+         */
+        public long games() {
+            return games;
+        }
+
+        /**
+         * @return how long the games took to play, in nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return the p-value of the chi-squared test
+         */
+        public double chiSquaredPValue() {
+            return chiSquaredPValue;
+        }
+
+        /**
+         * @return the largest gap between the observed and reference cumulative distributions
+         */
+        public double ksStatistic() {
+            return ksStatistic;
+        }
+
+        /**
+         * @return the p-value of the Kolmogorov-Smirnov test
+         */
+        public double ksPValue() {
+            return ksPValue;
+        }
+
+        /**
+         * @return true if neither test rejected the engine at the significance level
+         */
+        public boolean passed() {
+            return chiSquaredPValue >= significance && ksPValue >= significance;
+        }
+
+        /**
+         * @return a one-line summary, such as
+         *         {@code PASS swar on forkjoin: 1000000 games, chi2 p=0.4312, KS D=0.00081 p=0.7124, 85 ms}
+         */
+        @Override
+        public String toString() {
+            return String.format("%s %s on %s: %d games, chi2 p=%.4f, KS D=%.5f p=%.4f, %d ms",
+                passed() ? "PASS" : "FAIL", name, engine, games, chiSquaredPValue, ksStatistic, ksPValue,
+                elapsedNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Main entry point for checking every kernel and engine.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: number of games per check (optional, default: 1000000)
+     * - args[2]: random seed (optional, default: 42)
+     *
+     * Exits with status 1 if any check fails.
+     *
+     * @param args command line arguments for customizing the checks
+     */
+    public static void main(String[] args) {
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : 5;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : DEFAULT_GAMES;
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        List<Report> reports = new EquivalenceHarness(games, seed, DEFAULT_SIGNIFICANCE)
+            .checkAll(numDice, parallelism);
+        int passed = 0;
+        for (Report report : reports) {
+            System.out.println(report);
+            if (report.passed()) {
+                passed++;
+            }
+        }
+        System.out.println(passed + " of " + reports.size() + " checks passed with " + numDice + " dice.");
+        if (passed < reports.size()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the EquivalenceHarness class.
+ */
+@DisplayName("EquivalenceHarness Unit Tests")
+public class EquivalenceHarnessTest {
+
+    private static final int NUM_DICE = 5;
+
+    private static EquivalenceHarness harness() {
+        return new EquivalenceHarness(200_000, 7L, EquivalenceHarness.DEFAULT_SIGNIFICANCE);
+    }
+
+    /**
+     * A kernel that plays correctly except that one game in twenty scores a point too many.
+     */
+    private static Supplier<GameKernel> skewed() {
+        return () -> new GameKernel() {
+            private final ArrayGameKernel delegate = new ArrayGameKernel(NUM_DICE);
+
+            @Override
+            public int playGame(RandomGenerator random) {
+                int score = delegate.playGame(random);
+                return score < maxScore() && random.nextInt(20) == 0 ? score + 1 : score;
+            }
+
+            @Override
+            public int maxScore() {
+                return delegate.maxScore();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Every kernel and engine should match the exact distribution or a trusted run")
+    void testAllKernelsPass() {
+        List<EquivalenceHarness.Report> reports = harness().checkAll(NUM_DICE, 2);
+        assertEquals(8, reports.size());
+        for (EquivalenceHarness.Report report : reports) {
+            assertTrue(report.passed(), report.toString());
+            assertEquals(report.name().endsWith(" dice") ? 200_000 / EquivalenceHarness.LARGE_GAMES_DIVISOR : 200_000,
+                report.games());
+            assertTrue(report.toString().startsWith("PASS " + report.name() + " on " + report.engine()));
+        }
+    }
+
+    @Test
+    @DisplayName("A kernel that shifts a few games by one point should fail")
+    void testSkewedKernelFails() {
+        SimulationEngine engine = new ForkJoinEngine(2, 1000);
+        EquivalenceHarness.Report report = harness().check("skewed", engine, skewed(), NUM_DICE);
+        assertFalse(report.passed(), report.toString());
+        assertTrue(report.ksPValue() < EquivalenceHarness.DEFAULT_SIGNIFICANCE);
+        assertTrue(report.toString().startsWith("FAIL skewed on forkjoin"));
+    }
+
+    @Test
+    @DisplayName("Checks against a trusted run should pass for a correct kernel and fail for a skewed one")
+    void testTrustedRunReference() {
+        long[] reference = new ForkJoinSimulator(2, 1000)
+            .simulate(() -> new ArrayGameKernel(NUM_DICE), 1_000_000, RandomSource.seeded(99L));
+        SimulationEngine engine = new ForkJoinEngine(2, 1000);
+        EquivalenceHarness.Report correct = harness().check("swar", engine,
+            () -> new SwarGameKernel(NUM_DICE), reference);
+        assertTrue(correct.passed(), correct.toString());
+        assertFalse(harness().check("skewed", engine, skewed(), reference).passed());
+    }
+
+    @Test
+    @DisplayName("Checks with the same seed should give the same report")
+    void testReproducible() {
+        SimulationEngine engine = new ForkJoinEngine(2, 1000);
+        EquivalenceHarness.Report first = harness().check("alias", engine, () -> new AliasGameKernel(NUM_DICE),
+            NUM_DICE);
+        EquivalenceHarness.Report second = harness().check("alias", new SequentialEngine(1000),
+            () -> new AliasGameKernel(NUM_DICE), NUM_DICE);
+        assertEquals(first.chiSquaredPValue(), second.chiSquaredPValue());
+        assertEquals(first.ksStatistic(), second.ksStatistic());
+    }
+
+    @Test
+    @DisplayName("Invalid arguments should be rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new EquivalenceHarness(0, 1L, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new EquivalenceHarness(100, 1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> new EquivalenceHarness(100, 1L, 1));
+        SimulationEngine engine = new SequentialEngine(100);
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquivalenceHarness(100, 1L, 0.01).check("array", engine, () -> new ArrayGameKernel(3), 4));
+    }
+}
@@ -0,0 +1,296 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the exact score distribution of the dice game instead of estimating it by simulation.
+ *
+ * Because every remaining die is re-rolled each round, the game is a Markov
+ * chain whose only state is the number of dice still on the board. A roll of
+ * {@code n} dice either shows {@code k >= 1} threes (probability
+ * {@code C(n,k) 5^(n-k) / 6^n}, leaving {@code n - k} dice and scoring nothing)
+ * or shows no threes with lowest face {@code m} (probability
+ * {@code (a(m)^n - a(m+1)^n) / 6^n}, where {@code a(m)} counts the non-neutral
+ * faces that are at least {@code m}), leaving {@code n - 1} dice and scoring
+ * {@code m}. Every transition removes at least one die, so the distribution for
+ * {@code n} dice follows from the memoized distributions for fewer dice.
+ *
+ * Two precisions are offered. {@link #distribution(int)} works in doubles and
+ * handles dozens of dice in milliseconds. {@link #exactCounts(int)} works in
+ * integers scaled by {@code 6^(n(n+1)/2)}, the length of the longest possible
+ * sequence of rolls, and is exact at the cost of big-number arithmetic.
+ *
+ * Both return arrays indexed by score with the same length as the histogram
+ * printed by {@link DiceGame#runSimulation()}, which makes the solver a
+ * convenient reference when validating the simulators.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ExactDistributionSolver {
+    private static final int DIE_FACES = 6;
+    private static final int NEUTRAL_VALUE = 3;
+    private static final int MIN_DIE_VALUE = 1;
+    private static final int MAX_DIE_VALUE = 6;
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final BigInteger FACES = BigInteger.valueOf(DIE_FACES);
+
+    private final List<double[]> distributions = new ArrayList<>();
+    /** One past the highest score with a non-zero probability, for each distribution. */
+    private final List<Integer> supportEnds = new ArrayList<>();
+    private final List<BigInteger[]> exactCounts = new ArrayList<>();
+
+    /**
+     * Constructs a solver with an empty memo; results are cached as they are computed.
+     */
+    public ExactDistributionSolver() {
+        distributions.add(new double[] {1.0});
+        supportEnds.add(1);
+        exactCounts.add(new BigInteger[] {BigInteger.ONE});
+    }
+
+    /**
+     * Returns the probability of every final score for a game with the given number of dice.
+     *
+     * @param numDice the number of dice (must be positive)
+     * @return probabilities indexed by score, of length {@code numDice * 6 + 1}
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public synchronized double[] distribution(int numDice) {
+        validate(numDice);
+        for (int n = distributions.size(); n <= numDice; n++) {
+            double[] distribution = solveDouble(n);
+            int end = distribution.length;
+            while (distribution[end - 1] == 0) {
+                end--;
+            }
+            distributions.add(distribution);
+            supportEnds.add(end);
+        }
+        return distributions.get(numDice).clone();
+    }
+
+    /**
+     * Returns the exact distribution as integer weights over a common denominator.
+     * Entry {@code s} is the probability of score {@code s} multiplied by
+     * {@link #exactTotal(int)}; equivalently, the exact number of times score
+     * {@code s} occurs in that many perfectly balanced games.
+     *
+     * @param numDice the number of dice (must be positive)
+     * @return weights indexed by score, of length {@code numDice * 6 + 1}
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public synchronized BigInteger[] exactCounts(int numDice) {
+        validate(numDice);
+        for (int n = exactCounts.size(); n <= numDice; n++) {
+            exactCounts.add(solveExact(n));
+        }
+        return exactCounts.get(numDice).clone();
+    }
+
+    /**
+     * Returns the common denominator of {@link #exactCounts(int)}: {@code 6^(n(n+1)/2)}.
+     *
+     * @param numDice the number of dice (must be positive)
+     * @return the sum of all exact weights for that number of dice
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public static BigInteger exactTotal(int numDice) {
+        validate(numDice);
+        return FACES.pow(rollsInLongestGame(numDice));
+    }
+
+    /**
+     * Returns the probability that a roll of the given number of dice shows
+     * exactly k neutral values, for every k from 0 to activeDice.
+     *
+     * @param activeDice the number of dice rolled (must be positive)
+     * @return probabilities indexed by the number of neutral values
+     */
+    static double[] neutralCountProbabilities(int activeDice) {
+        double[] probabilities = new double[activeDice + 1];
+        double oddsPerNeutral = 1.0 / (DIE_FACES - 1);
+        // Start from the most likely count, whose probability is at least about
+        // 1 / sqrt(activeDice), and walk outwards by ratios: (5/6)^n alone
+        // underflows above about 4000 dice, while this way only counts whose
+        // true probability is below the smallest double become 0.
+        int mode = (activeDice + 1) / DIE_FACES;
+        double logMode = mode * Math.log(1.0 / DIE_FACES)
+            + (activeDice - mode) * Math.log((double) (DIE_FACES - 1) / DIE_FACES);
+        for (int i = 0; i < mode; i++) {
+            logMode += Math.log((double) (activeDice - i) / (i + 1));
+        }
+        probabilities[mode] = Math.exp(logMode);
+        double total = probabilities[mode];
+        for (int k = mode; k < activeDice; k++) {
+            probabilities[k + 1] = probabilities[k] * (activeDice - k) / (k + 1) * oddsPerNeutral;
+            total += probabilities[k + 1];
+        }
+        for (int k = mode; k > 0; k--) {
+            probabilities[k - 1] = probabilities[k] * k / (activeDice - k + 1) / oddsPerNeutral;
+            total += probabilities[k - 1];
+        }
+        // The ratios are exact to rounding, so only the mode's scale can be off.
+        for (int k = 0; k <= activeDice; k++) {
+            probabilities[k] /= total;
+        }
+        return probabilities;
+    }
+
+    /**
+     * Returns the probability that a roll of the given number of dice shows no
+     * neutral value and has the given lowest face, for every face.
+     *
+     * @param activeDice the number of dice rolled (must be positive)
+     * @return probabilities indexed by face value (index 0 and the neutral face are always 0)
+     */
+    static double[] lowestFaceProbabilities(int activeDice) {
+        double[] probabilities = new double[MAX_DIE_VALUE + 1];
+        for (int face = MIN_DIE_VALUE; face <= MAX_DIE_VALUE; face++) {
+            if (face != NEUTRAL_VALUE) {
+                probabilities[face] = Math.pow((double) facesAtLeast(face) / DIE_FACES, activeDice)
+                    - Math.pow((double) facesAtLeast(face + 1) / DIE_FACES, activeDice);
+            }
+        }
+        return probabilities;
+    }
+
+    private double[] solveDouble(int n) {
+        double[] result = new double[n * MAX_DIE_VALUE + 1];
+        double[] neutralCounts = neutralCountProbabilities(n);
+        for (int k = 1; k <= n; k++) {
+            addShifted(result, distributions.get(n - k), supportEnds.get(n - k), 0, neutralCounts[k]);
+        }
+        double[] lowestFaces = lowestFaceProbabilities(n);
+        for (int face = MIN_DIE_VALUE; face <= MAX_DIE_VALUE; face++) {
+            if (face != NEUTRAL_VALUE) {
+                addShifted(result, distributions.get(n - 1), supportEnds.get(n - 1), face, lowestFaces[face]);
+            }
+        }
+        return result;
+    }
+
+    private BigInteger[] solveExact(int n) {
+        BigInteger[] result = new BigInteger[n * MAX_DIE_VALUE + 1];
+        Arrays.fill(result, BigInteger.ZERO);
+
+        BigInteger nonNeutralFaces = BigInteger.valueOf(DIE_FACES - 1);
+        BigInteger binomial = BigInteger.ONE;
+        for (int k = 1; k <= n; k++) {
+            binomial = binomial.multiply(BigInteger.valueOf(n - k + 1)).divide(BigInteger.valueOf(k));
+            BigInteger outcomes = binomial.multiply(nonNeutralFaces.pow(n - k));
+            int missingRolls = rollsInLongestGame(n - 1) - rollsInLongestGame(n - k);
+            addShifted(result, exactCounts.get(n - k), 0, outcomes.multiply(FACES.pow(missingRolls)));
+        }
+        for (int face = MIN_DIE_VALUE; face <= MAX_DIE_VALUE; face++) {
+            if (face != NEUTRAL_VALUE) {
+                BigInteger outcomes = BigInteger.valueOf(facesAtLeast(face)).pow(n)
+                    .subtract(BigInteger.valueOf(facesAtLeast(face + 1)).pow(n));
+                addShifted(result, exactCounts.get(n - 1), face, outcomes);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the first end entries of source, scaled by weight, to target from
+     * index shift on. For thousands of dice most neutral counts and high
+     * scores have probability 0 in double precision, and skipping them keeps
+     * the solver far below cubic time.
+     */
+    private static void addShifted(double[] target, double[] source, int end, int shift, double weight) {
+        if (weight == 0) {
+            return;
+        }
+        for (int score = 0; score < end; score++) {
+            target[score + shift] += source[score] * weight;
+        }
+    }
+
+    private static void addShifted(BigInteger[] target, BigInteger[] source, int shift, BigInteger weight) {
+        for (int score = 0; score < source.length; score++) {
+            if (source[score].signum() != 0) {
+                target[score + shift] = target[score + shift].add(source[score].multiply(weight));
+            }
+        }
+    }
+
+    /**
+     * Counts the non-neutral faces whose value is at least the given face.
+     */
+    private static int facesAtLeast(int face) {
+        int count = 0;
+        for (int value = Math.max(face, MIN_DIE_VALUE); value <= MAX_DIE_VALUE; value++) {
+            if (value != NEUTRAL_VALUE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns n + (n-1) + ... + 1, the number of dice rolled when every round removes one die.
+     */
+    private static int rollsInLongestGame(int numDice) {
+        return numDice * (numDice + 1) / 2;
+    }
+
+    private static void validate(int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+    }
+
+    /**
+     * Main entry point for the exact solver.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: precision, either "double" or "exact" (optional, default: double)
+     *
+     * @param args command line arguments for customizing the computation
+     */
+    public static void main(String[] args) {
+        int numDice = DEFAULT_NUM_DICE;
+        boolean exact = false;
+
+        if (args.length >= 1) {
+            numDice = Integer.parseInt(args[0]);
+        }
+        if (args.length >= 2) {
+            exact = "exact".equalsIgnoreCase(args[1]);
+            if (!exact && !"double".equalsIgnoreCase(args[1])) {
+                System.err.println("Usage: ExactDistributionSolver [numDice] [double|exact]");
+                System.exit(2);
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        double[] probabilities = solver.distribution(numDice);
+        BigInteger[] counts = exact ? solver.exactCounts(numDice) : null;
+        BigInteger total = exact ? exactTotal(numDice) : null;
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.println("Exact distribution using " + numDice + " dice.");
+
+        for (int score = 0; score < probabilities.length; score++) {
+            boolean possible = exact ? counts[score].signum() > 0 : probabilities[score] > 0;
+            if (possible) {
+                double percentage = probabilities[score] * PERCENTAGE_MULTIPLIER;
+                if (exact) {
+                    BigInteger divisor = counts[score].gcd(total);
+                    System.out.printf("Total %d occurs %.2f%% with probability %s/%s.%n",
+                        score, percentage, counts[score].divide(divisor), total.divide(divisor));
+                } else {
+                    System.out.printf("Total %d occurs %.2f%% with probability %.6e.%n",
+                        score, percentage, probabilities[score]);
+                }
+            }
+        }
+
+        System.out.printf("Total computation took %d milliseconds.%n", duration);
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigInteger;
+
+/**
+ * Unit tests for the ExactDistributionSolver class.
+ * 
+ * Checks the solver against hand-computed cases and uses it as the reference
+ * for a seeded simulation.
+ */
+@DisplayName("ExactDistributionSolver Unit Tests")
+public class ExactDistributionSolverTest {
+    
+    private static final double TOLERANCE = 1e-12;
+    
+    @Test
+    @DisplayName("Single die should score its face, or 0 on a 3")
+    void testSingleDie() {
+        double[] distribution = new ExactDistributionSolver().distribution(1);
+        
+        assertEquals(7, distribution.length);
+        for (int score = 0; score <= 6; score++) {
+            assertEquals(score == 3 ? 0.0 : 1.0 / 6, distribution[score], TOLERANCE,
+                "Wrong probability for score " + score);
+        }
+    }
+    
+    @Test
+    @DisplayName("Two dice should match a hand-computed probability")
+    void testTwoDiceScoreZero() {
+        // Score 0 needs a 3 on every roll that removes dice:
+        // two 3s at once (1/36), or one 3 (10/36) followed by a single 3 (1/6).
+        double expected = 1.0 / 36 + 10.0 / 36 / 6;
+        assertEquals(expected, new ExactDistributionSolver().distribution(2)[0], TOLERANCE);
+    }
+    
+    @Test
+    @DisplayName("Probabilities should sum to one")
+    void testDistributionSumsToOne() {
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        for (int numDice = 1; numDice <= 40; numDice++) {
+            double total = 0;
+            for (double probability : solver.distribution(numDice)) {
+                total += probability;
+            }
+            assertEquals(1.0, total, 1e-9, "Distribution for " + numDice + " dice");
+        }
+    }
+    
+    @Test
+    @DisplayName("Probabilities should not underflow beyond 4,083 dice")
+    void testThousandsOfDice() {
+        double[] neutralCounts = ExactDistributionSolver.neutralCountProbabilities(5000);
+        double total = 0;
+        double mean = 0;
+        for (int k = 0; k < neutralCounts.length; k++) {
+            total += neutralCounts[k];
+            mean += k * neutralCounts[k];
+        }
+        assertEquals(1.0, total, 1e-12);
+        assertEquals(5000 / 6.0, mean, 1e-9);
+
+        double[] distribution = new ExactDistributionSolver().distribution(4100);
+        total = 0;
+        mean = 0;
+        for (int score = 0; score < distribution.length; score++) {
+            total += distribution[score];
+            mean += score * distribution[score];
+        }
+        assertEquals(1.0, total, 1e-9);
+        assertEquals(7.85, mean, 0.01);
+    }
+
+    @Test
+    @DisplayName("Exact weights should sum to the common denominator and agree with doubles")
+    void testExactMatchesDouble() {
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        int numDice = 6;
+        BigInteger[] counts = solver.exactCounts(numDice);
+        BigInteger total = ExactDistributionSolver.exactTotal(numDice);
+        double[] probabilities = solver.distribution(numDice);
+        
+        BigInteger sum = BigInteger.ZERO;
+        for (int score = 0; score < counts.length; score++) {
+            sum = sum.add(counts[score]);
+            double exact = counts[score].doubleValue() / total.doubleValue();
+            assertEquals(exact, probabilities[score], TOLERANCE);
+        }
+        assertEquals(total, sum);
+    }
+    
+    @Test
+    @DisplayName("Seeded simulation should agree with the exact distribution")
+    void testSimulationAgreesWithSolver() {
+        int numDice = 5;
+        int games = 200000;
+        double[] expected = new ExactDistributionSolver().distribution(numDice);
+        long[] histogram = new ForkJoinSimulator(2, 10000).simulate(
+            () -> new ArrayGameKernel(numDice), games, RandomSource.seeded(99L));
+        
+        for (int score = 0; score < expected.length; score++) {
+            double observed = (double) histogram[score] / games;
+            double standardError = Math.sqrt(expected[score] * (1 - expected[score]) / games);
+            assertEquals(expected[score], observed, 5 * standardError + 1e-9,
+                "Score " + score + " is out of tolerance");
+        }
+    }
+    
+    @Test
+    @DisplayName("Solver should reject non-positive dice counts")
+    void testInvalidDice() {
+        assertThrows(IllegalArgumentException.class, () -> new ExactDistributionSolver().distribution(0));
+        assertThrows(IllegalArgumentException.class, () -> ExactDistributionSolver.exactTotal(-1));
+    }
+}
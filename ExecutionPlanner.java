@@ -0,0 +1,358 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Chooses the engine, thread count and chunk size for a run from a short
+ * calibration on this machine.
+ *
+ * Two costs are measured: how long one game takes for the workload (the dice
+ * count, kernel and rules), and how long it takes to start a fork-join pool
+ * with all threads and fork one task onto each. A run of {@code n} games at
+ * {@code c} nanoseconds each is predicted to take {@code n * c} sequentially
+ * and {@code start * t / threads + n * c / t} on {@code t} of the processors; the
+ * planner picks the thread count with the lowest prediction, and the
+ * sequential engine when that is one thread. Small runs such as the default
+ * 10,000 games therefore stay on one thread while large ones use them all.
+ *
+ * Parallel runs keep the default chunk size where possible, so they give the
+ * same histograms for a seeded source as the sequential engine. Chunks are
+ * only made smaller when there would be fewer than {@value #CHUNKS_PER_THREAD}
+ * per thread, and larger when one would take less than
+ * {@value #MIN_CHUNK_NANOS} ns; sizes stay powers of two.
+ *
+ * Calibrations are stored in a properties file keyed by the workload and by
+ * the hardware (processor count, architecture and JVM), so later runs plan
+ * without measuring. Calibrating takes about 40 ms, more than a small run
+ * such as the default one takes in total, so an uncalibrated workload is
+ * first probed for about a millisecond; a run the probe puts below
+ * {@value #MIN_CALIBRATED_RUN_NANOS} ns stays sequential and leaves the
+ * calibration to the first large run. The probe plays mostly interpreted
+ * code and overestimates the cost of a game, so such runs are shorter still.
+ * Every decision and calibration is logged through the
+ * {@code ExecutionPlanner} {@link System.Logger} at {@code DEBUG} level, so
+ * the simulator's output is unchanged unless that logger is enabled.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ExecutionPlanner {
+    static final int CHUNKS_PER_THREAD = 8;
+    static final long MIN_CHUNK_NANOS = 100_000;
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int MAX_CHUNK_SIZE = 1 << 20;
+    static final long MIN_CALIBRATED_RUN_NANOS = 200_000_000;
+    private static final long CALIBRATION_NANOS = 10_000_000;
+    private static final long PROBE_NANOS = 1_000_000;
+    private static final int TIMED_BATCHES = 3;
+    private static final int POOL_CALIBRATION_RUNS = 5;
+    private static final long CALIBRATION_SEED = 0x5EED;
+    private static final System.Logger LOGGER = System.getLogger(ExecutionPlanner.class.getName());
+
+    private final Path calibrationFile;
+    private final int maxThreads;
+    private final String hardware;
+    private final Properties calibrations = new Properties();
+    private int measurements;
+
+    /**
+     * Creates a planner whose calibrations are kept in the given file.
+     *
+     * @param calibrationFile the properties file caching calibrations; null to calibrate every time
+     * @param maxThreads the most worker threads a plan may use, further capped by the processor count
+     *        (must be positive)
+     * @throws IllegalArgumentException if maxThreads is non-positive
+     */
+    public ExecutionPlanner(Path calibrationFile, int maxThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("Maximum threads must be positive");
+        }
+        this.calibrationFile = calibrationFile;
+        this.maxThreads = maxThreads;
+        this.hardware = (Runtime.getRuntime().availableProcessors() + "cpu-" + System.getProperty("os.arch")
+            + "-" + System.getProperty("java.vm.name") + "-" + System.getProperty("java.vm.version"))
+            .replaceAll("[^A-Za-z0-9.+-]", "_");
+        load();
+    }
+
+    /**
+     * @return the calibration file in the user's home directory
+     */
+    public static Path defaultCalibrationFile() {
+        return Paths.get(System.getProperty("user.home"), ".dicegame", "calibration.properties");
+    }
+
+    /**
+     * Plans a run, calibrating the workload first if this machine has not measured it yet.
+     *
+     * @param workload identifies what one game costs, such as the dice count, kernel and rules
+     * @param kernels creates the kernels the run will use
+     * @param numSimulations the number of games to play (must be positive)
+     * @return the plan
+     * @throws IllegalArgumentException if numSimulations is non-positive
+     */
+    public synchronized Plan plan(String workload, Supplier<? extends GameKernel> kernels, long numSimulations) {
+        if (numSimulations <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+        // More threads than processors only adds contention to CPU-bound games.
+        int threads = Math.min(maxThreads, Runtime.getRuntime().availableProcessors());
+        String gameKey = "game." + workload;
+        Double cachedNanosPerGame = cachedCalibration(gameKey);
+        double nanosPerGame;
+        if (cachedNanosPerGame != null) {
+            nanosPerGame = cachedNanosPerGame;
+        } else {
+            double probeNanos = measureGame(kernels, PROBE_NANOS, 1);
+            if (numSimulations * probeNanos < MIN_CALIBRATED_RUN_NANOS) {
+                Plan plan = decide(numSimulations, probeNanos, 0, 1);
+                LOGGER.log(System.Logger.Level.DEBUG, () -> String.format(Locale.ROOT,
+                    "Planned %d games of %s without calibrating: %s (probed %.1f ns per game)",
+                    numSimulations, workload, plan, probeNanos));
+                return plan;
+            }
+            nanosPerGame = calibrate(gameKey, measureGame(kernels, CALIBRATION_NANOS, TIMED_BATCHES));
+        }
+        double poolStartNanos = threads == 1 ? 0 : calibrated("pool." + threads, () -> measurePoolStart(threads));
+        Plan plan = decide(numSimulations, nanosPerGame, poolStartNanos, threads);
+        LOGGER.log(System.Logger.Level.DEBUG, () -> String.format(Locale.ROOT,
+            "Planned %d games of %s: %s (%.1f ns per game, %.2f ms to start %d threads)",
+            numSimulations, workload, plan, nanosPerGame, poolStartNanos / 1e6, threads));
+        return plan;
+    }
+
+    /**
+     * Picks the plan with the lowest predicted run time from the measured costs.
+     */
+    static Plan decide(long numSimulations, double nanosPerGame, double poolStartNanos, int maxThreads) {
+        double work = numSimulations * nanosPerGame;
+        int threads = 1;
+        double best = work;
+        for (int t = 2; t <= maxThreads; t++) {
+            double predicted = poolStartNanos * t / maxThreads + work / t;
+            if (predicted < best) {
+                best = predicted;
+                threads = t;
+            }
+        }
+        if (threads == 1) {
+            return new Plan(SimulationEngines.SEQUENTIAL, 1, ForkJoinSimulator.DEFAULT_CHUNK_SIZE, best);
+        }
+
+        int chunkSize = ForkJoinSimulator.DEFAULT_CHUNK_SIZE;
+        while (chunkSize > MIN_CHUNK_SIZE && (long) chunkSize * threads * CHUNKS_PER_THREAD > numSimulations) {
+            chunkSize /= 2;
+        }
+        while (chunkSize < MAX_CHUNK_SIZE && chunkSize * nanosPerGame < MIN_CHUNK_NANOS
+                && (long) chunkSize * 2 * threads * CHUNKS_PER_THREAD <= numSimulations) {
+            chunkSize *= 2;
+        }
+        return new Plan(SimulationEngines.FORK_JOIN, threads, chunkSize, best);
+    }
+
+    /**
+     * @return the number of measurements this planner has taken instead of reading them from the file
+     */
+    synchronized int measurements() {
+        return measurements;
+    }
+
+    private double calibrated(String name, Supplier<Double> measure) {
+        Double cached = cachedCalibration(name);
+        if (cached != null) {
+            LOGGER.log(System.Logger.Level.DEBUG, () -> "Using calibration " + name + "=" + cached);
+            return cached;
+        }
+        return calibrate(name, measure.get());
+    }
+
+    /**
+     * Stores a new measurement in the calibration file.
+     */
+    private double calibrate(String name, double value) {
+        String key = hardware + "." + name;
+        measurements++;
+        LOGGER.log(System.Logger.Level.DEBUG, () -> String.format(Locale.ROOT, "Calibrated %s=%.1f", key, value));
+        calibrations.setProperty(key, Double.toString(value));
+        save();
+        return value;
+    }
+
+    /**
+     * @return the stored calibration of this hardware, or null if there is none or it is malformed
+     */
+    private Double cachedCalibration(String name) {
+        String key = hardware + "." + name;
+        String cached = calibrations.getProperty(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(cached);
+        } catch (NumberFormatException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Ignoring malformed calibration " + key + "=" + cached);
+            return null;
+        }
+    }
+
+    /**
+     * Plays batches of doubling size until one takes the target time, so the
+     * kernel is compiled when the target is long enough, then keeps the
+     * fastest of a few more batches of that size.
+     */
+    private static double measureGame(Supplier<? extends GameKernel> kernels, long targetNanos, int timedBatches) {
+        GameKernel kernel = kernels.get();
+        RandomGenerator random = RandomSource.seeded(CALIBRATION_SEED).stream(0);
+        long checksum = 0;
+        int batch = 1;
+        long elapsed;
+        do {
+            batch *= 2;
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                checksum += kernel.playGame(random);
+            }
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < targetNanos && batch < Integer.MAX_VALUE / 2);
+
+        long fastest = Long.MAX_VALUE;
+        for (int run = 0; run < timedBatches; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                checksum += kernel.playGame(random);
+            }
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        if (checksum < 0) {
+            throw new IllegalStateException("Negative scores");
+        }
+        return Math.max(1, fastest) / (double) batch;
+    }
+
+    /**
+     * Times starting a pool and forking a trivial task onto every thread; the
+     * median of a few runs discards the first run's class loading.
+     */
+    private static double measurePoolStart(int threads) {
+        long[] runs = new long[POOL_CALIBRATION_RUNS];
+        for (int run = 0; run < runs.length; run++) {
+            long start = System.nanoTime();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(() -> IntStream.range(0, threads).parallel().sum()).join();
+            } finally {
+                pool.shutdown();
+            }
+            runs[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+
+    private void load() {
+        if (calibrationFile == null) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(calibrationFile)) {
+            calibrations.load(in);
+        } catch (NoSuchFileException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, () -> "No calibrations in " + calibrationFile + " yet");
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot read calibrations from " + calibrationFile, e);
+        }
+    }
+
+    /**
+     * Writes the calibrations to a temporary file and moves it into place. A
+     * failure only costs a calibration on the next run, so it is logged.
+     */
+    private void save() {
+        if (calibrationFile == null) {
+            return;
+        }
+        Path temporary = calibrationFile.resolveSibling(calibrationFile.getFileName() + ".tmp");
+        try {
+            Path parent = calibrationFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                calibrations.store(out, "DiceGame execution planner calibrations");
+            }
+            Files.move(temporary, calibrationFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot save calibrations to " + calibrationFile, e);
+        }
+    }
+
+    /**
+     * The engine, thread count and chunk size chosen for a run.
+     */
+    public static final class Plan {
+        private final String engine;
+        private final int threads;
+        private final int chunkSize;
+        private final double predictedNanos;
+
+        Plan(String engine, int threads, int chunkSize, double predictedNanos) {
+            this.engine = engine;
+            this.threads = threads;
+            this.chunkSize = chunkSize;
+            this.predictedNanos = predictedNanos;
+        }
+
+        /**
+         * @return the {@link SimulationEngines} name of the chosen engine
+         */
+        public String engine() {
+            return engine;
+        }
+
+        /**
+         * @return the number of worker threads
+         */
+        public int threads() {
+            return threads;
+        }
+
+        /**
+         * @return the number of games per random stream
+         */
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * @return the predicted run time in nanoseconds
+         */
+        public double predictedNanos() {
+            return predictedNanos;
+        }
+
+        /**
+         * @return a new engine that runs this plan
+         */
+        public SimulationEngine newEngine() {
+            return SimulationEngines.byName(engine, threads, chunkSize);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s on %d thread%s, chunks of %d, predicted %.2f ms", engine,
+                threads, threads == 1 ? "" : "s", chunkSize, predictedNanos / 1e6);
+        }
+    }
+}
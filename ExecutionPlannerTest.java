@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the ExecutionPlanner and PlannedEngine classes.
+ */
+@DisplayName("ExecutionPlanner Unit Tests")
+public class ExecutionPlannerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Small runs should stay sequential and large runs should use every thread")
+    void testDecide() {
+        // 100 ns per game, 2 ms to start 8 threads.
+        ExecutionPlanner.Plan small = ExecutionPlanner.decide(10_000, 100, 2_000_000, 8);
+        assertEquals(SimulationEngines.SEQUENTIAL, small.engine());
+        assertEquals(1, small.threads());
+        assertEquals(ForkJoinSimulator.DEFAULT_CHUNK_SIZE, small.chunkSize());
+        assertEquals(1_000_000, small.predictedNanos(), 1e-6);
+
+        ExecutionPlanner.Plan large = ExecutionPlanner.decide(1_000_000_000, 100, 2_000_000, 8);
+        assertEquals(SimulationEngines.FORK_JOIN, large.engine());
+        assertEquals(8, large.threads());
+        assertEquals(ForkJoinSimulator.DEFAULT_CHUNK_SIZE, large.chunkSize());
+        assertTrue(large.newEngine() instanceof ForkJoinEngine);
+
+        ExecutionPlanner.Plan medium = ExecutionPlanner.decide(20_000, 100, 2_000_000, 8);
+        assertTrue(medium.threads() > 1 && medium.threads() < 8, medium.toString());
+    }
+
+    @Test
+    @DisplayName("Chunks should shrink to balance short runs and grow when games are cheap")
+    void testChunkSize() {
+        ExecutionPlanner.Plan shortRun = ExecutionPlanner.decide(100_000, 10_000, 1_000_000, 4);
+        assertEquals(2048, shortRun.chunkSize());
+        assertTrue(shortRun.chunkSize() * 4 * ExecutionPlanner.CHUNKS_PER_THREAD <= 100_000);
+
+        // At 1 ns per game a chunk needs MIN_CHUNK_NANOS games.
+        ExecutionPlanner.Plan cheapGames = ExecutionPlanner.decide(1_000_000_000, 1, 1_000_000, 4);
+        assertTrue(cheapGames.chunkSize() >= ExecutionPlanner.MIN_CHUNK_NANOS, cheapGames.toString());
+        assertEquals(0, Integer.bitCount(cheapGames.chunkSize()) - 1);
+    }
+
+    @Test
+    @DisplayName("Calibrations should be cached in the file and reused")
+    void testCalibrationCache() throws IOException {
+        Path file = directory.resolve("planner").resolve("calibration.properties");
+        ExecutionPlanner planner = new ExecutionPlanner(file, 2);
+        planner.plan("3-array", () -> new ArrayGameKernel(3), 1_000_000_000);
+        // The game cost, and the pool start unless this machine has a single processor.
+        int measured = planner.measurements();
+        assertTrue(measured >= 1);
+        planner.plan("3-array", () -> new ArrayGameKernel(3), 10_000);
+        assertEquals(measured, planner.measurements());
+        assertTrue(Files.readString(file).contains("game.3-array="));
+
+        ExecutionPlanner reloaded = new ExecutionPlanner(file, 2);
+        reloaded.plan("3-array", () -> new ArrayGameKernel(3), 1_000_000_000);
+        assertEquals(0, reloaded.measurements());
+        reloaded.plan("4-array", () -> new ArrayGameKernel(4), 1_000_000_000);
+        assertEquals(1, reloaded.measurements());
+    }
+
+    @Test
+    @DisplayName("Small runs of an uncalibrated workload should stay sequential without calibrating")
+    void testSmallRunSkipsCalibration() {
+        Path file = directory.resolve("calibration.properties");
+        ExecutionPlanner planner = new ExecutionPlanner(file, 8);
+        ExecutionPlanner.Plan plan = planner.plan("5-array", () -> new ArrayGameKernel(5), 10_000);
+        assertEquals(SimulationEngines.SEQUENTIAL, plan.engine());
+        assertTrue(plan.predictedNanos() < ExecutionPlanner.MIN_CALIBRATED_RUN_NANOS);
+        assertEquals(0, planner.measurements());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("Planned runs should match the engine they chose")
+    void testPlannedEngine() {
+        PlannedEngine engine = new PlannedEngine(new ExecutionPlanner(directory.resolve("c.properties"), 1),
+            null, 1);
+        assertEquals(SimulationEngines.AUTO, engine.name());
+        assertNull(engine.lastPlan());
+        SimulationResult result = engine.run(() -> new ArrayGameKernel(4), 20_000, RandomSource.seeded(70L));
+        assertEquals(SimulationEngines.SEQUENTIAL, result.engine());
+        assertEquals(1, result.parallelism());
+        long[] expected = new SequentialEngine(ForkJoinSimulator.DEFAULT_CHUNK_SIZE)
+            .simulate(() -> new ArrayGameKernel(4), 20_000, RandomSource.seeded(70L));
+        assertArrayEquals(expected, result.histogram());
+        assertThrows(IllegalArgumentException.class, () -> new ExecutionPlanner(null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ExecutionPlanner(null, 1).plan("x", () -> new ArrayGameKernel(1), 0));
+    }
+}
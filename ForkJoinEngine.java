@@ -0,0 +1,46 @@
+import java.util.function.Supplier;
+
+/**
+ * Plays the chunks as a recursive fork-join task tree on a {@link ForkJoinSimulator}.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ForkJoinEngine implements SimulationEngine {
+    private final ForkJoinSimulator simulator;
+
+    /**
+     * Constructs a fork-join engine with its own pool per run.
+     *
+     * @param parallelism the number of worker threads (must be positive)
+     * @param chunkSize the number of games each leaf task plays (must be positive)
+     * @throws IllegalArgumentException if either parameter is non-positive
+     */
+    public ForkJoinEngine(int parallelism, int chunkSize) {
+        this(new ForkJoinSimulator(parallelism, chunkSize));
+    }
+
+    /**
+     * Constructs a fork-join engine on an existing simulator.
+     *
+     * @param simulator the simulator that plays the games
+     */
+    public ForkJoinEngine(ForkJoinSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource) {
+        return simulator.simulate(kernels, numSimulations, randomSource);
+    }
+
+    @Override
+    public String name() {
+        return SimulationEngines.FORK_JOIN;
+    }
+
+    @Override
+    public int parallelism() {
+        return simulator.parallelism();
+    }
+}
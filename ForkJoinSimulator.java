@@ -0,0 +1,458 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs many games on a fork-join pool and collects their score frequencies.
+ *
+ * The requested games are divided into chunks of {@code chunkSize} games. Each
+ * chunk is played by a leaf task into its own {@link ScoreHistogram} using the
+ * random stream that belongs to that chunk, so workers share no mutable state
+ * while playing. Sibling histograms are summed as the task tree joins, giving
+ * a tree reduction whose result only depends on the random source - not on
+ * the parallelism level or on how work was stolen. The histograms only cover
+ * the scores that occur, so chunks and merges stay cheap for thousands of
+ * dice, and run sizes and counts are {@code long}s.
+ *
+ * Each worker thread creates one kernel on first use and keeps it for the rest
+ * of the run, so the game loop itself allocates nothing; the only per-chunk
+ * allocation is the chunk's histogram.
+ *
+ * A simulation can optionally keep a per-game trace in a {@link TraceWriter}:
+ * game {@code g} of chunk {@code c} is stored as record
+ * {@code c * chunkSize + g}, so workers write disjoint parts of the file.
+ *
+ * Runs started through {@code simulate} or {@link #batches} are recorded in
+ * the global {@link SimulationMetrics}: leaf tasks report their chunks and
+ * inner tasks the time spent merging their children's histograms.
+ *
+ * A long run that is consumed batch by batch ({@link #batches}) is played on
+ * one pool for its whole length, with the following batch already queued
+ * while the caller looks at the last one, so the workers never wait for the
+ * caller or for a new pool between batches.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ForkJoinSimulator {
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final ForkJoinPool sharedPool;
+
+    /**
+     * Constructs a simulator using all available processors and the default chunk size.
+     */
+    public ForkJoinSimulator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a simulator with an explicit parallelism level and chunk size.
+     *
+     * @param parallelism the number of worker threads (must be positive)
+     * @param chunkSize the number of games each leaf task plays (must be positive)
+     * @throws IllegalArgumentException if either parameter is non-positive
+     */
+    public ForkJoinSimulator(int parallelism, int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.sharedPool = null;
+    }
+
+    /**
+     * Constructs a simulator that runs on an existing pool instead of creating
+     * one per simulation. The pool is shared with its other users and is never
+     * shut down by the simulator.
+     *
+     * @param pool the pool to run on
+     * @param chunkSize the number of games each leaf task plays (must be positive)
+     * @throws IllegalArgumentException if the pool is null or chunkSize is non-positive
+     */
+    public ForkJoinSimulator(ForkJoinPool pool, int chunkSize) {
+        if (pool == null || chunkSize <= 0) {
+            throw new IllegalArgumentException("Pool must not be null and chunk size must be positive");
+        }
+        this.parallelism = pool.getParallelism();
+        this.chunkSize = chunkSize;
+        this.sharedPool = pool;
+    }
+
+    /**
+     * Plays the given number of games and returns how often each score occurred.
+     *
+     * @param kernels creates the kernel owned by each worker thread
+     * @param numSimulations the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if numSimulations is non-positive
+     */
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource) {
+        return simulate(kernels, numSimulations, randomSource, 0);
+    }
+
+    /**
+     * Plays the given number of games using the random streams that start at
+     * {@code firstStream}. Successive batches of one long run pass the stream
+     * index where the previous batch stopped (see {@link #streamsFor(long)}), so
+     * the batches never reuse random numbers and together are identical to one
+     * run of the combined size made with the same chunk size.
+     *
+     * @param kernels creates the kernel owned by each worker thread
+     * @param numSimulations the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @param firstStream the stream index used by the first chunk (must not be negative)
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if numSimulations is non-positive or firstStream is negative
+     */
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource,
+            long firstStream) {
+        return invoke(newTask(kernels, numSimulations, randomSource, firstStream, null,
+            SimulationMetrics.startRun(SimulationEngines.FORK_JOIN)));
+    }
+
+    /**
+     * Plays the given number of games and also writes every game's trace.
+     *
+     * @param kernels creates the kernel owned by each worker thread
+     * @param numSimulations the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @param trace receives one record per game, indexed from 0
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if numSimulations is non-positive or the trace is too small
+     */
+    public long[] simulate(Supplier<? extends TracedGameKernel> kernels, long numSimulations,
+            RandomSource randomSource, TraceWriter trace) {
+        if (trace.games() < numSimulations) {
+            throw new IllegalArgumentException("Trace holds " + trace.games() + " games, need " + numSimulations);
+        }
+        return invoke(newTask(kernels, numSimulations, randomSource, 0, trace,
+            SimulationMetrics.startRun(SimulationEngines.FORK_JOIN)));
+    }
+
+    private long[] invoke(SimulationTask task) {
+        try {
+            if (sharedPool != null) {
+                return sharedPool.invoke(task);
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            if (task.metrics != null) {
+                task.metrics.finish();
+            }
+        }
+    }
+
+    /**
+     * Creates the root task of a simulation without running it, so callers can
+     * schedule several simulations together on one pool.
+     *
+     * @see #simulate(Supplier, long, RandomSource, long)
+     */
+    ForkJoinTask<long[]> newTask(Supplier<? extends GameKernel> kernels, long numSimulations,
+            RandomSource randomSource, long firstStream) {
+        return newTask(kernels, numSimulations, randomSource, firstStream, null, null);
+    }
+
+    /**
+     * Creates the root task of a simulation that reports its chunks and
+     * merges to the given run; the caller finishes the run once every task
+     * recording to it has completed.
+     *
+     * @see #newTask(Supplier, long, RandomSource, long)
+     */
+    ForkJoinTask<long[]> newTask(Supplier<? extends GameKernel> kernels, long numSimulations,
+            RandomSource randomSource, long firstStream, SimulationMetrics.Run metrics) {
+        return newTask(kernels, numSimulations, randomSource, firstStream, null, metrics);
+    }
+
+    /**
+     * Creates the root task of a simulation; when trace is not null the kernels
+     * must be {@link TracedGameKernel}s, and when metrics is not null the run
+     * is recorded there.
+     */
+    private SimulationTask newTask(Supplier<? extends GameKernel> kernels, long numSimulations,
+            RandomSource randomSource, long firstStream, TraceWriter trace, SimulationMetrics.Run metrics) {
+        if (numSimulations <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+        if (firstStream < 0) {
+            throw new IllegalArgumentException("First stream index must not be negative");
+        }
+        int histogramLength = kernels.get().maxScore() + 1;
+        ChunkRange chunks = new ChunkRange(ThreadLocal.withInitial(kernels), randomSource, firstStream, trace,
+            metrics, numSimulations, chunkSize, 0, streamsFor(numSimulations));
+        return new SimulationTask(chunks, metrics, histogramLength);
+    }
+
+    /**
+     * Starts playing a run as successive batches. Batch {@code k} uses the
+     * streams right after those of batch {@code k - 1}, so the batches
+     * together are identical to one simulation of the whole run; each batch
+     * holds batchSize games except the last, which holds what is left. The
+     * caller must close the returned batches, which cancels any batch not yet
+     * taken and shuts down the pool unless it is shared.
+     *
+     * @param kernels creates the kernel owned by each worker thread, kept for the whole run
+     * @param totalGames the number of games in the run (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @param firstStream the stream index used by the first chunk (must not be negative)
+     * @param batchSize the number of games per batch (must be a positive multiple of the chunk size)
+     * @return the batches, of which the first two are already playing
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    Batches batches(Supplier<? extends GameKernel> kernels, long totalGames, RandomSource randomSource,
+            long firstStream, int batchSize) {
+        if (totalGames <= 0 || firstStream < 0) {
+            throw new IllegalArgumentException("Number of games must be positive and first stream not negative");
+        }
+        if (batchSize <= 0 || batchSize % chunkSize != 0) {
+            throw new IllegalArgumentException("Batch size must be a positive multiple of the chunk size");
+        }
+        return new Batches(kernels, totalGames, randomSource, firstStream, batchSize);
+    }
+
+    /**
+     * Returns how many random streams a simulation of the given size consumes.
+     *
+     * @param numSimulations the number of games in the simulation
+     * @return the number of chunks, and therefore streams, the games are split into
+     */
+    public long streamsFor(long numSimulations) {
+        return (numSimulations + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * @return the number of worker threads used per simulation
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the number of games played by each leaf task
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * The batches of a run in progress; see {@link ForkJoinSimulator#batches}.
+     * Only the thread that started the run may take batches.
+     */
+    final class Batches implements AutoCloseable {
+        private static final int BATCHES_IN_FLIGHT = 2;
+
+        private final ForkJoinPool pool;
+        private final ThreadLocal<GameKernel> kernels;
+        private final RandomSource randomSource;
+        private final SimulationMetrics.Run metrics;
+        private final int histogramLength;
+        private final long totalGames;
+        private final int batchSize;
+        private final ArrayDeque<ForkJoinTask<long[]>> inFlight = new ArrayDeque<>();
+        private long gamesSubmitted;
+        private long streamsSubmitted;
+        private long gamesTaken;
+        private long nextStream;
+
+        private Batches(Supplier<? extends GameKernel> kernels, long totalGames, RandomSource randomSource,
+                long firstStream, int batchSize) {
+            this.pool = sharedPool != null ? sharedPool : new ForkJoinPool(parallelism);
+            this.kernels = ThreadLocal.withInitial(kernels);
+            this.randomSource = randomSource;
+            this.metrics = SimulationMetrics.startRun(SimulationEngines.FORK_JOIN);
+            this.histogramLength = kernels.get().maxScore() + 1;
+            this.totalGames = totalGames;
+            this.batchSize = batchSize;
+            this.streamsSubmitted = firstStream;
+            this.nextStream = firstStream;
+            while (inFlight.size() < BATCHES_IN_FLIGHT && gamesSubmitted < totalGames) {
+                submitNext();
+            }
+        }
+
+        /**
+         * @return true if some batch has not been taken yet
+         */
+        boolean hasNext() {
+            return gamesTaken < totalGames;
+        }
+
+        /**
+         * Waits for the next batch and returns its histogram, first queueing
+         * another batch behind the one still in flight.
+         *
+         * @return the number of games of the batch that ended with each score, indexed by score
+         * @throws IllegalStateException if every batch has been taken
+         */
+        long[] next() {
+            if (!hasNext()) {
+                throw new IllegalStateException("All " + totalGames + " games have been played");
+            }
+            long[] histogram = inFlight.removeFirst().join();
+            int batch = (int) Math.min(batchSize, totalGames - gamesTaken);
+            gamesTaken += batch;
+            nextStream += streamsFor(batch);
+            if (gamesSubmitted < totalGames) {
+                submitNext();
+            }
+            return histogram;
+        }
+
+        /**
+         * @return the number of games in the batches taken so far
+         */
+        long games() {
+            return gamesTaken;
+        }
+
+        /**
+         * @return the first random stream not used by the batches taken so far
+         */
+        long nextStream() {
+            return nextStream;
+        }
+
+        private void submitNext() {
+            int batch = (int) Math.min(batchSize, totalGames - gamesSubmitted);
+            ChunkRange chunks = new ChunkRange(kernels, randomSource, streamsSubmitted, null, metrics, batch,
+                chunkSize, 0, streamsFor(batch));
+            inFlight.addLast(pool.submit(new SimulationTask(chunks, metrics, histogramLength)));
+            gamesSubmitted += batch;
+            streamsSubmitted += streamsFor(batch);
+        }
+
+        /**
+         * Cancels the batches not taken, shuts the pool down unless it is
+         * shared, and records the run's metrics.
+         */
+        @Override
+        public void close() {
+            for (ForkJoinTask<long[]> task : inFlight) {
+                task.cancel(false);
+            }
+            inFlight.clear();
+            if (pool != sharedPool) {
+                pool.shutdownNow();
+            }
+            if (metrics != null) {
+                metrics.finish();
+            }
+        }
+    }
+
+    /**
+     * The root of a simulation: plays all chunks and turns the summed histogram
+     * into an array indexed by score.
+     */
+    private static final class SimulationTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkRange chunks;
+        private final SimulationMetrics.Run metrics;
+        private final int histogramLength;
+
+        SimulationTask(ChunkRange chunks, SimulationMetrics.Run metrics, int histogramLength) {
+            this.chunks = chunks;
+            this.metrics = metrics;
+            this.histogramLength = histogramLength;
+        }
+
+        @Override
+        protected long[] compute() {
+            return chunks.compute().toArray(histogramLength);
+        }
+    }
+
+    /**
+     * Plays a contiguous range of chunks, splitting it in half until a single
+     * chunk remains and summing the two halves on the way back up.
+     */
+    private static final class ChunkRange extends RecursiveTask<ScoreHistogram> {
+        private static final long serialVersionUID = 1L;
+
+        private final ThreadLocal<GameKernel> kernels;
+        private final RandomSource randomSource;
+        private final long firstStream;
+        private final TraceWriter trace;
+        private final SimulationMetrics.Run metrics;
+        private final long numSimulations;
+        private final int chunkSize;
+        private final long firstChunk;
+        private final long endChunk;
+
+        ChunkRange(ThreadLocal<GameKernel> kernels, RandomSource randomSource, long firstStream,
+                TraceWriter trace, SimulationMetrics.Run metrics, long numSimulations, int chunkSize,
+                long firstChunk, long endChunk) {
+            this.kernels = kernels;
+            this.randomSource = randomSource;
+            this.firstStream = firstStream;
+            this.trace = trace;
+            this.metrics = metrics;
+            this.numSimulations = numSimulations;
+            this.chunkSize = chunkSize;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        protected ScoreHistogram compute() {
+            if (endChunk - firstChunk == 1) {
+                return playChunk();
+            }
+            long middle = (firstChunk + endChunk) >>> 1;
+            ChunkRange left = new ChunkRange(kernels, randomSource, firstStream, trace, metrics,
+                numSimulations, chunkSize, firstChunk, middle);
+            ChunkRange right = new ChunkRange(kernels, randomSource, firstStream, trace, metrics,
+                numSimulations, chunkSize, middle, endChunk);
+            left.fork();
+            ScoreHistogram histogram = right.compute();
+            ScoreHistogram leftHistogram = left.join();
+            if (metrics == null) {
+                histogram.merge(leftHistogram);
+            } else {
+                long mergeStart = System.nanoTime();
+                histogram.merge(leftHistogram);
+                metrics.merged(System.nanoTime() - mergeStart);
+            }
+            return histogram;
+        }
+
+        private ScoreHistogram playChunk() {
+            GameKernel kernel = kernels.get();
+            RandomGenerator random = randomSource.stream(firstStream + firstChunk);
+            ScoreHistogram histogram = new ScoreHistogram();
+            long firstGame = firstChunk * chunkSize;
+            int games = (int) Math.min(chunkSize, numSimulations - firstGame);
+            if (metrics != null) {
+                metrics.playChunk(kernel, random, games, histogram, trace, firstGame);
+            } else if (trace == null) {
+                for (int i = 0; i < games; i++) {
+                    histogram.increment(kernel.playGame(random));
+                }
+            } else {
+                TracedGameKernel traced = (TracedGameKernel) kernel;
+                for (int i = 0; i < games; i++) {
+                    int score = traced.playGame(random);
+                    histogram.increment(score);
+                    trace.write(firstGame + i, score, traced);
+                }
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+
+/**
+ * Unit tests for the ForkJoinSimulator class.
+ */
+@DisplayName("ForkJoinSimulator Unit Tests")
+public class ForkJoinSimulatorTest {
+
+    private static final int TEST_NUM_DICE = 5;
+    private static final long SEED = 2024L;
+
+    @Test
+    @DisplayName("Histogram should count every simulated game")
+    void testHistogramTotal() {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(2, 100);
+        long[] histogram = simulator.simulate(() -> new ArrayGameKernel(TEST_NUM_DICE), 12345,
+            RandomSource.seeded(SEED));
+
+        assertEquals(TEST_NUM_DICE * 6 + 1, histogram.length);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        assertEquals(12345, total);
+    }
+
+    @Test
+    @DisplayName("Results should not depend on the parallelism level")
+    void testParallelismIndependence() {
+        long[] sequential = new ForkJoinSimulator(1, 256).simulate(
+            () -> new ArrayGameKernel(TEST_NUM_DICE), 50000, RandomSource.seeded(SEED));
+        long[] parallel = new ForkJoinSimulator(4, 256).simulate(
+            () -> new ArrayGameKernel(TEST_NUM_DICE), 50000, RandomSource.seeded(SEED));
+
+        assertArrayEquals(sequential, parallel);
+    }
+
+    @Test
+    @DisplayName("Fewer games than one chunk should still be simulated")
+    void testSingleChunk() {
+        long[] histogram = new ForkJoinSimulator(3, ForkJoinSimulator.DEFAULT_CHUNK_SIZE).simulate(
+            () -> new ArrayGameKernel(1), 7, RandomSource.seeded(SEED));
+
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        assertEquals(7, total);
+        assertEquals(0, histogram[3], "A single die can never score 3");
+    }
+
+    @Test
+    @DisplayName("Batches taken one by one should add up to a single run, and may be abandoned early")
+    void testBatches() {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(3, 100);
+        long[] single = simulator.simulate(() -> new ArrayGameKernel(TEST_NUM_DICE), 1050,
+            RandomSource.seeded(SEED), 2);
+        long[] summed = new long[single.length];
+        try (ForkJoinSimulator.Batches batches = simulator.batches(() -> new ArrayGameKernel(TEST_NUM_DICE), 1050,
+                RandomSource.seeded(SEED), 2, 300)) {
+            int taken = 0;
+            while (batches.hasNext()) {
+                long[] batch = batches.next();
+                for (int score = 0; score < batch.length; score++) {
+                    summed[score] += batch[score];
+                }
+                taken++;
+            }
+            assertEquals(4, taken);
+            assertEquals(1050, batches.games());
+            assertEquals(2 + 11, batches.nextStream());
+            assertThrows(IllegalStateException.class, batches::next);
+        }
+        assertArrayEquals(single, summed);
+
+        try (ForkJoinSimulator.Batches batches = simulator.batches(() -> new ArrayGameKernel(TEST_NUM_DICE),
+                1_000_000, RandomSource.seeded(SEED), 0, 1000)) {
+            assertEquals(1000, Arrays.stream(batches.next()).sum());
+        }
+        assertThrows(IllegalArgumentException.class, () -> simulator.batches(
+            () -> new ArrayGameKernel(TEST_NUM_DICE), 1000, RandomSource.seeded(SEED), 0, 150));
+    }
+
+    @Test
+    @DisplayName("Constructor should reject non-positive parallelism and chunk size")
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinSimulator(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinSimulator(2, 0));
+    }
+}
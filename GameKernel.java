@@ -0,0 +1,27 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays single games of the dice game on behalf of one simulation worker.
+ * 
+ * Implementations may keep reusable scratch state between games and are
+ * therefore not thread-safe; simulators create one kernel per worker and hand
+ * it the worker's own random generator.
+ * 
+ * @author Generated
+ * @version 1.0
+ */
+public interface GameKernel {
+    
+    /**
+     * Plays a single game to completion.
+     * 
+     * @param random the generator to draw every roll from
+     * @return the total score for the game, between 0 and {@link #maxScore()}
+     */
+    int playGame(RandomGenerator random);
+    
+    /**
+     * @return the highest score a single game can produce
+     */
+    int maxScore();
+}
@@ -0,0 +1,109 @@
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * Creates game kernels by name, hiding which implementations this JVM can run.
+ *
+ * Known kernels:
+ * - "array": {@link ArrayGameKernel}, the reference implementation
+ * - "counting": {@link CountingGameKernel}, samples whole-round outcomes
+ * - "vector": {@code VectorGameKernel}, SIMD lanes via the Vector API; falls
+ *   back to "array" when the {@code jdk.incubator.vector} module is not loaded
+ *   or the kernel, which is built from its own source directory, is missing
+ * - "swar": {@link SwarGameKernel}, the board packed into one long; falls back
+ *   to "array" for more than {@value SwarGameKernel#MAX_DICE} dice
+ * - "alias": {@link AliasGameKernel}, one draw per round from alias tables
+ * - "auto" (the default): "swar" when the dice fit in a word, "array" otherwise
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class GameKernels {
+    public static final String DEFAULT_KERNEL = "auto";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL_CLASS = "VectorGameKernel";
+
+    private GameKernels() {
+    }
+
+    /**
+     * Returns a supplier of kernels of the named kind for the given number of dice.
+     *
+     * @param name the kernel name
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @return a supplier that creates one kernel per call
+     * @throws IllegalArgumentException if the name is unknown or numDice is non-positive
+     */
+    public static Supplier<GameKernel> byName(String name, int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        switch (name) {
+            case "array":
+                return () -> new ArrayGameKernel(numDice);
+            case "counting":
+                return () -> new CountingGameKernel(numDice);
+            case "vector":
+                if (vectorApiAvailable()) {
+                    Constructor<? extends GameKernel> vector = VectorKernel.CONSTRUCTOR;
+                    return () -> newKernel(vector, numDice);
+                }
+                return () -> new ArrayGameKernel(numDice);
+            case "alias":
+                return () -> new AliasGameKernel(numDice);
+            case "swar":
+            case "auto":
+                if (numDice <= SwarGameKernel.MAX_DICE) {
+                    return () -> new SwarGameKernel(numDice);
+                }
+                return () -> new ArrayGameKernel(numDice);
+            default:
+                throw new IllegalArgumentException("Unknown kernel: " + name);
+        }
+    }
+
+    /**
+     * Checks whether the incubating Vector API was added to this JVM with
+     * {@code --add-modules jdk.incubator.vector} and the vector kernel was
+     * built alongside the other classes.
+     *
+     * @return true if the "vector" kernel runs its SIMD implementation
+     */
+    public static boolean vectorApiAvailable() {
+        return VectorKernel.CONSTRUCTOR != null;
+    }
+
+    private static GameKernel newKernel(Constructor<? extends GameKernel> constructor, int numDice) {
+        try {
+            return constructor.newInstance(numDice);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    /**
+     * Looks the vector kernel up on first use; the constructor is null when
+     * the class was not built or cannot link without the Vector API module.
+     */
+    private static final class VectorKernel {
+        static final Constructor<? extends GameKernel> CONSTRUCTOR = find();
+
+        private static Constructor<? extends GameKernel> find() {
+            if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+                return null;
+            }
+            try {
+                return Class.forName(VECTOR_KERNEL_CLASS).asSubclass(GameKernel.class).getConstructor(int.class);
+            } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,541 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * A validated set of house rules, compiled into a game kernel specialised for them.
+ *
+ * Rules that can vary:
+ * - the number of faces per die (d4, d8, d10, d20, ... up to {@value #MAX_FACES})
+ * - which faces are neutral and make every die showing them leave without scoring
+ * - whether a scoring round removes the lowest or the highest dice
+ * - how many dice a scoring round removes (all remaining dice if fewer are left)
+ *
+ * The standard rules (d6, neutral 3, remove the lowest die) compile to
+ * {@link ArrayGameKernel} itself. Any other rules compile to one of a few
+ * final kernel classes chosen by removal policy, whose loops match the
+ * hard-coded one: the neutral faces are a bit mask tested with one shift per
+ * die and the rules live in final fields read once per game, so there is no
+ * per-die virtual call, lookup or branch on the policy.
+ *
+ * Rules are written as {@code faces=8,neutral=3+4,remove=highest,count=2};
+ * omitted keys keep their standard value.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class GameRules {
+    public static final int MAX_FACES = 63;
+    private static final int STANDARD_FACES = 6;
+    private static final int STANDARD_NEUTRAL_FACE = 3;
+
+    /**
+     * Which dice a scoring round removes and adds to the score.
+     */
+    public enum Removal {
+        LOWEST, HIGHEST
+    }
+
+    private final int faces;
+    private final long neutralMask;
+    private final Removal removal;
+    private final int removeCount;
+
+    private GameRules(int faces, long neutralMask, Removal removal, int removeCount) {
+        this.faces = faces;
+        this.neutralMask = neutralMask;
+        this.removal = removal;
+        this.removeCount = removeCount;
+    }
+
+    /**
+     * @return the rules of {@link DiceGame}
+     */
+    public static GameRules standard() {
+        return builder().build();
+    }
+
+    /**
+     * @return a builder starting from the standard rules
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Parses rules written as comma-separated {@code key=value} pairs with the
+     * keys {@code faces}, {@code neutral} (faces joined by {@code +}, or
+     * {@code none}), {@code remove} ({@code lowest} or {@code highest}) and
+     * {@code count}.
+     *
+     * @param spec the rules to parse, e.g. {@code faces=10,neutral=3+7}
+     * @return the validated rules
+     * @throws IllegalArgumentException if the spec is malformed or the rules are invalid
+     */
+    public static GameRules parse(String spec) {
+        Builder builder = builder();
+        for (String part : spec.split(",")) {
+            String item = part.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int equals = item.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Rule needs a value: " + item);
+            }
+            String key = item.substring(0, equals).trim();
+            String value = item.substring(equals + 1).trim();
+            try {
+                switch (key) {
+                    case "faces":
+                        builder.faces(Integer.parseInt(value));
+                        break;
+                    case "neutral":
+                        builder.neutralFaces("none".equals(value) ? new int[0]
+                            : Arrays.stream(value.split("\\+")).map(String::trim)
+                                .mapToInt(Integer::parseInt).toArray());
+                        break;
+                    case "remove":
+                        builder.removal(Removal.valueOf(value.toUpperCase(Locale.ROOT)));
+                        break;
+                    case "count":
+                        builder.removeCount(Integer.parseInt(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown rule: " + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number in rule: " + item, e);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of faces per die
+     */
+    public int faces() {
+        return faces;
+    }
+
+    /**
+     * @param face the face to check
+     * @return true if dice showing the face are removed without scoring
+     */
+    public boolean isNeutral(int face) {
+        return face >= 1 && face <= faces && (neutralMask >>> face & 1L) != 0;
+    }
+
+    /**
+     * @return which dice a scoring round removes
+     */
+    public Removal removal() {
+        return removal;
+    }
+
+    /**
+     * @return how many dice a scoring round removes
+     */
+    public int removeCount() {
+        return removeCount;
+    }
+
+    /**
+     * @return true if these are the rules of {@link DiceGame}
+     */
+    public boolean isStandard() {
+        return equals(standard());
+    }
+
+    /**
+     * @param numDice the number of dice per game
+     * @return the highest score a game with these rules can produce
+     */
+    public int maxScore(int numDice) {
+        int highestScoringFace = faces;
+        while (isNeutral(highestScoringFace)) {
+            highestScoringFace--;
+        }
+        return numDice * highestScoringFace;
+    }
+
+    /**
+     * Compiles the rules into a kernel for games with the given number of dice.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @return a new kernel, to be used by one thread at a time
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public GameKernel compile(int numDice) {
+        if (isStandard()) {
+            return new ArrayGameKernel(numDice);
+        }
+        return compileSpecialized(numDice);
+    }
+
+    /**
+     * Compiles the rules into one of the specialised kernels, even for the
+     * standard rules, so the two paths can be compared.
+     */
+    GameKernel compileSpecialized(int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        int maxScore = maxScore(numDice);
+        if (removeCount > 1) {
+            return new MultipleRemovalKernel(numDice, faces, neutralMask, maxScore, removeCount,
+                removal == Removal.HIGHEST);
+        }
+        if (removal == Removal.HIGHEST) {
+            return new HighestRemovalKernel(numDice, faces, neutralMask, maxScore);
+        }
+        return new LowestRemovalKernel(numDice, faces, neutralMask, maxScore);
+    }
+
+    /**
+     * Returns a supplier that compiles a fresh kernel per call, for the simulators.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @return the kernel supplier
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public Supplier<GameKernel> kernels(int numDice) {
+        compile(numDice);
+        return () -> compile(numDice);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GameRules)) {
+            return false;
+        }
+        GameRules rules = (GameRules) other;
+        return faces == rules.faces && neutralMask == rules.neutralMask && removal == rules.removal
+            && removeCount == rules.removeCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(faces, neutralMask, removal, removeCount);
+    }
+
+    /**
+     * @return the rules in the form accepted by {@link #parse(String)}
+     */
+    @Override
+    public String toString() {
+        StringJoiner neutral = new StringJoiner("+");
+        for (int face = 1; face <= faces; face++) {
+            if (isNeutral(face)) {
+                neutral.add(Integer.toString(face));
+            }
+        }
+        return "faces=" + faces + ",neutral=" + (neutralMask == 0 ? "none" : neutral.toString())
+            + ",remove=" + removal.name().toLowerCase(Locale.ROOT) + ",count=" + removeCount;
+    }
+
+    /**
+     * Collects and validates the rules. Starts from the standard rules.
+     */
+    public static final class Builder {
+        private int faces = STANDARD_FACES;
+        private long neutralMask = 1L << STANDARD_NEUTRAL_FACE;
+        private Removal removal = Removal.LOWEST;
+        private int removeCount = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * @param faces the number of faces per die (between 2 and {@value GameRules#MAX_FACES})
+         * @return this builder
+         */
+        public Builder faces(int faces) {
+            this.faces = faces;
+            return this;
+        }
+
+        /**
+         * @param neutralFaces the faces that are removed without scoring; may be empty
+         * @return this builder
+         */
+        public Builder neutralFaces(int... neutralFaces) {
+            long mask = 0;
+            for (int face : neutralFaces) {
+                if (face < 1 || face > MAX_FACES) {
+                    throw new IllegalArgumentException("Neutral face out of range: " + face);
+                }
+                mask |= 1L << face;
+            }
+            this.neutralMask = mask;
+            return this;
+        }
+
+        /**
+         * @param removal which dice a scoring round removes
+         * @return this builder
+         */
+        public Builder removal(Removal removal) {
+            this.removal = removal;
+            return this;
+        }
+
+        /**
+         * @param removeCount how many dice a scoring round removes (must be positive)
+         * @return this builder
+         */
+        public Builder removeCount(int removeCount) {
+            this.removeCount = removeCount;
+            return this;
+        }
+
+        /**
+         * Validates the rules.
+         *
+         * @return the rules
+         * @throws IllegalArgumentException if the rules are invalid
+         */
+        public GameRules build() {
+            if (faces < 2 || faces > MAX_FACES) {
+                throw new IllegalArgumentException("Number of faces must be between 2 and " + MAX_FACES);
+            }
+            // A shift by 64 would be a shift by 0, so 63 faces are checked without one.
+            if (faces < MAX_FACES && neutralMask >>> (faces + 1) != 0) {
+                throw new IllegalArgumentException("Neutral faces must be at most " + faces);
+            }
+            if (Long.bitCount(neutralMask) >= faces) {
+                throw new IllegalArgumentException("At least one face must score");
+            }
+            if (removal == null) {
+                throw new IllegalArgumentException("Removal must not be null");
+            }
+            if (removeCount <= 0) {
+                throw new IllegalArgumentException("Remove count must be positive");
+            }
+            return new GameRules(faces, neutralMask, removal, removeCount);
+        }
+    }
+
+    /**
+     * Removes the single lowest die per scoring round.
+     */
+    private static final class LowestRemovalKernel implements GameKernel {
+        private final int numDice;
+        private final int faces;
+        private final long neutralMask;
+        private final int maxScore;
+        private final int[] dice;
+
+        LowestRemovalKernel(int numDice, int faces, long neutralMask, int maxScore) {
+            this.numDice = numDice;
+            this.faces = faces;
+            this.neutralMask = neutralMask;
+            this.maxScore = maxScore;
+            this.dice = new int[numDice];
+        }
+
+        @Override
+        public int playGame(RandomGenerator random) {
+            int[] dice = this.dice;
+            int faces = this.faces;
+            long neutralMask = this.neutralMask;
+            int activeDice = numDice;
+            rollActiveDice(dice, activeDice, faces, random);
+
+            int totalScore = 0;
+
+            while (activeDice > 0) {
+                long neutralSeen = 0;
+                int lowestValue = Integer.MAX_VALUE;
+                int lowestIndex = -1;
+
+                for (int i = 0; i < activeDice; i++) {
+                    neutralSeen |= neutralMask >>> dice[i];
+                    if (dice[i] < lowestValue) {
+                        lowestValue = dice[i];
+                        lowestIndex = i;
+                    }
+                }
+
+                if ((neutralSeen & 1L) != 0) {
+                    activeDice = removeNeutralValues(dice, activeDice, neutralMask);
+                } else {
+                    totalScore += lowestValue;
+                    dice[lowestIndex] = dice[activeDice - 1];
+                    activeDice--;
+                }
+
+                rollActiveDice(dice, activeDice, faces, random);
+            }
+
+            return totalScore;
+        }
+
+        @Override
+        public int maxScore() {
+            return maxScore;
+        }
+    }
+
+    /**
+     * Removes the single highest die per scoring round.
+     */
+    private static final class HighestRemovalKernel implements GameKernel {
+        private final int numDice;
+        private final int faces;
+        private final long neutralMask;
+        private final int maxScore;
+        private final int[] dice;
+
+        HighestRemovalKernel(int numDice, int faces, long neutralMask, int maxScore) {
+            this.numDice = numDice;
+            this.faces = faces;
+            this.neutralMask = neutralMask;
+            this.maxScore = maxScore;
+            this.dice = new int[numDice];
+        }
+
+        @Override
+        public int playGame(RandomGenerator random) {
+            int[] dice = this.dice;
+            int faces = this.faces;
+            long neutralMask = this.neutralMask;
+            int activeDice = numDice;
+            rollActiveDice(dice, activeDice, faces, random);
+
+            int totalScore = 0;
+
+            while (activeDice > 0) {
+                long neutralSeen = 0;
+                int highestValue = 0;
+                int highestIndex = -1;
+
+                for (int i = 0; i < activeDice; i++) {
+                    neutralSeen |= neutralMask >>> dice[i];
+                    if (dice[i] > highestValue) {
+                        highestValue = dice[i];
+                        highestIndex = i;
+                    }
+                }
+
+                if ((neutralSeen & 1L) != 0) {
+                    activeDice = removeNeutralValues(dice, activeDice, neutralMask);
+                } else {
+                    totalScore += highestValue;
+                    dice[highestIndex] = dice[activeDice - 1];
+                    activeDice--;
+                }
+
+                rollActiveDice(dice, activeDice, faces, random);
+            }
+
+            return totalScore;
+        }
+
+        @Override
+        public int maxScore() {
+            return maxScore;
+        }
+    }
+
+    /**
+     * Removes several of the lowest or highest dice per scoring round, by
+     * repeated selection since the count is small.
+     */
+    private static final class MultipleRemovalKernel implements GameKernel {
+        private final int numDice;
+        private final int faces;
+        private final long neutralMask;
+        private final int maxScore;
+        private final int removeCount;
+        private final int sign;
+        private final int[] dice;
+
+        MultipleRemovalKernel(int numDice, int faces, long neutralMask, int maxScore, int removeCount,
+                boolean highest) {
+            this.numDice = numDice;
+            this.faces = faces;
+            this.neutralMask = neutralMask;
+            this.maxScore = maxScore;
+            this.removeCount = removeCount;
+            this.sign = highest ? -1 : 1;
+            this.dice = new int[numDice];
+        }
+
+        @Override
+        public int playGame(RandomGenerator random) {
+            int[] dice = this.dice;
+            int faces = this.faces;
+            long neutralMask = this.neutralMask;
+            int sign = this.sign;
+            int activeDice = numDice;
+            rollActiveDice(dice, activeDice, faces, random);
+
+            int totalScore = 0;
+
+            while (activeDice > 0) {
+                long neutralSeen = 0;
+                for (int i = 0; i < activeDice; i++) {
+                    neutralSeen |= neutralMask >>> dice[i];
+                }
+
+                if ((neutralSeen & 1L) != 0) {
+                    activeDice = removeNeutralValues(dice, activeDice, neutralMask);
+                } else {
+                    int removals = Math.min(removeCount, activeDice);
+                    for (int r = 0; r < removals; r++) {
+                        // Compare sign * value so one loop finds either the lowest or the highest die.
+                        int bestKey = Integer.MAX_VALUE;
+                        int bestIndex = -1;
+                        for (int i = 0; i < activeDice; i++) {
+                            int key = sign * dice[i];
+                            if (key < bestKey) {
+                                bestKey = key;
+                                bestIndex = i;
+                            }
+                        }
+                        totalScore += dice[bestIndex];
+                        dice[bestIndex] = dice[activeDice - 1];
+                        activeDice--;
+                    }
+                }
+
+                rollActiveDice(dice, activeDice, faces, random);
+            }
+
+            return totalScore;
+        }
+
+        @Override
+        public int maxScore() {
+            return maxScore;
+        }
+    }
+
+    /**
+     * Removes every die showing a neutral face by compacting the others to the left.
+     *
+     * @return the new number of active dice after removal
+     */
+    private static int removeNeutralValues(int[] dice, int activeDice, long neutralMask) {
+        int writeIndex = 0;
+        for (int i = 0; i < activeDice; i++) {
+            if ((neutralMask >>> dice[i] & 1L) == 0) {
+                dice[writeIndex++] = dice[i];
+            }
+        }
+        return writeIndex;
+    }
+
+    /**
+     * Re-rolls the first activeDice positions of the array.
+     */
+    private static void rollActiveDice(int[] dice, int activeDice, int faces, RandomGenerator random) {
+        for (int i = 0; i < activeDice; i++) {
+            dice[i] = random.nextInt(faces) + 1;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the GameRules class and the kernels it compiles.
+ */
+@DisplayName("GameRules Unit Tests")
+public class GameRulesTest {
+
+    private static final int GAMES = 200000;
+
+    @Test
+    @DisplayName("Standard rules should compile to the reference kernel")
+    void testStandardRules() {
+        GameRules rules = GameRules.standard();
+        assertTrue(rules.isStandard());
+        assertTrue(rules.compile(5) instanceof ArrayGameKernel);
+        assertEquals(rules, GameRules.parse("faces=6,neutral=3,remove=lowest,count=1"));
+        assertEquals(rules, GameRules.parse(""));
+        assertEquals(30, rules.maxScore(5));
+    }
+
+    @Test
+    @DisplayName("Specialised kernel should play the standard rules exactly like the reference kernel")
+    void testSpecialisedMatchesReference() {
+        GameKernel reference = new ArrayGameKernel(7);
+        GameKernel specialised = GameRules.standard().compileSpecialized(7);
+        RandomGenerator first = RandomSource.seeded(1L).stream(0);
+        RandomGenerator second = RandomSource.seeded(1L).stream(0);
+
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(reference.playGame(first), specialised.playGame(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Rules should round-trip through their text form")
+    void testParseAndToString() {
+        GameRules rules = GameRules.parse("faces=10, neutral=3+7, remove=highest, count=2");
+        assertEquals(10, rules.faces());
+        assertTrue(rules.isNeutral(3) && rules.isNeutral(7) && !rules.isNeutral(4));
+        assertEquals(GameRules.Removal.HIGHEST, rules.removal());
+        assertEquals(2, rules.removeCount());
+        assertEquals(rules, GameRules.parse(rules.toString()));
+        assertEquals(50, rules.maxScore(5));
+        assertEquals(GameRules.parse("neutral=none"), GameRules.builder().neutralFaces().build());
+    }
+
+    @Test
+    @DisplayName("A single d8 with two neutral faces should score its face")
+    void testSingleDieWithNeutralFaces() {
+        assertEquals(8, GameRules.parse("faces=8,neutral=3+4").compile(1).maxScore());
+        assertEquals(7, GameRules.parse("faces=8,neutral=8").compile(1).maxScore());
+
+        double mean = mean(GameRules.parse("faces=8,neutral=3+4").kernels(1));
+        assertEquals(29.0 / 8, mean, 0.02);
+    }
+
+    @Test
+    @DisplayName("The largest die should accept neutral faces, including its top face")
+    void testLargestDie() {
+        GameRules rules = GameRules.builder().faces(GameRules.MAX_FACES).build();
+        assertTrue(rules.isNeutral(3));
+        assertEquals(2 * GameRules.MAX_FACES, rules.compile(2).maxScore());
+        GameRules top = GameRules.builder().faces(GameRules.MAX_FACES).neutralFaces(GameRules.MAX_FACES).build();
+        assertTrue(top.isNeutral(GameRules.MAX_FACES));
+        assertEquals(GameRules.MAX_FACES - 1, top.compile(1).maxScore());
+        assertEquals(top, GameRules.parse(top.toString()));
+        double mean = mean(GameRules.parse("faces=63,neutral=63").kernels(1));
+        assertEquals(1953.0 / 63, mean, 0.2);
+    }
+
+    @Test
+    @DisplayName("Removing the highest die should score the maximum first")
+    void testRemoveHighest() {
+        // Two dice, no neutral faces: the first round scores the higher die, the second a fresh die.
+        double mean = mean(GameRules.parse("neutral=none,remove=highest").kernels(2));
+        assertEquals(161.0 / 36 + 3.5, mean, 0.02);
+    }
+
+    @Test
+    @DisplayName("Removing two lowest dice should score both dice of a single round")
+    void testRemoveTwoLowest() {
+        GameKernel kernel = GameRules.parse("faces=20,neutral=none,count=2").compile(2);
+        RandomGenerator random = RandomSource.seeded(3L).stream(0);
+        for (int i = 0; i < 1000; i++) {
+            int score = kernel.playGame(random);
+            assertTrue(score >= 2 && score <= 40, "Score out of range: " + score);
+        }
+        assertEquals(21.0, mean(GameRules.parse("faces=20,neutral=none,count=2").kernels(2)), 0.1);
+    }
+
+    @Test
+    @DisplayName("Invalid rules should be rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> GameRules.builder().faces(1).build());
+        assertThrows(IllegalArgumentException.class, () -> GameRules.builder().faces(64).build());
+        assertThrows(IllegalArgumentException.class, () -> GameRules.builder().faces(4).neutralFaces(5).build());
+        assertThrows(IllegalArgumentException.class, () -> GameRules.builder().faces(2).neutralFaces(1, 2).build());
+        assertThrows(IllegalArgumentException.class, () -> GameRules.builder().removeCount(0).build());
+        assertThrows(IllegalArgumentException.class, () -> GameRules.parse("faces=many"));
+        assertThrows(IllegalArgumentException.class, () -> GameRules.parse("remove=middle"));
+        assertThrows(IllegalArgumentException.class, () -> GameRules.parse("colour=red"));
+        assertThrows(IllegalArgumentException.class, () -> GameRules.standard().compile(0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DiceGame(5, 10, new SequentialEngine(10), "counting", GameRules.parse("faces=8")));
+    }
+
+    private static double mean(Supplier<GameKernel> kernels) {
+        long[] histogram = new ForkJoinSimulator(2, 10000).simulate(kernels, GAMES, RandomSource.seeded(4L));
+        return new SimulationSnapshot(histogram).mean();
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The score histogram of one share of a sharded simulation, as written by a
+ * {@link ShardWorker} and merged by the {@link ShardCoordinator}.
+ *
+ * A shard records which games it covers: the seed of the run and the range
+ * of random streams it played, so shards of one run can be checked for
+ * overlap before they are merged. Merging is a plain sum of the histograms,
+ * and shards of a run merge to exactly the histogram a single
+ * {@link ForkJoinSimulator} run of all games with the same seed and chunk
+ * size would have produced.
+ *
+ * File format (big-endian): magic "DGSHARD1" (long), version (int), number of
+ * dice (int), seed (long), first stream (long), stream count (long), chunk
+ * size (int), games (long), histogram length (int), then the non-zero counts
+ * in the compact form of {@link ScoreHistogram#writeTo}.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class HistogramShard {
+    private static final long MAGIC = 0x4447534841524431L;
+    private static final int VERSION = 2;
+
+    private final int numDice;
+    private final long seed;
+    private final long firstStream;
+    private final long streams;
+    private final int chunkSize;
+    private final long[] histogram;
+    private final long games;
+
+    /**
+     * Creates a shard. The histogram is copied.
+     *
+     * @param numDice the number of dice per game
+     * @param seed the seed of the run's random source
+     * @param firstStream the first random stream the shard played
+     * @param streams the number of random streams the shard played
+     * @param chunkSize the number of games played per stream
+     * @param histogram the number of games that ended with each score, indexed by score
+     */
+    public HistogramShard(int numDice, long seed, long firstStream, long streams, int chunkSize,
+            long[] histogram) {
+        this.numDice = numDice;
+        this.seed = seed;
+        this.firstStream = firstStream;
+        this.streams = streams;
+        this.chunkSize = chunkSize;
+        this.histogram = histogram.clone();
+        long count = 0;
+        for (long frequency : histogram) {
+            count += frequency;
+        }
+        this.games = count;
+    }
+
+    /**
+     * @return the number of dice per game
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * @return the seed of the run's random source
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return the first random stream the shard played
+     */
+    public long firstStream() {
+        return firstStream;
+    }
+
+    /**
+     * @return the number of random streams the shard played
+     */
+    public long streams() {
+        return streams;
+    }
+
+    /**
+     * @return the number of games played per stream
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return the number of games in the shard
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * @return a copy of the score histogram
+     */
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Writes the shard to a file. The file is written under a temporary name
+     * and then moved into place, so a reader never sees a partial shard.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numDice);
+            out.writeLong(seed);
+            out.writeLong(firstStream);
+            out.writeLong(streams);
+            out.writeInt(chunkSize);
+            out.writeLong(games);
+            out.writeInt(histogram.length);
+            ScoreHistogram.of(histogram).writeTo(out);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a shard file.
+     *
+     * @param path the file to read
+     * @return the shard
+     * @throws IOException if the file cannot be read or is not a valid shard
+     */
+    public static HistogramShard read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a histogram shard: " + path);
+            }
+            int numDice = in.readInt();
+            long seed = in.readLong();
+            long firstStream = in.readLong();
+            long streams = in.readLong();
+            int chunkSize = in.readInt();
+            long games = in.readLong();
+            int length = in.readInt();
+            if (numDice <= 0 || length != numDice * 6 + 1) {
+                throw new IOException("Corrupt histogram shard: " + path);
+            }
+            ScoreHistogram counts = ScoreHistogram.readFrom(in);
+            if (counts.maxScore() >= length) {
+                throw new IOException("Corrupt histogram shard: " + path);
+            }
+            long[] histogram = counts.toArray(length);
+            HistogramShard shard = new HistogramShard(numDice, seed, firstStream, streams, chunkSize, histogram);
+            if (shard.games() != games) {
+                throw new IOException("Corrupt histogram shard: " + path);
+            }
+            return shard;
+        } catch (EOFException e) {
+            throw new IOException("Truncated histogram shard: " + path, e);
+        }
+    }
+
+    /**
+     * Sums the histograms of shards of one run.
+     *
+     * @param shards the shards to merge (at least one)
+     * @return the merged histogram
+     * @throws IllegalArgumentException if the shards belong to different runs or their streams overlap
+     */
+    public static long[] merge(List<HistogramShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Need at least one shard");
+        }
+        List<HistogramShard> byStream = new ArrayList<>(shards);
+        byStream.sort(Comparator.comparingLong(HistogramShard::firstStream));
+        HistogramShard first = byStream.get(0);
+        long[] merged = new long[first.histogram.length];
+        long nextFreeStream = Long.MIN_VALUE;
+        for (HistogramShard shard : byStream) {
+            if (shard.numDice != first.numDice || shard.seed != first.seed || shard.chunkSize != first.chunkSize) {
+                throw new IllegalArgumentException("Shards belong to different runs");
+            }
+            if (shard.firstStream < nextFreeStream) {
+                throw new IllegalArgumentException("Shards overlap at stream " + shard.firstStream);
+            }
+            nextFreeStream = shard.firstStream + shard.streams;
+            for (int score = 0; score < merged.length; score++) {
+                merged[score] += shard.histogram[score];
+            }
+        }
+        return merged;
+    }
+}
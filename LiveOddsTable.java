@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Answers odds queries for games in progress from a precomputed,
+ * memory-mapped table of remaining-score distributions.
+ *
+ * A game in progress is fully described by the dice still to roll and the
+ * points scored so far: future rolls do not depend on the past, so the final
+ * score is the current score plus a remaining score whose distribution
+ * depends only on the dice left. The table therefore holds, for every number
+ * of dice from 0 to {@code numDice}, the cumulative distribution of the
+ * remaining score and its mean, and a query for a current score offsets into
+ * it. Storing a row per score offset as well would only repeat shifted copies
+ * of the same numbers.
+ *
+ * The file is built once per numDice from {@link ExactDistributionSolver},
+ * writing each row as the solver extends its recurrence by one die, so
+ * building holds no more than the solver itself does; the table is then
+ * mapped read-only, so a process loads it at startup without parsing
+ * anything and the operating system shares the pages between processes.
+ * Queries read the mapping with absolute gets and never modify any state, so
+ * any number of threads may query one table without locking. A percentile is
+ * a binary search over at most {@code 6 * numDice + 1} entries; an expected
+ * value is a single read.
+ *
+ * File layout (little-endian):
+ * - magic "DGODDS01" (8 bytes), format version (int), number of dice (int),
+ *   number of cumulative probabilities (long), reserved (long)
+ * - the mean remaining score for 0 to numDice dice (double each)
+ * - for 0 to numDice dice in turn, the probability that the remaining score
+ *   is at most {@code s}, for {@code s} from 0 to {@code 6 * dice} (double each)
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class LiveOddsTable implements AutoCloseable {
+    public static final int HEADER_BYTES = 32;
+    /** The most dice a table is built for; the file then takes about 96 MB. */
+    public static final int MAX_NUM_DICE = 2000;
+    static final long MAGIC = 0x31305344444F4744L;
+    static final int VERSION = 1;
+    private static final int MAX_DIE_VALUE = 6;
+
+    private final FileChannel channel;
+    private final int numDice;
+    private final MappedByteBuffer data;
+    private final int cdfOffset;
+
+    private LiveOddsTable(FileChannel channel, int numDice, MappedByteBuffer data) {
+        this.channel = channel;
+        this.numDice = numDice;
+        this.data = data;
+        this.cdfOffset = (int) dataOffset(numDice);
+    }
+
+    /**
+     * Computes the table for the given number of dice, writes it to a file
+     * (replacing it atomically) and opens it.
+     *
+     * @param path the file to write
+     * @param numDice the number of dice per game (between 1 and {@value #MAX_NUM_DICE})
+     * @return the opened table
+     * @throws IllegalArgumentException if numDice is out of range
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public static LiveOddsTable create(Path path, int numDice) throws IOException {
+        if (numDice <= 0 || numDice > MAX_NUM_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 1 and " + MAX_NUM_DICE);
+        }
+        long entries = cdfStart(numDice + 1);
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        double[] means = new double[numDice + 1];
+        ByteBuffer row = ByteBuffer.allocateDirect((numDice * MAX_DIE_VALUE + 1) * Double.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Rows go out as the solver produces them; the means only fill a
+            // few kilobytes and are written in front of the rows at the end.
+            channel.position(dataOffset(numDice));
+            for (int dice = 0; dice <= numDice; dice++) {
+                double[] distribution = dice == 0 ? new double[] {1} : solver.distribution(dice);
+                double mean = 0;
+                double cumulative = 0;
+                row.clear();
+                for (int score = 0; score < distribution.length - 1; score++) {
+                    mean += score * distribution[score];
+                    cumulative += distribution[score];
+                    row.putDouble(Math.min(cumulative, 1));
+                }
+                means[dice] = mean + (distribution.length - 1) * distribution[distribution.length - 1];
+                // Rounding must not leave the top score just short of certain.
+                row.putDouble(1).flip();
+                while (row.hasRemaining()) {
+                    channel.write(row);
+                }
+            }
+
+            ByteBuffer head = ByteBuffer.allocate((int) dataOffset(numDice)).order(ByteOrder.LITTLE_ENDIAN);
+            head.putLong(MAGIC).putInt(VERSION).putInt(numDice).putLong(entries).putLong(0);
+            for (double mean : means) {
+                head.putDouble(mean);
+            }
+            head.flip();
+            for (long position = 0; head.hasRemaining(); ) {
+                position += channel.write(head, position);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    /**
+     * Maps a table file written by {@link #create(Path, int)}.
+     *
+     * @param path the file to read
+     * @return the table
+     * @throws IOException if the file cannot be read, is not an odds table or is truncated
+     */
+    public static LiveOddsTable open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not an odds table: " + path);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            int numDice = data.getInt(12);
+            if (data.getLong(0) != MAGIC || data.getInt(8) != VERSION || numDice <= 0 || numDice > MAX_NUM_DICE
+                    || data.getLong(16) != cdfStart(numDice + 1)) {
+                throw new IOException("Not an odds table: " + path);
+            }
+            if (channel.size() != dataOffset(numDice) + cdfStart(numDice + 1) * Double.BYTES) {
+                throw new IOException("Truncated odds table: " + path);
+            }
+            return new LiveOddsTable(channel, numDice, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of dice the table was built for
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * Returns the expected final score of a game in progress.
+     *
+     * @param diceRemaining the dice still to roll (between 0 and {@link #numDice()})
+     * @param currentScore the points scored so far (must not be negative)
+     * @return the expected final score
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public double expectedScore(int diceRemaining, int currentScore) {
+        validate(diceRemaining, currentScore);
+        return currentScore + data.getDouble(HEADER_BYTES + diceRemaining * Double.BYTES);
+    }
+
+    /**
+     * Returns the probability that a game in progress ends with at most the given score.
+     *
+     * @param diceRemaining the dice still to roll (between 0 and {@link #numDice()})
+     * @param currentScore the points scored so far (must not be negative)
+     * @param finalScore the final score
+     * @return the probability that the final score is at most finalScore
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public double probabilityAtMost(int diceRemaining, int currentScore, int finalScore) {
+        validate(diceRemaining, currentScore);
+        long remaining = (long) finalScore - currentScore;
+        if (remaining < 0) {
+            return 0;
+        }
+        if (remaining >= diceRemaining * MAX_DIE_VALUE) {
+            return 1;
+        }
+        return cdf(diceRemaining, (int) remaining);
+    }
+
+    /**
+     * Returns the probability that a game in progress ends with exactly the given score.
+     *
+     * @param diceRemaining the dice still to roll (between 0 and {@link #numDice()})
+     * @param currentScore the points scored so far (must not be negative)
+     * @param finalScore the final score
+     * @return the probability of the final score
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public double probability(int diceRemaining, int currentScore, int finalScore) {
+        return probabilityAtMost(diceRemaining, currentScore, finalScore)
+            - probabilityAtMost(diceRemaining, currentScore, finalScore - 1);
+    }
+
+    /**
+     * Returns the lowest final score that a game in progress reaches or stays
+     * under with at least the given probability.
+     *
+     * @param diceRemaining the dice still to roll (between 0 and {@link #numDice()})
+     * @param currentScore the points scored so far (must not be negative)
+     * @param probability the probability (must be in (0, 1])
+     * @return the smallest final score {@code s} with {@code P(final <= s) >= probability}
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public int percentile(int diceRemaining, int currentScore, double probability) {
+        validate(diceRemaining, currentScore);
+        if (!(probability > 0 && probability <= 1)) {
+            throw new IllegalArgumentException("Probability must be in (0, 1]");
+        }
+        int low = 0;
+        int high = diceRemaining * MAX_DIE_VALUE;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cdf(diceRemaining, middle) >= probability) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return currentScore + low;
+    }
+
+    /**
+     * Closes the file. The mapping is released by the garbage collector.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private double cdf(int dice, int remainingScore) {
+        return data.getDouble(cdfOffset + (int) (cdfStart(dice) + remainingScore) * Double.BYTES);
+    }
+
+    private void validate(int diceRemaining, int currentScore) {
+        if (diceRemaining < 0 || diceRemaining > numDice) {
+            throw new IllegalArgumentException("Dice remaining must be between 0 and " + numDice);
+        }
+        if (currentScore < 0) {
+            throw new IllegalArgumentException("Current score must not be negative");
+        }
+    }
+
+    /**
+     * @return the byte offset of the cumulative probabilities, after the header and means
+     */
+    private static long dataOffset(int numDice) {
+        return HEADER_BYTES + (long) (numDice + 1) * Double.BYTES;
+    }
+
+    /**
+     * @return the number of cumulative probabilities stored for fewer than the given number of dice
+     */
+    private static long cdfStart(int dice) {
+        // The sum of 6 * d + 1 over d below dice.
+        return 3L * dice * (dice - 1) + dice;
+    }
+
+    /**
+     * Builds or opens an odds table and prints the odds of a game in progress.
+     *
+     * Command line arguments:
+     * - args[0]: table file (required)
+     * - args[1]: number of dice, to build the table if the file does not exist (optional, default: 5)
+     * - args[2]: dice remaining (optional, default: all)
+     * - args[3]: current score (optional, default: 0)
+     *
+     * @param args command line arguments
+     * @throws IOException if the table cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LiveOddsTable <table file> [numDice] [diceRemaining] [currentScore]");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[0]);
+        int numDice = args.length >= 2 ? Integer.parseInt(args[1]) : 5;
+        long start = System.nanoTime();
+        try (LiveOddsTable table = Files.exists(path) ? open(path) : create(path, numDice)) {
+            System.out.println("Odds table for " + table.numDice() + " dice loaded in "
+                + (System.nanoTime() - start) / 1_000_000 + " milliseconds.");
+            int diceRemaining = args.length >= 3 ? Integer.parseInt(args[2]) : table.numDice();
+            int currentScore = args.length >= 4 ? Integer.parseInt(args[3]) : 0;
+            System.out.printf("Expected final score %.4f with %d dice left and %d points.%n",
+                table.expectedScore(diceRemaining, currentScore), diceRemaining, currentScore);
+            for (double probability : new double[] {0.05, 0.25, 0.5, 0.75, 0.95}) {
+                System.out.printf("Percentile %.0f: %d%n", probability * 100,
+                    table.percentile(diceRemaining, currentScore, probability));
+            }
+
+            int queries = 1_000_000;
+            long sink = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                sink += table.percentile(diceRemaining, currentScore, (i + 1.0) / queries);
+            }
+            System.out.printf("%.1f nanoseconds per percentile query (checksum %d).%n",
+                (double) (System.nanoTime() - start) / queries, sink);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for the LiveOddsTable class.
+ */
+@DisplayName("LiveOddsTable Unit Tests")
+public class LiveOddsTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Odds should match the exact remaining-score distribution shifted by the current score")
+    void testMatchesExactDistribution() throws IOException {
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        try (LiveOddsTable table = LiveOddsTable.create(tempDir.resolve("odds.bin"), 10)) {
+            assertEquals(10, table.numDice());
+            for (int dice = 1; dice <= 10; dice++) {
+                double[] exact = solver.distribution(dice);
+                double mean = 0;
+                double cumulative = 0;
+                for (int score = 0; score < exact.length; score++) {
+                    mean += score * exact[score];
+                    cumulative += exact[score];
+                    assertEquals(cumulative, table.probabilityAtMost(dice, 7, 7 + score), 1e-12);
+                    assertEquals(exact[score], table.probability(dice, 7, 7 + score), 1e-12);
+                }
+                assertEquals(mean + 7, table.expectedScore(dice, 7), 1e-12);
+                assertEquals(0, table.probabilityAtMost(dice, 7, 6));
+                assertEquals(1, table.probabilityAtMost(dice, 7, 7 + 6 * dice));
+                assertEquals(1, table.probabilityAtMost(dice, 7, Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Percentiles should be the lowest score reaching the requested probability")
+    void testPercentiles() throws IOException {
+        try (LiveOddsTable table = LiveOddsTable.create(tempDir.resolve("odds.bin"), 5)) {
+            for (double probability : new double[] {1e-9, 0.05, 0.5, 0.95, 1}) {
+                int score = table.percentile(4, 12, probability);
+                assertTrue(table.probabilityAtMost(4, 12, score) >= probability);
+                assertTrue(table.probabilityAtMost(4, 12, score - 1) < probability);
+            }
+            assertEquals(12, table.percentile(4, 12, 1e-9));
+            assertEquals(12 + 24, table.percentile(4, 12, 1));
+            assertEquals(12, table.percentile(0, 12, 0.5), "A finished game keeps its score");
+            assertEquals(12, table.expectedScore(0, 12));
+        }
+    }
+
+    @Test
+    @DisplayName("A reopened table should answer identically from many threads at once")
+    void testReopenAndConcurrentQueries() throws IOException {
+        Path file = tempDir.resolve("odds.bin");
+        int[] expected;
+        try (LiveOddsTable table = LiveOddsTable.create(file, 30)) {
+            expected = IntStream.range(0, 10_000).map(i -> table.percentile(i % 31, i % 50, (i % 99 + 1) / 100.0))
+                .toArray();
+        }
+        try (LiveOddsTable table = LiveOddsTable.open(file)) {
+            int[] actual = IntStream.range(0, 10_000).parallel()
+                .map(i -> table.percentile(i % 31, i % 50, (i % 99 + 1) / 100.0))
+                .toArray();
+            assertTrue(Arrays.equals(expected, actual));
+        }
+    }
+
+    @Test
+    @DisplayName("Files that are not odds tables or are truncated should be rejected")
+    void testInvalidFiles() throws IOException {
+        Path file = tempDir.resolve("odds.bin");
+        LiveOddsTable.create(file, 3).close();
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> LiveOddsTable.open(file));
+        bytes[0] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> LiveOddsTable.open(file));
+        Files.write(file, new byte[4]);
+        assertThrows(IOException.class, () -> LiveOddsTable.open(file));
+    }
+
+    @Test
+    @DisplayName("Invalid arguments should be rejected")
+    void testValidation() throws IOException {
+        Path file = tempDir.resolve("odds.bin");
+        assertThrows(IllegalArgumentException.class, () -> LiveOddsTable.create(file, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> LiveOddsTable.create(file, LiveOddsTable.MAX_NUM_DICE + 1));
+        try (LiveOddsTable table = LiveOddsTable.create(file, 3)) {
+            assertThrows(IllegalArgumentException.class, () -> table.expectedScore(4, 0));
+            assertThrows(IllegalArgumentException.class, () -> table.expectedScore(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> table.probabilityAtMost(2, -1, 3));
+            assertThrows(IllegalArgumentException.class, () -> table.percentile(2, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> table.percentile(2, 0, 1.5));
+            assertThrows(IllegalArgumentException.class, () -> table.percentile(2, 0, Double.NaN));
+        }
+    }
+}
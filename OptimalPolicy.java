@@ -0,0 +1,233 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * The score-minimizing strategy for the variant in which the player may keep
+ * any number of non-3 dice each round, as a lookup table computed by
+ * {@link OptimalStrategySolver}.
+ *
+ * The 3s of a roll are always set aside for nothing. After that, keeping
+ * {@code j} dice is only sensible with the {@code j} lowest faces, and what is
+ * left to play is {@code m - j} fresh dice for {@code m} non-3 dice rolled, so
+ * the best {@code j} depends only on the multiset of non-3 faces and on
+ * whether any 3 was rolled (if none was, at least one die must be kept). A
+ * multiset with counts {@code (c1, c2, c4, c5, c6)} of size {@code m} is stored
+ * at {@link #index(int, int, int, int, int)}: the multisets of smaller size
+ * come first, then those of size {@code m} in lexicographic order of their
+ * counts, ranked in O(1) with the combinatorial number system. The table
+ * holds one byte per multiset and case, {@code 2 * C(maxDice + 5, 5)} bytes
+ * in total, together with the expected score and score distribution of every
+ * dice count up to {@code maxDice}.
+ *
+ * File format (big-endian): magic "DGPOLICY" (long), version (int), maximum
+ * dice (int), the expected scores (double each), for every dice count its
+ * distribution length (int) and probabilities (double each), the keep counts
+ * with and without 3s rolled (byte each), and a CRC-32 of everything before
+ * it (long).
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class OptimalPolicy {
+    /** The most dice a policy table is built for; the table then takes about 17 MB. */
+    public static final int MAX_DICE = 60;
+    static final int SCORING_FACE_COUNT = 5;
+    private static final int MAX_DIE_VALUE = 6;
+    private static final long MAGIC = 0x4447504F4C494359L;
+    private static final int VERSION = 1;
+    /** BINOMIAL[x][y] = C(x, y) for y up to the number of scoring faces. */
+    private static final int[][] BINOMIAL = new int[MAX_DICE + SCORING_FACE_COUNT + 1][SCORING_FACE_COUNT + 1];
+
+    static {
+        for (int x = 0; x < BINOMIAL.length; x++) {
+            BINOMIAL[x][0] = 1;
+            for (int y = 1; y <= Math.min(x, SCORING_FACE_COUNT); y++) {
+                BINOMIAL[x][y] = BINOMIAL[x - 1][y - 1] + (y <= x - 1 ? BINOMIAL[x - 1][y] : 0);
+            }
+        }
+    }
+
+    private final int maxDice;
+    private final double[] expectedScores;
+    private final double[][] distributions;
+    private final byte[] keepWithNeutral;
+    private final byte[] keepWithoutNeutral;
+
+    OptimalPolicy(int maxDice, double[] expectedScores, double[][] distributions, byte[] keepWithNeutral,
+            byte[] keepWithoutNeutral) {
+        this.maxDice = maxDice;
+        this.expectedScores = expectedScores;
+        this.distributions = distributions;
+        this.keepWithNeutral = keepWithNeutral;
+        this.keepWithoutNeutral = keepWithoutNeutral;
+    }
+
+    /**
+     * Returns where the multiset of non-3 faces with the given counts is stored.
+     *
+     * @return the table index, below {@link #tableSize(int)} of the multiset's size
+     */
+    static int index(int c1, int c2, int c4, int c5, int c6) {
+        int remaining = c1 + c2 + c4 + c5 + c6;
+        int index = BINOMIAL[remaining + 4][5];
+        index += BINOMIAL[remaining + 4][4] - BINOMIAL[remaining - c1 + 4][4];
+        remaining -= c1;
+        index += BINOMIAL[remaining + 3][3] - BINOMIAL[remaining - c2 + 3][3];
+        remaining -= c2;
+        index += BINOMIAL[remaining + 2][2] - BINOMIAL[remaining - c4 + 2][2];
+        return index + c5;
+    }
+
+    /**
+     * @return the number of multisets of at most the given number of non-3 dice
+     */
+    static int tableSize(int numDice) {
+        return BINOMIAL[numDice + SCORING_FACE_COUNT][SCORING_FACE_COUNT];
+    }
+
+    /**
+     * Returns how many of the lowest non-3 dice to keep after a roll.
+     *
+     * @param c1 the number of 1s rolled
+     * @param c2 the number of 2s rolled
+     * @param c4 the number of 4s rolled
+     * @param c5 the number of 5s rolled
+     * @param c6 the number of 6s rolled
+     * @param neutralRolled whether any 3 was rolled
+     * @return the number of dice to keep, counting up from the lowest face
+     */
+    public int keep(int c1, int c2, int c4, int c5, int c6, boolean neutralRolled) {
+        int index = index(c1, c2, c4, c5, c6);
+        return neutralRolled ? keepWithNeutral[index] : keepWithoutNeutral[index];
+    }
+
+    /**
+     * @return the largest number of dice the policy covers
+     */
+    public int maxDice() {
+        return maxDice;
+    }
+
+    /**
+     * @param numDice the number of dice, between 0 and {@link #maxDice()}
+     * @return the expected score of the optimal strategy
+     */
+    public double expectedScore(int numDice) {
+        return expectedScores[numDice];
+    }
+
+    /**
+     * @param numDice the number of dice, between 0 and {@link #maxDice()}
+     * @return the probability of every final score under the optimal strategy, indexed by score
+     */
+    public double[] distribution(int numDice) {
+        return distributions[numDice].clone();
+    }
+
+    /**
+     * Returns a supplier of kernels that play the optimal strategy.
+     *
+     * @param numDice the number of dice per game (must be between 1 and {@link #maxDice()})
+     * @return creates a new {@link PolicyGameKernel} on every call
+     * @throws IllegalArgumentException if numDice is out of range
+     */
+    public Supplier<GameKernel> kernels(int numDice) {
+        if (numDice <= 0 || numDice > maxDice) {
+            throw new IllegalArgumentException("Number of dice must be between 1 and " + maxDice);
+        }
+        return () -> new PolicyGameKernel(this, numDice);
+    }
+
+    /**
+     * Writes the policy to a file, replacing it atomically.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(maxDice);
+            for (double expected : expectedScores) {
+                out.writeDouble(expected);
+            }
+            for (double[] distribution : distributions) {
+                out.writeInt(distribution.length);
+                for (double probability : distribution) {
+                    out.writeDouble(probability);
+                }
+            }
+            out.write(keepWithNeutral);
+            out.write(keepWithoutNeutral);
+            out.writeLong(crc(bytes.toByteArray(), bytes.size()));
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a policy written by {@link #writeTo(Path)}.
+     *
+     * @param path the file to read
+     * @return the policy
+     * @throws IOException if the file cannot be read or is not a valid policy
+     */
+    public static OptimalPolicy readFrom(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < Long.BYTES) {
+            throw new IOException("Not a policy: " + path);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a policy: " + path);
+            }
+            int maxDice = in.readInt();
+            if (maxDice <= 0 || maxDice > MAX_DICE) {
+                throw new IOException("Corrupt policy: " + path);
+            }
+            double[] expectedScores = new double[maxDice + 1];
+            for (int n = 0; n <= maxDice; n++) {
+                expectedScores[n] = in.readDouble();
+            }
+            double[][] distributions = new double[maxDice + 1][];
+            for (int n = 0; n <= maxDice; n++) {
+                int length = in.readInt();
+                if (length != n * MAX_DIE_VALUE + 1) {
+                    throw new IOException("Corrupt policy: " + path);
+                }
+                distributions[n] = new double[length];
+                for (int score = 0; score < length; score++) {
+                    distributions[n][score] = in.readDouble();
+                }
+            }
+            byte[] keepWithNeutral = new byte[tableSize(maxDice)];
+            byte[] keepWithoutNeutral = new byte[tableSize(maxDice)];
+            in.readFully(keepWithNeutral);
+            in.readFully(keepWithoutNeutral);
+            if (in.readLong() != crc(bytes, bytes.length - Long.BYTES)) {
+                throw new IOException("Corrupt policy: " + path);
+            }
+            return new OptimalPolicy(maxDice, expectedScores, distributions, keepWithNeutral, keepWithoutNeutral);
+        } catch (EOFException e) {
+            throw new IOException("Truncated policy: " + path, e);
+        }
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
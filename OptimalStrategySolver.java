@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Solves the variant of the dice game in which the player may keep any number
+ * of non-3 dice per round, finding the strategy with the lowest expected score
+ * and the score distribution it produces.
+ *
+ * Rules of the variant: the remaining dice are rolled, every 3 is set aside
+ * for nothing, and the player additionally keeps any number of the other dice,
+ * scoring their faces; if no 3 was rolled at least one die must be kept. The
+ * kept dice leave the game and the rest are rolled again. The standard game
+ * is the strategy that keeps nothing after a 3 and only the lowest die
+ * otherwise, so the optimal expected score is never higher.
+ *
+ * Dice are rolled afresh every round, so the value of a position is a function
+ * of the number of dice still to roll, and a decision is a function of the
+ * multiset of non-3 faces rolled (see {@link OptimalPolicy}). Every round
+ * removes at least one die, so the Bellman equations are acyclic: a single
+ * sweep of value iteration in increasing dice count solves them exactly, with
+ * the multisets of each size - {@code C(m + 4, 4)} of them for {@code m} dice -
+ * evaluated in parallel on a fork-join pool, split by the number of 1s.
+ * While evaluating, each decision's probability is collected by dice kept and
+ * points scored, which turns into the score distribution by convolving with
+ * the distributions for fewer dice.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class OptimalStrategySolver {
+    private static final int MAX_DIE_VALUE = 6;
+    private static final int DIE_FACES = 6;
+    private static final int[] SCORING_FACES = {1, 2, 4, 5, 6};
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+    private static final double[] LOG_FACTORIALS = new double[OptimalPolicy.MAX_DICE + 1];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+            LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+        }
+    }
+
+    private final int parallelism;
+
+    /**
+     * Constructs a solver.
+     *
+     * @param parallelism the number of worker threads (must be positive)
+     * @throws IllegalArgumentException if parallelism is non-positive
+     */
+    public OptimalStrategySolver(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes the optimal strategy for every number of dice up to maxDice.
+     *
+     * @param maxDice the largest number of dice (must be between 1 and {@value OptimalPolicy#MAX_DICE})
+     * @return the strategy with its expected scores and score distributions
+     * @throws IllegalArgumentException if maxDice is out of range
+     */
+    public OptimalPolicy solve(int maxDice) {
+        if (maxDice <= 0 || maxDice > OptimalPolicy.MAX_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 1 and " + OptimalPolicy.MAX_DICE);
+        }
+        byte[] keepWithNeutral = new byte[OptimalPolicy.tableSize(maxDice)];
+        byte[] keepWithoutNeutral = new byte[OptimalPolicy.tableSize(maxDice)];
+        double[] values = new double[maxDice + 1];
+        double[][] distributions = new double[maxDice + 1][];
+        // Expected score and distribution from m non-3 dice rolled alongside at least one 3.
+        double[] afterNeutral = new double[maxDice + 1];
+        double[][] afterNeutralDistributions = new double[maxDice + 1][];
+        distributions[0] = new double[] {1};
+        afterNeutralDistributions[0] = new double[] {1};
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int n = 1; n <= maxDice; n++) {
+                Level noNeutral = solveLevel(pool, n, false, values, distributions, keepWithoutNeutral);
+                double noNeutralProbability = Math.pow((double) (DIE_FACES - 1) / DIE_FACES, n);
+                double value = noNeutralProbability * noNeutral.expected;
+                double[] distribution = new double[n * MAX_DIE_VALUE + 1];
+                addScaled(distribution, noNeutral.distribution, noNeutralProbability);
+                for (int neutral = 1; neutral <= n; neutral++) {
+                    int m = n - neutral;
+                    double probability = Math.exp(LOG_FACTORIALS[n] - LOG_FACTORIALS[neutral] - LOG_FACTORIALS[m]
+                        - n * Math.log(DIE_FACES) + m * Math.log(DIE_FACES - 1));
+                    value += probability * afterNeutral[m];
+                    addScaled(distribution, afterNeutralDistributions[m], probability);
+                }
+                values[n] = value;
+                distributions[n] = distribution;
+
+                Level withNeutral = solveLevel(pool, n, true, values, distributions, keepWithNeutral);
+                afterNeutral[n] = withNeutral.expected;
+                afterNeutralDistributions[n] = withNeutral.distribution;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new OptimalPolicy(maxDice, values, distributions, keepWithNeutral, keepWithoutNeutral);
+    }
+
+    /**
+     * Decides every multiset of m non-3 dice and returns the expected score and
+     * score distribution over those multisets, which are rolled with the
+     * multinomial probabilities of five equally likely faces.
+     */
+    private static Level solveLevel(ForkJoinPool pool, int m, boolean neutralRolled, double[] values,
+            double[][] distributions, byte[] keep) {
+        List<Level> parts = pool.submit(() -> IntStream.rangeClosed(0, m)
+            .parallel()
+            .mapToObj(ones -> solveOnes(m, ones, neutralRolled, values, keep))
+            .collect(Collectors.toList()))
+            .join();
+
+        double expected = 0;
+        double[][] weights = new double[m + 1][m * MAX_DIE_VALUE + 1];
+        for (Level part : parts) {
+            expected += part.expected;
+            for (int kept = 0; kept <= m; kept++) {
+                addScaled(weights[kept], part.weights[kept], 1);
+            }
+        }
+        double[] distribution = new double[m * MAX_DIE_VALUE + 1];
+        for (int kept = 0; kept <= m; kept++) {
+            double[] rest = distributions[m - kept];
+            for (int points = 0; points < weights[kept].length; points++) {
+                double weight = weights[kept][points];
+                if (weight != 0) {
+                    for (int score = 0; score < rest.length; score++) {
+                        distribution[points + score] += weight * rest[score];
+                    }
+                }
+            }
+        }
+        return new Level(expected, null, distribution);
+    }
+
+    /**
+     * Decides the multisets of m non-3 dice with the given number of 1s.
+     */
+    private static Level solveOnes(int m, int ones, boolean neutralRolled, double[] values, byte[] keep) {
+        int minKeep = neutralRolled ? 0 : 1;
+        double[][] weights = new double[m + 1][m * MAX_DIE_VALUE + 1];
+        double expected = 0;
+        int[] counts = new int[SCORING_FACES.length];
+        counts[0] = ones;
+        for (int twos = 0; twos <= m - ones; twos++) {
+            counts[1] = twos;
+            for (int fours = 0; fours <= m - ones - twos; fours++) {
+                counts[2] = fours;
+                for (int fives = 0; fives <= m - ones - twos - fours; fives++) {
+                    counts[3] = fives;
+                    counts[4] = m - ones - twos - fours - fives;
+
+                    double logProbability = LOG_FACTORIALS[m] - m * Math.log(SCORING_FACES.length);
+                    for (int count : counts) {
+                        logProbability -= LOG_FACTORIALS[count];
+                    }
+                    double probability = Math.exp(logProbability);
+
+                    int bestKeep = 0;
+                    int bestPoints = 0;
+                    double bestCost = Double.POSITIVE_INFINITY;
+                    int kept = 0;
+                    int points = 0;
+                    if (minKeep == 0) {
+                        bestCost = values[m];
+                    }
+                    for (int face = 0; face < SCORING_FACES.length; face++) {
+                        for (int i = 0; i < counts[face]; i++) {
+                            kept++;
+                            points += SCORING_FACES[face];
+                            double cost = points + values[m - kept];
+                            if (cost < bestCost) {
+                                bestCost = cost;
+                                bestKeep = kept;
+                                bestPoints = points;
+                            }
+                        }
+                    }
+                    keep[OptimalPolicy.index(counts[0], counts[1], counts[2], counts[3], counts[4])] =
+                        (byte) bestKeep;
+                    expected += probability * bestCost;
+                    weights[bestKeep][bestPoints] += probability;
+                }
+            }
+        }
+        return new Level(expected, weights, null);
+    }
+
+    private static void addScaled(double[] into, double[] from, double scale) {
+        for (int i = 0; i < from.length; i++) {
+            into[i] += scale * from[i];
+        }
+    }
+
+    /**
+     * The expected score over a set of multisets, with either the probability
+     * of every (dice kept, points scored) decision or the resulting distribution.
+     */
+    private static final class Level {
+        final double expected;
+        final double[][] weights;
+        final double[] distribution;
+
+        Level(double expected, double[][] weights, double[] distribution) {
+            this.expected = expected;
+            this.weights = weights;
+            this.distribution = distribution;
+        }
+    }
+
+    /**
+     * Main entry point for the optimal strategy solver.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: number of games to simulate with the strategy (optional, default: 1000000)
+     * - args[2]: file to export the policy table to (optional, default: no export)
+     *
+     * @param args command line arguments for customizing the solver
+     * @throws IOException if the policy file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : 5;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : 1_000_000;
+        Path policyFile = args.length >= 3 ? Paths.get(args[2]) : null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        OptimalPolicy policy = new OptimalStrategySolver(threads).solve(numDice);
+        long solveMillis = (System.nanoTime() - start) / 1_000_000;
+        double[] exact = policy.distribution(numDice);
+        for (int score = 0; score < exact.length; score++) {
+            if (exact[score] > 0) {
+                System.out.printf("Total %d occurs %.4f%% with the optimal strategy.%n", score,
+                    exact[score] * PERCENTAGE_MULTIPLIER);
+            }
+        }
+        double[] standard = new ExactDistributionSolver().distribution(numDice);
+        double standardMean = 0;
+        for (int score = 0; score < standard.length; score++) {
+            standardMean += score * standard[score];
+        }
+        System.out.printf("Expected score %.4f with the optimal strategy, %.4f with the standard rules.%n",
+            policy.expectedScore(numDice), standardMean);
+        System.out.println("Total solving took " + solveMillis + " milliseconds.");
+
+        SimulationResult result = new ForkJoinEngine(threads, ForkJoinSimulator.DEFAULT_CHUNK_SIZE)
+            .run(policy.kernels(numDice), games, RandomSource.unseeded());
+        System.out.printf("Simulated %d games with the policy table: mean %.4f in %d milliseconds.%n",
+            result.games(), result.snapshot().mean(), result.elapsedNanos() / 1_000_000);
+        if (policyFile != null) {
+            policy.writeTo(policyFile);
+            System.out.println("Policy for up to " + numDice + " dice written to " + policyFile + ".");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for the OptimalStrategySolver, OptimalPolicy and PolicyGameKernel classes.
+ */
+@DisplayName("OptimalStrategySolver Unit Tests")
+public class OptimalStrategySolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The optimal expected score by brute force over every ordered roll and
+     * every subset of non-3 dice to keep.
+     */
+    private static double bruteForce(int numDice, double[] memo) {
+        if (numDice == 0 || memo[numDice] > 0) {
+            return memo[numDice];
+        }
+        int rolls = (int) Math.pow(6, numDice);
+        double total = 0;
+        int[] faces = new int[numDice];
+        for (int roll = 0; roll < rolls; roll++) {
+            int neutral = 0;
+            int others = 0;
+            for (int die = 0, rest = roll; die < numDice; die++, rest /= 6) {
+                int face = rest % 6 + 1;
+                if (face == 3) {
+                    neutral++;
+                } else {
+                    faces[others++] = face;
+                }
+            }
+            double best = Double.POSITIVE_INFINITY;
+            for (int subset = neutral > 0 ? 0 : 1; subset < 1 << others; subset++) {
+                int points = 0;
+                for (int die = 0; die < others; die++) {
+                    if ((subset & 1 << die) != 0) {
+                        points += faces[die];
+                    }
+                }
+                int left = others - Integer.bitCount(subset);
+                best = Math.min(best, points + bruteForce(left, memo));
+            }
+            total += best;
+        }
+        memo[numDice] = total / rolls;
+        return memo[numDice];
+    }
+
+    @Test
+    @DisplayName("Expected scores should match a brute force over every roll and every choice of dice")
+    void testBruteForce() {
+        OptimalPolicy policy = new OptimalStrategySolver(2).solve(5);
+        double[] memo = new double[6];
+        assertEquals(3, policy.expectedScore(1), 1e-12);
+        for (int n = 1; n <= 5; n++) {
+            assertEquals(bruteForce(n, memo), policy.expectedScore(n), 1e-9, "dice " + n);
+        }
+    }
+
+    @Test
+    @DisplayName("The optimal strategy should never score more than the standard rules")
+    void testBeatsStandardRules() {
+        OptimalPolicy policy = new OptimalStrategySolver(2).solve(20);
+        ExactDistributionSolver solver = new ExactDistributionSolver();
+        for (int n = 1; n <= 20; n++) {
+            double[] distribution = policy.distribution(n);
+            double[] standard = solver.distribution(n);
+            assertEquals(6 * n + 1, distribution.length);
+            double total = 0;
+            double mean = 0;
+            double standardMean = 0;
+            for (int score = 0; score < distribution.length; score++) {
+                total += distribution[score];
+                mean += score * distribution[score];
+                standardMean += score * standard[score];
+            }
+            assertEquals(1, total, 1e-9, "dice " + n);
+            assertEquals(policy.expectedScore(n), mean, 1e-9, "dice " + n);
+            assertTrue(mean <= standardMean + 1e-9, "dice " + n + ": " + mean + " vs " + standardMean);
+        }
+        assertTrue(policy.expectedScore(5) < 6.5);
+    }
+
+    @Test
+    @DisplayName("Playing the policy table should reproduce the solved distribution")
+    void testPolicyKernel() {
+        OptimalPolicy policy = new OptimalStrategySolver(1).solve(10);
+        for (int n : new int[] {5, 10}) {
+            long[] histogram = new ForkJoinSimulator(2, 1000)
+                .simulate(policy.kernels(n), 200_000, RandomSource.seeded(23L + n));
+            double pValue = Statistics.chiSquaredPValue(histogram, policy.distribution(n));
+            assertTrue(pValue > 1e-4, "dice " + n + " p-value " + pValue);
+        }
+    }
+
+    @Test
+    @DisplayName("Every multiset of non-3 faces should get its own slot in the table")
+    void testIndex() {
+        int maxDice = 8;
+        boolean[] seen = new boolean[OptimalPolicy.tableSize(maxDice)];
+        int count = 0;
+        for (int c1 = 0; c1 <= maxDice; c1++) {
+            for (int c2 = 0; c1 + c2 <= maxDice; c2++) {
+                for (int c4 = 0; c1 + c2 + c4 <= maxDice; c4++) {
+                    for (int c5 = 0; c1 + c2 + c4 + c5 <= maxDice; c5++) {
+                        for (int c6 = 0; c1 + c2 + c4 + c5 + c6 <= maxDice; c6++) {
+                            int size = c1 + c2 + c4 + c5 + c6;
+                            int index = OptimalPolicy.index(c1, c2, c4, c5, c6);
+                            assertTrue(index >= (size == 0 ? 0 : OptimalPolicy.tableSize(size - 1)));
+                            assertTrue(index < OptimalPolicy.tableSize(size));
+                            assertFalse(seen[index]);
+                            seen[index] = true;
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(seen.length, count);
+        assertEquals(1287, OptimalPolicy.tableSize(8));
+    }
+
+    @Test
+    @DisplayName("Policies should round-trip through a file and reject corrupt ones")
+    void testWriteAndRead() throws IOException {
+        OptimalPolicy policy = new OptimalStrategySolver(1).solve(6);
+        Path file = tempDir.resolve("policy.bin");
+        policy.writeTo(file);
+        OptimalPolicy read = OptimalPolicy.readFrom(file);
+        assertEquals(6, read.maxDice());
+        assertArrayEquals(policy.distribution(6), read.distribution(6));
+        assertEquals(policy.expectedScore(4), read.expectedScore(4));
+        assertEquals(policy.keep(2, 1, 0, 0, 3, false), read.keep(2, 1, 0, 0, 3, false));
+        assertEquals(1, read.keep(1, 0, 0, 0, 0, false));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> OptimalPolicy.readFrom(file));
+    }
+
+    @Test
+    @DisplayName("Invalid arguments should be rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new OptimalStrategySolver(0));
+        OptimalStrategySolver solver = new OptimalStrategySolver(1);
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(0));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(OptimalPolicy.MAX_DICE + 1));
+        OptimalPolicy policy = solver.solve(3);
+        assertThrows(IllegalArgumentException.class, () -> policy.kernels(4));
+        assertThrows(IllegalArgumentException.class, () -> new PolicyGameKernel(null, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PolicyGameKernel(policy, 0));
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * Plays the chunks with a parallel {@code LongStream} over the chunk indices.
+ *
+ * The stream runs inside a dedicated fork-join pool so that the thread count
+ * can be chosen per run instead of being fixed by the common pool. Each
+ * worker thread keeps one kernel, each chunk is played into its own histogram
+ * and the stream reduction sums them.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ParallelStreamEngine implements SimulationEngine {
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Constructs a parallel-stream engine.
+     *
+     * @param parallelism the number of worker threads (must be positive)
+     * @param chunkSize the number of games played with each random stream (must be positive)
+     * @throws IllegalArgumentException if either parameter is non-positive
+     */
+    public ParallelStreamEngine(int parallelism, int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource) {
+        long numChunks = SimulationEngines.chunkCount(numSimulations, chunkSize);
+        int histogramLength = kernels.get().maxScore() + 1;
+        ThreadLocal<GameKernel> workerKernels = ThreadLocal.withInitial(kernels);
+        SimulationMetrics.Run metrics = SimulationMetrics.startRun(name());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> LongStream.range(0, numChunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    ScoreHistogram histogram = new ScoreHistogram();
+                    SimulationEngines.playChunk(workerKernels.get(), randomSource, chunk, chunkSize,
+                        numSimulations, histogram, metrics);
+                    return histogram;
+                })
+                .reduce((left, right) -> {
+                    long mergeStart = System.nanoTime();
+                    left.merge(right);
+                    if (metrics != null) {
+                        metrics.merged(System.nanoTime() - mergeStart);
+                    }
+                    return left;
+                })
+                .orElseThrow()
+                .toArray(histogramLength))
+                .join();
+        } finally {
+            pool.shutdown();
+            if (metrics != null) {
+                metrics.finish();
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return SimulationEngines.PARALLEL_STREAM;
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.function.Supplier;
+
+/**
+ * Lets an {@link ExecutionPlanner} pick the engine, thread count and chunk
+ * size for every run, then plays the run on that engine.
+ *
+ * Results report the engine that actually played the games; before the
+ * first run the engine is called "auto" and reports the planner's thread limit.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class PlannedEngine implements SimulationEngine {
+    private final ExecutionPlanner planner;
+    private final String workload;
+    private final int maxThreads;
+    private volatile ExecutionPlanner.Plan lastPlan;
+
+    /**
+     * Constructs an engine that plans its runs.
+     *
+     * @param planner the planner that chooses how to run
+     * @param workload the calibration key of the games played, or null to derive one from the kernel
+     * @param maxThreads the planner's thread limit, reported until the first run
+     * @throws IllegalArgumentException if the planner is null
+     */
+    public PlannedEngine(ExecutionPlanner planner, String workload, int maxThreads) {
+        if (planner == null) {
+            throw new IllegalArgumentException("Planner must not be null");
+        }
+        this.planner = planner;
+        this.workload = workload;
+        this.maxThreads = maxThreads;
+    }
+
+    @Override
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource) {
+        String key = workload;
+        if (key == null) {
+            GameKernel kernel = kernels.get();
+            key = kernel.getClass().getSimpleName() + "-" + kernel.maxScore();
+        }
+        ExecutionPlanner.Plan plan = planner.plan(key, kernels, numSimulations);
+        lastPlan = plan;
+        return plan.newEngine().simulate(kernels, numSimulations, randomSource);
+    }
+
+    @Override
+    public String name() {
+        ExecutionPlanner.Plan plan = lastPlan;
+        return plan == null ? SimulationEngines.AUTO : plan.engine();
+    }
+
+    @Override
+    public int parallelism() {
+        ExecutionPlanner.Plan plan = lastPlan;
+        return plan == null ? maxThreads : plan.threads();
+    }
+
+    /**
+     * @return the plan of the latest run, or null before the first run
+     */
+    public ExecutionPlanner.Plan lastPlan() {
+        return lastPlan;
+    }
+}
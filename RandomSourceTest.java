@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the RandomSource class and the reproducibility it gives DiceGame2.
+ */
+@DisplayName("RandomSource Unit Tests")
+public class RandomSourceTest {
+
+    private static final long SEED = 12345L;
+
+    @Test
+    @DisplayName("Same seed and index should produce the same stream")
+    void testStreamIsReproducible() {
+        RandomGenerator first = RandomSource.seeded(SEED).stream(7);
+        RandomGenerator second = RandomSource.seeded(SEED).stream(7);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    @Test
+    @DisplayName("Different indices should produce different streams")
+    void testStreamsDiffer() {
+        RandomSource source = RandomSource.seeded(SEED);
+        assertNotEquals(source.stream(0).nextLong(), source.stream(1).nextLong());
+    }
+
+    @Test
+    @DisplayName("SplittableRandom should be accepted as an algorithm")
+    void testSplittableRandomAlgorithm() {
+        RandomSource source = RandomSource.of("SplittableRandom", SEED);
+        assertEquals("SplittableRandom", source.algorithm());
+        assertEquals(SEED, source.seed());
+        assertNotNull(source.stream(0));
+    }
+
+    @Test
+    @DisplayName("Unknown or non-splittable algorithms should be rejected")
+    void testInvalidAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> RandomSource.of("NoSuchRandom", SEED));
+        assertThrows(IllegalArgumentException.class, () -> RandomSource.of("Xoshiro256PlusPlus", SEED));
+    }
+
+    @Test
+    @DisplayName("Seeded DiceGame2 should give identical results for any thread count")
+    void testDiceGame2ReproducibleAcrossThreadCounts() {
+        DiceGame2 single = new DiceGame2(4, 20000, RandomSource.seeded(SEED), new ForkJoinSimulator(1, 1000));
+        DiceGame2 multi = new DiceGame2(4, 20000, RandomSource.seeded(SEED), new ForkJoinSimulator(4, 1000));
+
+        assertArrayEquals(single.simulate(), multi.simulate());
+    }
+}
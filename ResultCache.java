@@ -0,0 +1,362 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent cache of simulated score distributions, keyed by the number of
+ * dice and the {@link GameRules}.
+ *
+ * Every entry remembers the random source it was played with and the index of
+ * the first random stream it has not used yet. A request for more games than
+ * an entry holds therefore only plays the difference, on fresh streams, and
+ * merges it into the stored histogram; a request for fewer games is answered
+ * from the entry as it is, with all its games. Requests for a precision target
+ * refine the entry batch by batch until the 95% confidence interval on the
+ * mean is narrow enough.
+ *
+ * Entries live in one file each in the cache directory and the most recently
+ * used ones are also kept in memory. When the files exceed the size budget,
+ * the least recently used ones are deleted; recency is kept in the file
+ * modification times, so it survives restarts.
+ *
+ * File format (big-endian): magic "DGCACHE1" (long), version (int), number of
+ * dice (int), rules (UTF), algorithm (UTF), seed (long), chunk size (int),
+ * games (long), next stream (long), histogram length (int), the non-zero
+ * counts in the compact form of {@link ScoreHistogram#writeTo}, and a CRC-32
+ * of everything before it (long).
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ResultCache {
+    public static final long DEFAULT_MAX_DISK_BYTES = 64L << 20;
+    public static final int DEFAULT_MEMORY_ENTRIES = 16;
+    private static final long MAGIC = 0x4447434143484531L;
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".result";
+
+    private final Path directory;
+    private final long maxDiskBytes;
+    private final ForkJoinSimulator simulator;
+    private final Map<String, Entry> memory;
+    private long lastAccess;
+    private long gamesSimulated;
+
+    /**
+     * Opens a cache, creating its directory if needed.
+     *
+     * @param directory the directory holding the cached results
+     * @param maxDiskBytes the size budget for the files (must be positive)
+     * @param memoryEntries the number of entries kept in memory (must not be negative)
+     * @param simulator the simulator that plays missing games
+     * @throws IllegalArgumentException if a size is out of range
+     * @throws IOException if the directory cannot be created
+     */
+    public ResultCache(Path directory, long maxDiskBytes, int memoryEntries, ForkJoinSimulator simulator)
+            throws IOException {
+        if (maxDiskBytes <= 0 || memoryEntries < 0) {
+            throw new IllegalArgumentException("Disk budget must be positive and memory entries not negative");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxDiskBytes = maxDiskBytes;
+        this.simulator = simulator;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the distribution of at least the given number of games,
+     * simulating only the games the cache does not hold yet.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param rules the rules to simulate
+     * @param games the minimum number of games (must be positive)
+     * @return the cached or refined distribution
+     * @throws IllegalArgumentException if a count is non-positive
+     * @throws IOException if the entry cannot be stored
+     */
+    public synchronized SimulationSnapshot get(int numDice, GameRules rules, long games) throws IOException {
+        if (numDice <= 0 || games <= 0) {
+            throw new IllegalArgumentException("Number of dice and games must be positive");
+        }
+        String key = key(numDice, rules);
+        Entry entry = lookup(key, numDice, rules);
+        if (entry.games < games) {
+            Supplier<GameKernel> kernels = rules.kernels(numDice);
+            while (entry.games < games) {
+                entry = extend(entry, kernels, games - entry.games);
+            }
+            store(key, entry);
+        }
+        return new SimulationSnapshot(entry.histogram);
+    }
+
+    /**
+     * Returns a distribution whose mean is known to within +/-meanHalfWidth
+     * points at 95% confidence, or of maxGames games if that comes first.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param rules the rules to simulate
+     * @param meanHalfWidth the target half-width of the confidence interval on the mean (must be positive)
+     * @param maxGames the most games to hold for the entry (must be positive)
+     * @return the cached or refined distribution
+     * @throws IllegalArgumentException if a parameter is non-positive
+     * @throws IOException if the entry cannot be stored
+     */
+    public synchronized SimulationSnapshot getWithPrecision(int numDice, GameRules rules, double meanHalfWidth,
+            long maxGames) throws IOException {
+        if (numDice <= 0 || !(meanHalfWidth > 0) || maxGames <= 0) {
+            throw new IllegalArgumentException("Number of dice, precision and games must be positive");
+        }
+        String key = key(numDice, rules);
+        Entry entry = lookup(key, numDice, rules);
+        SimulationSnapshot snapshot = new SimulationSnapshot(entry.histogram);
+        if (entry.games < maxGames && snapshot.meanHalfWidth() > meanHalfWidth) {
+            Supplier<GameKernel> kernels = rules.kernels(numDice);
+            do {
+                entry = extend(entry, kernels, Math.min(StreamingSimulator.DEFAULT_BATCH_SIZE,
+                    maxGames - entry.games));
+                snapshot = new SimulationSnapshot(entry.histogram);
+            } while (entry.games < maxGames && snapshot.meanHalfWidth() > meanHalfWidth);
+            store(key, entry);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the number of games this cache has simulated since it was opened
+     */
+    public synchronized long gamesSimulated() {
+        return gamesSimulated;
+    }
+
+    /**
+     * Plays up to the given number of further games for an entry on streams it has not used yet.
+     */
+    private Entry extend(Entry entry, Supplier<GameKernel> kernels, long missing) {
+        int batch = (int) Math.min(missing, Integer.MAX_VALUE / simulator.chunkSize() * simulator.chunkSize());
+        RandomSource source = RandomSource.of(entry.algorithm, entry.seed);
+        long[] histogram = simulator.simulate(kernels, batch, source, entry.nextStream);
+        for (int score = 0; score < histogram.length; score++) {
+            histogram[score] += entry.histogram[score];
+        }
+        gamesSimulated += batch;
+        return new Entry(entry.numDice, entry.rules, entry.algorithm, entry.seed, entry.chunkSize,
+            entry.games + batch, entry.nextStream + simulator.streamsFor(batch), histogram);
+    }
+
+    /**
+     * Finds the entry for a key in memory or on disk, or starts an empty one.
+     * Entries played with another chunk size are discarded, as their streams
+     * cannot be continued, and so are entries whose histogram does not fit the
+     * rules, which new games are summed into score by score.
+     */
+    private Entry lookup(String key, int numDice, GameRules rules) {
+        Entry entry = memory.get(key);
+        Path file = directory.resolve(key + SUFFIX);
+        if (entry == null && Files.exists(file)) {
+            try {
+                entry = read(file);
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable cache entry " + file + ": " + e.getMessage());
+            }
+        }
+        if (entry == null || entry.numDice != numDice || !entry.rules.equals(rules.toString())
+                || entry.chunkSize != simulator.chunkSize() || entry.histogram.length != rules.maxScore(numDice) + 1) {
+            RandomSource source = RandomSource.unseeded();
+            return new Entry(numDice, rules.toString(), source.algorithm(), source.seed(), simulator.chunkSize(),
+                0, 0, new long[rules.maxScore(numDice) + 1]);
+        }
+        memory.put(key, entry);
+        touch(file);
+        return entry;
+    }
+
+    private void store(String key, Entry entry) throws IOException {
+        Path file = directory.resolve(key + SUFFIX);
+        write(entry, file);
+        memory.put(key, entry);
+        touch(file);
+        evict(file);
+    }
+
+    /**
+     * Marks a file as used now. The stamps strictly increase, so files used
+     * within the same millisecond still have a definite order.
+     */
+    private void touch(Path file) {
+        lastAccess = Math.max(System.currentTimeMillis(), lastAccess + 1);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(lastAccess));
+        } catch (IOException e) {
+            // Recency is only a hint for eviction.
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the rest fit the budget,
+     * never deleting the file that was just stored.
+     */
+    private void evict(Path keep) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                .collect(Collectors.toCollection(ArrayList::new));
+        }
+        long total = 0;
+        Map<Path, FileTime> used = new LinkedHashMap<>();
+        for (Path file : files) {
+            total += Files.size(file);
+            used.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(used::get));
+        for (Path file : files) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            if (!file.equals(keep)) {
+                total -= Files.size(file);
+                Files.delete(file);
+                memory.remove(file.getFileName().toString().replace(SUFFIX, ""));
+            }
+        }
+    }
+
+    private static String key(int numDice, GameRules rules) {
+        return numDice + "-" + rules;
+    }
+
+    private static void write(Entry entry, Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entry.numDice);
+            out.writeUTF(entry.rules);
+            out.writeUTF(entry.algorithm);
+            out.writeLong(entry.seed);
+            out.writeInt(entry.chunkSize);
+            out.writeLong(entry.games);
+            out.writeLong(entry.nextStream);
+            out.writeInt(entry.histogram.length);
+            ScoreHistogram.of(entry.histogram).writeTo(out);
+            out.writeLong(crc(bytes.toByteArray(), bytes.size()));
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Entry read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < Long.BYTES) {
+            throw new IOException("Not a cached result: " + path);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a cached result: " + path);
+            }
+            int numDice = in.readInt();
+            String rules = in.readUTF();
+            String algorithm = in.readUTF();
+            long seed = in.readLong();
+            int chunkSize = in.readInt();
+            long games = in.readLong();
+            long nextStream = in.readLong();
+            int length = in.readInt();
+            if (numDice <= 0 || length <= 0 || length > (long) numDice * GameRules.MAX_FACES + 1) {
+                throw new IOException("Corrupt cached result: " + path);
+            }
+            ScoreHistogram counts = ScoreHistogram.readFrom(in);
+            if (counts.maxScore() >= length || in.readLong() != crc(bytes, bytes.length - Long.BYTES)) {
+                throw new IOException("Corrupt cached result: " + path);
+            }
+            return new Entry(numDice, rules, algorithm, seed, chunkSize, games, nextStream, counts.toArray(length));
+        } catch (EOFException e) {
+            throw new IOException("Truncated cached result: " + path, e);
+        }
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    /**
+     * One cached distribution and where its random streams continue. Entries
+     * are never modified; refining one creates a new entry.
+     */
+    private static final class Entry {
+        final int numDice;
+        final String rules;
+        final String algorithm;
+        final long seed;
+        final int chunkSize;
+        final long games;
+        final long nextStream;
+        final long[] histogram;
+
+        Entry(int numDice, String rules, String algorithm, long seed, int chunkSize, long games, long nextStream,
+                long[] histogram) {
+            this.numDice = numDice;
+            this.rules = rules;
+            this.algorithm = algorithm;
+            this.seed = seed;
+            this.chunkSize = chunkSize;
+            this.games = games;
+            this.nextStream = nextStream;
+            this.histogram = histogram;
+        }
+    }
+
+    /**
+     * Main entry point for cached simulations.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: number of games (optional, default: 10000)
+     * - args[2]: cache directory (optional, default: .dicegame-cache)
+     * - args[3]: rules as accepted by {@link GameRules#parse(String)} (optional, default: standard rules)
+     *
+     * @param args command line arguments for customizing the simulation
+     * @throws IOException if the cache cannot be used
+     */
+    public static void main(String[] args) throws IOException {
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : 5;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : 10000;
+        Path cacheDirectory = Paths.get(args.length >= 3 ? args[2] : ".dicegame-cache");
+        GameRules rules = args.length >= 4 ? GameRules.parse(args[3]) : GameRules.standard();
+
+        ForkJoinSimulator simulator = new ForkJoinSimulator();
+        ResultCache cache = new ResultCache(cacheDirectory, DEFAULT_MAX_DISK_BYTES, DEFAULT_MEMORY_ENTRIES,
+            simulator);
+        long start = System.nanoTime();
+        SimulationSnapshot snapshot = cache.get(numDice, rules, games);
+        new SimulationResult(SimulationEngines.FORK_JOIN, simulator.parallelism(), snapshot.histogram(),
+            System.nanoTime() - start).writeTable(numDice, System.out);
+        System.out.println("Simulated " + cache.gamesSimulated() + " of " + snapshot.games()
+            + " games; the rest came from " + cacheDirectory + ".");
+    }
+}
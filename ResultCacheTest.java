@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the ResultCache class.
+ */
+@DisplayName("ResultCache Unit Tests")
+public class ResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private ResultCache open(long maxDiskBytes, int memoryEntries) throws IOException {
+        return new ResultCache(directory, maxDiskBytes, memoryEntries, new ForkJoinSimulator(2, 1000));
+    }
+
+    private long cachedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".result")).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Refinement should only simulate the missing games and extend the histogram")
+    void testIncrementalRefinement() throws IOException {
+        ResultCache cache = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 4);
+        GameRules rules = GameRules.standard();
+
+        long[] first = cache.get(4, rules, 10_000).histogram();
+        assertEquals(10_000, cache.gamesSimulated());
+        assertEquals(10_000, cache.get(4, rules, 5_000).games(), "Smaller requests get all cached games");
+        assertEquals(10_000, cache.gamesSimulated());
+
+        long[] refined = cache.get(4, rules, 25_000).histogram();
+        assertEquals(25_000, cache.gamesSimulated());
+        long total = 0;
+        for (int score = 0; score < refined.length; score++) {
+            assertTrue(refined[score] >= first[score], "Refinement must keep the cached games");
+            total += refined[score];
+        }
+        assertEquals(25_000, total);
+    }
+
+    @Test
+    @DisplayName("A reopened cache should answer from disk without simulating")
+    void testPersistence() throws IOException {
+        GameRules rules = GameRules.parse("faces=8,neutral=3+4");
+        long[] stored = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 0).get(3, rules, 20_000).histogram();
+        assertEquals(rules.maxScore(3) + 1, stored.length);
+
+        ResultCache reopened = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 0);
+        assertArrayEquals(stored, reopened.get(3, rules, 20_000).histogram());
+        assertEquals(0, reopened.gamesSimulated());
+        assertEquals(20_000, reopened.get(3, GameRules.standard(), 20_000).games());
+        assertEquals(20_000, reopened.gamesSimulated(), "Other rules are a different entry");
+    }
+
+    @Test
+    @DisplayName("Precision requests should stop once the target is met")
+    void testPrecision() throws IOException {
+        ResultCache cache = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 4);
+        SimulationSnapshot snapshot = cache.getWithPrecision(5, GameRules.standard(), 0.1, 10_000_000);
+        assertTrue(snapshot.meanHalfWidth() <= 0.1);
+        assertTrue(snapshot.games() < 10_000_000);
+
+        long simulated = cache.gamesSimulated();
+        assertEquals(snapshot.games(), cache.getWithPrecision(5, GameRules.standard(), 0.2, 10_000_000).games());
+        assertEquals(simulated, cache.gamesSimulated(), "A looser target is already met");
+
+        assertEquals(1000, cache.getWithPrecision(6, GameRules.standard(), 1e-9, 1000).games());
+    }
+
+    @Test
+    @DisplayName("The least recently used files should be evicted beyond the budget")
+    void testEviction() throws IOException {
+        ResultCache sizing = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 0);
+        sizing.get(5, GameRules.standard(), 100);
+        long entryBytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            entryBytes = files.findFirst().orElseThrow().toFile().length();
+        }
+
+        // Entries only store the scores that occurred, so their sizes differ by a few bytes.
+        ResultCache cache = open(entryBytes * 5 / 2, 0);
+        cache.get(5, GameRules.standard(), 100);
+        cache.get(5, GameRules.parse("neutral=4"), 100);
+        cache.get(5, GameRules.standard(), 100);
+        cache.get(5, GameRules.parse("neutral=2"), 100);
+        assertEquals(2, cachedFiles());
+
+        long simulated = cache.gamesSimulated();
+        cache.get(5, GameRules.standard(), 100);
+        assertEquals(simulated, cache.gamesSimulated(), "Recently used entry is kept");
+        cache.get(5, GameRules.parse("neutral=4"), 100);
+        assertEquals(simulated + 100, cache.gamesSimulated(), "Least recently used entry is evicted");
+    }
+
+    @Test
+    @DisplayName("Invalid arguments and corrupt files should be handled")
+    void testValidation() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> open(0, 1));
+        ResultCache cache = open(ResultCache.DEFAULT_MAX_DISK_BYTES, 0);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(0, GameRules.standard(), 10));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(5, GameRules.standard(), 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> cache.getWithPrecision(5, GameRules.standard(), 0, 10));
+
+        cache.get(2, GameRules.standard(), 100);
+        try (Stream<Path> files = Files.list(directory)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[] {1, 2, 3});
+        }
+        assertEquals(100, cache.get(2, GameRules.standard(), 100).games());
+        assertEquals(200, cache.gamesSimulated(), "A corrupt entry is simulated again");
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Measures how the throughput of {@link DiceGame2#simulate()} scales with the
+ * number of worker threads.
+ *
+ * The same seeded simulation is run with 1, 2, 4, ... worker threads up to the
+ * number of available processors. Each configuration is warmed up
+ * before it is timed so the figures reflect steady-state JIT-compiled code.
+ *
+ * Command line arguments:
+ * - args[0]: number of dice (optional, default: 5)
+ * - args[1]: number of simulations per measurement (optional, default: 10000000)
+ * - args[2]: random algorithm (optional, default: L64X128MixRandom)
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ScalingBenchmark {
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final int DEFAULT_NUM_SIMULATIONS = 10_000_000;
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final long SEED = 42L;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Runs the scaling benchmark and prints one line per thread count.
+     *
+     * @param args command line arguments for customizing the benchmark
+     */
+    public static void main(String[] args) {
+        int numDice = DEFAULT_NUM_DICE;
+        int numSimulations = DEFAULT_NUM_SIMULATIONS;
+        String algorithm = RandomSource.DEFAULT_ALGORITHM;
+
+        if (args.length >= 1) {
+            numDice = Integer.parseInt(args[0]);
+        }
+        if (args.length >= 2) {
+            numSimulations = Integer.parseInt(args[1]);
+        }
+        if (args.length >= 3) {
+            algorithm = args[2];
+        }
+
+        RandomSource randomSource = RandomSource.of(algorithm, SEED);
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("Scaling %d games with %d dice using %s.%n", numSimulations, numDice, algorithm);
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ForkJoinSimulator simulator = new ForkJoinSimulator(threads, ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+            DiceGame2 game = new DiceGame2(numDice, numSimulations, randomSource, simulator);
+            double gamesPerSecond = measure(game, numSimulations);
+            if (threads == 1) {
+                baseline = gamesPerSecond;
+            }
+            System.out.printf("%3d threads: %,.0f games/sec (speedup %.2fx)%n",
+                threads, gamesPerSecond, gamesPerSecond / baseline);
+        }
+    }
+
+    /**
+     * Warms the simulation up, then times one full run.
+     */
+    private static double measure(DiceGame2 game, int numSimulations) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            game.simulate();
+        }
+        long start = System.nanoTime();
+        game.simulate();
+        long elapsed = System.nanoTime() - start;
+        return numSimulations * NANOS_PER_SECOND / elapsed;
+    }
+
+    /**
+     * Doubles the thread count, making sure the processor count itself is measured.
+     */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+}
@@ -0,0 +1,392 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Counts how many games ended with each score, using memory for the scores
+ * that actually occur rather than for every possible score.
+ *
+ * A histogram starts sparse, as a short list of (score, count) pairs. Once
+ * more than {@value #MAX_SPARSE_SCORES} distinct scores have occurred it
+ * switches to a dense array that only covers the populated score range plus
+ * some margin, and doubles that window whenever a score falls outside it.
+ * Scores of thousands of dice cluster within a few hundred points of the
+ * mean, so a histogram stays a few kilobytes where an array over every
+ * possible score would not, and merging costs time in proportion to the
+ * populated range. Counts are {@code long}s.
+ *
+ * The serialized form lists the non-zero scores in ascending order, each as
+ * the variable-length gap from the previous score and its count. It is
+ * written straight from the pairs or the array, and is what the shard,
+ * checkpoint and result cache files store, so their size follows the scores
+ * that occurred rather than the number of dice.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class ScoreHistogram {
+    /** The number of distinct scores kept as pairs before switching to an array. */
+    public static final int MAX_SPARSE_SCORES = 8;
+    private static final int MIN_DENSE_LENGTH = 16;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int MAX_VARINT_SHIFT = 63;
+
+    private int[] sparseScores = new int[MAX_SPARSE_SCORES];
+    private long[] sparseCounts = new long[MAX_SPARSE_SCORES];
+    private int sparseSize;
+    private long[] counts;
+    private int offset;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public ScoreHistogram() {
+    }
+
+    /**
+     * Creates a histogram holding the counts of a dense array indexed by score.
+     *
+     * @param histogram the number of games that ended with each score
+     * @return the histogram
+     */
+    public static ScoreHistogram of(long[] histogram) {
+        ScoreHistogram result = new ScoreHistogram();
+        for (int score = 0; score < histogram.length; score++) {
+            result.add(score, histogram[score]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts one game with the given score.
+     *
+     * @param score the score (must not be negative)
+     * @throws IllegalArgumentException if the score is negative
+     */
+    public void increment(int score) {
+        long[] dense = counts;
+        int index = score - offset;
+        if (dense != null && index >= 0 && index < dense.length) {
+            dense[index]++;
+        } else {
+            add(score, 1);
+        }
+    }
+
+    /**
+     * Counts several games with the given score.
+     *
+     * @param score the score (must not be negative)
+     * @param count the number of games (must not be negative)
+     * @throws IllegalArgumentException if the score or count is negative
+     */
+    public void add(int score, long count) {
+        if (score < 0 || count < 0) {
+            throw new IllegalArgumentException("Score and count must not be negative");
+        }
+        if (count == 0) {
+            return;
+        }
+        if (counts == null) {
+            for (int i = 0; i < sparseSize; i++) {
+                if (sparseScores[i] == score) {
+                    sparseCounts[i] += count;
+                    return;
+                }
+            }
+            if (sparseSize < MAX_SPARSE_SCORES) {
+                sparseScores[sparseSize] = score;
+                sparseCounts[sparseSize++] = count;
+                return;
+            }
+            densify(score);
+        }
+        ensureRange(score, score);
+        counts[score - offset] += count;
+    }
+
+    /**
+     * Adds all counts of another histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void merge(ScoreHistogram other) {
+        if (other.counts == null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                add(other.sparseScores[i], other.sparseCounts[i]);
+            }
+            return;
+        }
+        int low = other.minScore();
+        if (low < 0) {
+            return;
+        }
+        int high = other.maxScore();
+        if (counts == null) {
+            densify(low);
+        }
+        ensureRange(low, high);
+        for (int score = low; score <= high; score++) {
+            counts[score - offset] += other.counts[score - other.offset];
+        }
+    }
+
+    /**
+     * @param score the score
+     * @return the number of games that ended with the score
+     */
+    public long count(int score) {
+        if (counts == null) {
+            for (int i = 0; i < sparseSize; i++) {
+                if (sparseScores[i] == score) {
+                    return sparseCounts[i];
+                }
+            }
+            return 0;
+        }
+        int index = score - offset;
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * @return the number of games counted
+     */
+    public long total() {
+        long total = 0;
+        if (counts == null) {
+            for (int i = 0; i < sparseSize; i++) {
+                total += sparseCounts[i];
+            }
+        } else {
+            for (long count : counts) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the lowest score counted, or -1 if the histogram is empty
+     */
+    public int minScore() {
+        if (counts == null) {
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < sparseSize; i++) {
+                min = Math.min(min, sparseScores[i]);
+            }
+            return sparseSize == 0 ? -1 : min;
+        }
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] != 0) {
+                return offset + index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the highest score counted, or -1 if the histogram is empty
+     */
+    public int maxScore() {
+        if (counts == null) {
+            int max = -1;
+            for (int i = 0; i < sparseSize; i++) {
+                max = Math.max(max, sparseScores[i]);
+            }
+            return max;
+        }
+        for (int index = counts.length - 1; index >= 0; index--) {
+            if (counts[index] != 0) {
+                return offset + index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true once the histogram has switched to an array over its populated range
+     */
+    public boolean isDense() {
+        return counts != null;
+    }
+
+    /**
+     * @return the number of score slots the histogram currently holds
+     */
+    public int capacity() {
+        return counts == null ? MAX_SPARSE_SCORES : counts.length;
+    }
+
+    /**
+     * Copies the counts into an array indexed by score.
+     *
+     * @param length the length of the array, at least the highest score plus one
+     * @return the number of games that ended with each score
+     * @throws IllegalArgumentException if a counted score does not fit
+     */
+    public long[] toArray(int length) {
+        int high = maxScore();
+        if (high >= length) {
+            throw new IllegalArgumentException("Score " + high + " does not fit in " + length + " buckets");
+        }
+        long[] histogram = new long[length];
+        if (counts == null) {
+            for (int i = 0; i < sparseSize; i++) {
+                histogram[sparseScores[i]] = sparseCounts[i];
+            }
+        } else if (high >= 0) {
+            int low = minScore();
+            System.arraycopy(counts, low - offset, histogram, low, high - low + 1);
+        }
+        return histogram;
+    }
+
+    /**
+     * Writes the histogram in its compact form.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        if (counts == null) {
+            int[] order = new int[sparseSize];
+            for (int i = 0; i < sparseSize; i++) {
+                order[i] = i;
+            }
+            // Insertion sort by score; there are at most MAX_SPARSE_SCORES pairs.
+            for (int i = 1; i < sparseSize; i++) {
+                int pair = order[i];
+                int j = i;
+                for (; j > 0 && sparseScores[order[j - 1]] > sparseScores[pair]; j--) {
+                    order[j] = order[j - 1];
+                }
+                order[j] = pair;
+            }
+            writeVarLong(out, sparseSize);
+            int previous = 0;
+            for (int pair : order) {
+                writeVarLong(out, sparseScores[pair] - previous);
+                writeVarLong(out, sparseCounts[pair]);
+                previous = sparseScores[pair];
+            }
+            return;
+        }
+        int nonZero = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonZero++;
+            }
+        }
+        writeVarLong(out, nonZero);
+        int previous = 0;
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] != 0) {
+                writeVarLong(out, offset + index - previous);
+                writeVarLong(out, counts[index]);
+                previous = offset + index;
+            }
+        }
+    }
+
+    /**
+     * Reads a histogram written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the histogram
+     * @throws IOException if reading fails or the data is malformed
+     */
+    public static ScoreHistogram readFrom(DataInput in) throws IOException {
+        long entries = readVarLong(in);
+        ScoreHistogram histogram = new ScoreHistogram();
+        long score = 0;
+        for (long i = 0; i < entries; i++) {
+            score += readVarLong(in);
+            long count = readVarLong(in);
+            if (score > Integer.MAX_VALUE || count <= 0) {
+                throw new IOException("Malformed histogram entry " + i);
+            }
+            histogram.add((int) score, count);
+        }
+        return histogram;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ScoreHistogram)) {
+            return false;
+        }
+        ScoreHistogram that = (ScoreHistogram) other;
+        int length = Math.max(maxScore(), that.maxScore()) + 1;
+        return Arrays.equals(toArray(length), that.toArray(length));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray(maxScore() + 1));
+    }
+
+    /**
+     * Switches from pairs to an array around the populated range and the new
+     * score, with as much margin again as the range is wide.
+     */
+    private void densify(int newScore) {
+        int low = newScore;
+        int high = newScore;
+        for (int i = 0; i < sparseSize; i++) {
+            low = Math.min(low, sparseScores[i]);
+            high = Math.max(high, sparseScores[i]);
+        }
+        int width = high - low + 1;
+        int length = Math.max(MIN_DENSE_LENGTH, 2 * width);
+        offset = Math.max(0, low - (length - width) / 2);
+        counts = new long[length];
+        for (int i = 0; i < sparseSize; i++) {
+            counts[sparseScores[i] - offset] = sparseCounts[i];
+        }
+        sparseScores = null;
+        sparseCounts = null;
+        sparseSize = 0;
+    }
+
+    /**
+     * Grows the array, at least doubling it, until it covers scores low to high.
+     */
+    private void ensureRange(int low, int high) {
+        int end = offset + counts.length;
+        if (low >= offset && high < end) {
+            return;
+        }
+        int newLow = Math.min(low, offset);
+        int newHigh = Math.max(high, end - 1);
+        int length = Math.max(newHigh - newLow + 1, 2 * counts.length);
+        // Extra room goes on the side the histogram grew towards.
+        int newOffset = low < offset ? Math.max(0, newHigh + 1 - length) : offset;
+        long[] grown = new long[length];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~(long) VARINT_PAYLOAD_MASK) != 0) {
+            out.writeByte((int) (value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+            value >>>= VARINT_PAYLOAD_BITS;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_PAYLOAD_BITS) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & VARINT_PAYLOAD_MASK) << shift;
+            if ((b & VARINT_CONTINUATION) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length number");
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Unit tests for the ScoreHistogram class and 64-bit run sizes.
+ */
+@DisplayName("ScoreHistogram Unit Tests")
+public class ScoreHistogramTest {
+
+    @Test
+    @DisplayName("Histograms should stay sparse for few scores and go dense over the populated range")
+    void testSparseToDense() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (int i = 0; i < ScoreHistogram.MAX_SPARSE_SCORES; i++) {
+            histogram.increment(10_000 + i);
+        }
+        assertFalse(histogram.isDense());
+        histogram.increment(10_000);
+        histogram.increment(10_050);
+        assertTrue(histogram.isDense());
+        assertTrue(histogram.capacity() < 1000, "Only the populated range is allocated");
+        assertEquals(2, histogram.count(10_000));
+        assertEquals(0, histogram.count(5));
+        assertEquals(10, histogram.total());
+        assertEquals(10_000, histogram.minScore());
+        assertEquals(10_050, histogram.maxScore());
+
+        histogram.add(3, 5);
+        histogram.add(20_000, 1);
+        assertEquals(5, histogram.count(3));
+        assertEquals(1, histogram.count(20_000));
+        assertEquals(3, histogram.minScore());
+        assertEquals(16, histogram.total());
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.add(1, -1));
+    }
+
+    @Test
+    @DisplayName("Merges should add counts whatever the representation on either side")
+    void testMerge() {
+        long[] dense = new long[40];
+        ScoreHistogram expected = new ScoreHistogram();
+        ScoreHistogram sparse = new ScoreHistogram();
+        ScoreHistogram wide = new ScoreHistogram();
+        for (int score = 0; score < 40; score++) {
+            long count = score * 3L + 1;
+            dense[score] += count;
+            expected.add(score, count);
+            (score % 7 == 0 ? sparse : wide).add(score, count);
+        }
+        ScoreHistogram merged = new ScoreHistogram();
+        merged.merge(sparse);
+        assertFalse(merged.isDense());
+        merged.merge(wide);
+        assertTrue(merged.isDense());
+        assertEquals(expected, merged);
+        assertArrayEquals(dense, merged.toArray(40));
+
+        sparse.merge(wide);
+        assertEquals(expected, sparse);
+        assertEquals(expected, ScoreHistogram.of(dense));
+        assertThrows(IllegalArgumentException.class, () -> merged.toArray(39));
+    }
+
+    @Test
+    @DisplayName("The compact form should round-trip and count beyond the int range")
+    void testSerialization() throws IOException {
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.add(0, 1);
+        histogram.add(3000, 5_000_000_000_000L);
+        for (int score = 2900; score < 3100; score++) {
+            histogram.increment(score);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        assertTrue(bytes.size() < 500, "Serialized in " + bytes.size() + " bytes");
+
+        ScoreHistogram read = ScoreHistogram.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(histogram, read);
+        assertEquals(5_000_000_000_201L, read.total());
+        assertEquals(5_000_000_000_001L, read.count(3000));
+
+        ScoreHistogram sparse = new ScoreHistogram();
+        sparse.add(7, 2);
+        sparse.add(3, 1);
+        sparse.add(5, 4);
+        ByteArrayOutputStream sparseBytes = new ByteArrayOutputStream();
+        sparse.writeTo(new DataOutputStream(sparseBytes));
+        assertArrayEquals(new byte[] {3, 3, 1, 2, 4, 2, 2}, sparseBytes.toByteArray(), "Scores are written in order");
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        new ScoreHistogram().writeTo(new DataOutputStream(empty));
+        assertEquals(-1, ScoreHistogram.readFrom(new DataInputStream(
+            new ByteArrayInputStream(empty.toByteArray()))).maxScore());
+    }
+
+    @Test
+    @DisplayName("Run sizes should go beyond the int range")
+    void testLongRunSizes() {
+        assertEquals(3_000_000_000L, SimulationOptions.parse(new String[] {"5", "3000000000"},
+            SimulationEngines.SEQUENTIAL).numSimulations());
+        assertEquals(3_000_000_000L / 4096 + 1, new ForkJoinSimulator(1, 4096).streamsFor(3_000_000_000L));
+        assertEquals(5_000_000_000L, SimulationEngines.chunkCount(5_000_000_000L, 1));
+    }
+}
@@ -0,0 +1,49 @@
+import java.util.function.Supplier;
+
+/**
+ * Plays every chunk one after another on the calling thread with a single kernel.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class SequentialEngine implements SimulationEngine {
+    private final int chunkSize;
+
+    /**
+     * Constructs a sequential engine.
+     *
+     * @param chunkSize the number of games played with each random stream (must be positive)
+     * @throws IllegalArgumentException if chunkSize is non-positive
+     */
+    public SequentialEngine(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource) {
+        long numChunks = SimulationEngines.chunkCount(numSimulations, chunkSize);
+        GameKernel kernel = kernels.get();
+        ScoreHistogram histogram = new ScoreHistogram();
+        SimulationMetrics.Run metrics = SimulationMetrics.startRun(name());
+        for (long chunk = 0; chunk < numChunks; chunk++) {
+            SimulationEngines.playChunk(kernel, randomSource, chunk, chunkSize, numSimulations, histogram, metrics);
+        }
+        if (metrics != null) {
+            metrics.finish();
+        }
+        return histogram.toArray(kernel.maxScore() + 1);
+    }
+
+    @Override
+    public String name() {
+        return SimulationEngines.SEQUENTIAL;
+    }
+
+    @Override
+    public int parallelism() {
+        return 1;
+    }
+}
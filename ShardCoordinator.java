@@ -0,0 +1,261 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs one simulation across several local worker JVMs and merges their results.
+ *
+ * The games are split into one share per worker, each a whole number of
+ * chunks, and every share is given its own range of random streams of one
+ * seeded {@link RandomSource}. Each worker is a separate {@link ShardWorker}
+ * process that writes a {@link HistogramShard} file; the coordinator waits
+ * for all of them and sums the shards. The merged histogram is identical to
+ * a single-JVM run of all games with the same seed and chunk size.
+ *
+ * A shard file left behind by an earlier run with the same parameters is
+ * reused rather than replayed, and a worker that fails is started again, so
+ * a long run survives the loss of individual workers. Because workers only
+ * share files with the coordinator, the same shard files can be produced on
+ * other machines and merged with {@code ShardCoordinator merge}.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class ShardCoordinator {
+    static final int MAX_ATTEMPTS = 2;
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final long DEFAULT_NUM_SIMULATIONS = 10000;
+    private static final int DEFAULT_WORKERS = 2;
+
+    private final int workers;
+    private final int threadsPerWorker;
+    private final int chunkSize;
+    private final Path shardDirectory;
+
+    /**
+     * Constructs a coordinator.
+     *
+     * @param workers the number of worker processes (must be positive)
+     * @param threadsPerWorker the number of threads in each worker (must be positive)
+     * @param chunkSize the number of games played per random stream (must be positive)
+     * @param shardDirectory where the workers write their shard files
+     * @throws IllegalArgumentException if a count is non-positive
+     */
+    public ShardCoordinator(int workers, int threadsPerWorker, int chunkSize, Path shardDirectory) {
+        if (workers <= 0 || threadsPerWorker <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Workers, threads and chunk size must be positive");
+        }
+        this.workers = workers;
+        this.threadsPerWorker = threadsPerWorker;
+        this.chunkSize = chunkSize;
+        this.shardDirectory = shardDirectory;
+    }
+
+    /**
+     * Plays the games on the worker processes and merges their shards.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param games the total number of games (must be positive)
+     * @param seed the seed of the run's random source
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if a parameter is out of range
+     * @throws IOException if a worker keeps failing or a shard cannot be read
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public long[] run(int numDice, long games, long seed) throws IOException, InterruptedException {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        Files.createDirectories(shardDirectory);
+        List<Share> shares = plan(games);
+        List<HistogramShard> shards = new ArrayList<>();
+        List<Share> pending = new ArrayList<>();
+        for (Share share : shares) {
+            HistogramShard existing = readIfComplete(share, numDice, seed);
+            if (existing != null) {
+                shards.add(existing);
+            } else {
+                pending.add(share);
+            }
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            List<Process> processes = new ArrayList<>();
+            for (Share share : pending) {
+                processes.add(start(share, numDice, seed));
+            }
+            List<Share> failed = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                Share share = pending.get(i);
+                int exitCode = processes.get(i).waitFor();
+                HistogramShard shard = exitCode == 0 ? readIfComplete(share, numDice, seed) : null;
+                if (shard != null) {
+                    shards.add(shard);
+                } else {
+                    System.err.printf("Worker %d failed with exit code %d (attempt %d of %d).%n",
+                        share.index, exitCode, attempt, MAX_ATTEMPTS);
+                    failed.add(share);
+                }
+            }
+            pending = failed;
+        }
+        if (!pending.isEmpty()) {
+            throw new IOException(pending.size() + " of " + shares.size() + " workers failed");
+        }
+        return HistogramShard.merge(shards);
+    }
+
+    /**
+     * Splits the games into one share per worker, each a whole number of
+     * chunks except for the last, with consecutive stream ranges.
+     *
+     * @throws IllegalArgumentException if games is non-positive
+     */
+    List<Share> plan(long games) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("Number of games must be positive");
+        }
+        long chunks = (games + chunkSize - 1) / chunkSize;
+        int shareCount = (int) Math.min(workers, chunks);
+        List<Share> shares = new ArrayList<>();
+        long nextStream = 0;
+        for (int i = 0; i < shareCount; i++) {
+            long shareChunks = chunks / shareCount + (i < chunks % shareCount ? 1 : 0);
+            long shareGames = Math.min(shareChunks * chunkSize, games - nextStream * chunkSize);
+            shares.add(new Share(i, shareGames, nextStream));
+            nextStream += shareChunks;
+        }
+        return shares;
+    }
+
+    private Process start(Share share, int numDice, long seed) throws IOException {
+        List<String> command = new ArrayList<>(workerCommand());
+        command.add(Integer.toString(numDice));
+        command.add(Long.toString(share.games));
+        command.add(Long.toString(seed));
+        command.add(Long.toString(share.firstStream));
+        command.add(Integer.toString(chunkSize));
+        command.add(Integer.toString(threadsPerWorker));
+        command.add(shardFile(share, numDice, seed).toString());
+        return new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    private HistogramShard readIfComplete(Share share, int numDice, long seed) {
+        Path file = shardFile(share, numDice, seed);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            HistogramShard shard = HistogramShard.read(file);
+            boolean matches = shard.numDice() == numDice && shard.seed() == seed
+                && shard.firstStream() == share.firstStream && shard.chunkSize() == chunkSize
+                && shard.games() == share.games;
+            return matches ? shard : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path shardFile(Share share, int numDice, long seed) {
+        return shardDirectory.resolve(String.format("shard-%d-%016x-%d-%d.bin", numDice, seed, chunkSize,
+            share.firstStream));
+    }
+
+    /**
+     * Returns the command that starts a worker JVM: the running JVM's java
+     * launcher with the class path this class was loaded from.
+     */
+    static List<String> workerCommand() {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        CodeSource codeSource = ShardWorker.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null) {
+            try {
+                String ownLocation = Paths.get(codeSource.getLocation().toURI()).toString();
+                classPath = classPath.isEmpty() ? ownLocation : ownLocation + File.pathSeparator + classPath;
+            } catch (URISyntaxException e) {
+                // Fall back to the class path of the running JVM alone.
+            }
+        }
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(ShardWorker.class.getName());
+        return command;
+    }
+
+    /**
+     * One worker's share of the games.
+     */
+    static final class Share {
+        final int index;
+        final long games;
+        final long firstStream;
+
+        Share(int index, long games, long firstStream) {
+            this.index = index;
+            this.games = games;
+            this.firstStream = firstStream;
+        }
+    }
+
+    /**
+     * Main entry point for a sharded simulation.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: total number of games (optional, default: 10000)
+     * - args[2]: number of worker processes (optional, default: 2)
+     * - args[3]: shard directory (optional, default: shards)
+     * - args[4]: seed (optional, default: random)
+     *
+     * Or, to merge shard files produced elsewhere:
+     * - args[0]: "merge", followed by the shard files
+     *
+     * @param args command line arguments for customizing the simulation
+     * @throws IOException if a worker keeps failing or a shard cannot be read
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length >= 1 && "merge".equals(args[0])) {
+            if (args.length < 2) {
+                System.err.println("Usage: ShardCoordinator merge <shard file>...");
+                System.exit(ShardWorker.EXIT_USAGE);
+            }
+            List<HistogramShard> shards = new ArrayList<>();
+            for (int i = 1; i < args.length; i++) {
+                shards.add(HistogramShard.read(Paths.get(args[i])));
+            }
+            long[] histogram = HistogramShard.merge(shards);
+            new SimulationResult("merge", shards.size(), histogram, 0)
+                .writeTable(shards.get(0).numDice(), System.out);
+            return;
+        }
+
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_NUM_DICE;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : DEFAULT_NUM_SIMULATIONS;
+        int workers = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_WORKERS;
+        Path shardDirectory = Paths.get(args.length >= 4 ? args[3] : "shards");
+        long seed = args.length >= 5 ? Long.parseLong(args[4]) : ThreadLocalRandom.current().nextLong();
+        int threadsPerWorker = Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+
+        long start = System.nanoTime();
+        ShardCoordinator coordinator = new ShardCoordinator(workers, threadsPerWorker,
+            ForkJoinSimulator.DEFAULT_CHUNK_SIZE, shardDirectory);
+        long[] histogram = coordinator.run(numDice, games, seed);
+        System.out.printf("Seed %d, %d workers, %d threads per worker.%n", seed, workers, threadsPerWorker);
+        new SimulationResult("sharded", workers * threadsPerWorker, histogram, System.nanoTime() - start)
+            .writeTable(numDice, System.out);
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the ShardCoordinator, ShardWorker and HistogramShard classes.
+ */
+@DisplayName("ShardCoordinator Unit Tests")
+public class ShardCoordinatorTest {
+
+    private static final long SEED = 21L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Shares should cover every game with consecutive stream ranges")
+    void testPlan() {
+        ShardCoordinator coordinator = new ShardCoordinator(3, 1, 100, directory);
+        List<ShardCoordinator.Share> shares = coordinator.plan(1050);
+
+        assertEquals(3, shares.size());
+        assertEquals(400, shares.get(0).games);
+        assertEquals(400, shares.get(1).games);
+        assertEquals(250, shares.get(2).games);
+        assertEquals(0, shares.get(0).firstStream);
+        assertEquals(4, shares.get(1).firstStream);
+        assertEquals(8, shares.get(2).firstStream);
+
+        assertEquals(1, coordinator.plan(50).size());
+        assertEquals(2_000_000_000L, new ShardCoordinator(2, 1, 1000, directory).plan(4_000_000_000L).get(1).games,
+            "Shares may exceed the int range");
+        assertThrows(IllegalArgumentException.class, () -> coordinator.plan(0));
+    }
+
+    @Test
+    @DisplayName("Shards should round-trip through files and reject overlaps")
+    void testShardFiles() throws IOException {
+        HistogramShard first = ShardWorker.play(3, 1000, SEED, 0, 100, 1);
+        HistogramShard second = ShardWorker.play(3, 1000, SEED, 10, 100, 1);
+        Path file = directory.resolve("first.bin");
+        first.write(file);
+
+        HistogramShard read = HistogramShard.read(file);
+        assertArrayEquals(first.histogram(), read.histogram());
+        assertEquals(10, read.streams());
+        assertEquals(1000, read.games());
+
+        long[] expected = new ForkJoinSimulator(2, 100).simulate(() -> new ArrayGameKernel(3), 2000,
+            RandomSource.seeded(SEED));
+        assertArrayEquals(expected, HistogramShard.merge(List.of(second, read)));
+        assertThrows(IllegalArgumentException.class, () -> HistogramShard.merge(List.of(first, first)));
+        assertThrows(IllegalArgumentException.class,
+            () -> HistogramShard.merge(List.of(first, ShardWorker.play(3, 100, SEED + 1, 10, 100, 1))));
+
+        Path large = directory.resolve("large.bin");
+        ShardWorker.play(2000, 100, SEED, 0, 100, 1).write(large);
+        assertTrue(Files.size(large) < 2000, "Only the occurring scores are stored: " + Files.size(large));
+        assertEquals(100, HistogramShard.read(large).games());
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> HistogramShard.read(file));
+    }
+
+    @Test
+    @DisplayName("Worker processes should merge to the single-JVM result and be reused on rerun")
+    void testWorkerProcesses() throws Exception {
+        ShardCoordinator coordinator = new ShardCoordinator(2, 1, 500, directory);
+        long[] sharded = coordinator.run(4, 3300, SEED);
+
+        long[] expected = new ForkJoinSimulator(1, 500).simulate(() -> new ArrayGameKernel(4), 3300,
+            RandomSource.seeded(SEED));
+        assertArrayEquals(expected, sharded);
+        List<Path> shardFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            shardFiles = files.filter(path -> path.toString().endsWith(".bin")).collect(Collectors.toList());
+        }
+        assertEquals(2, shardFiles.size());
+        FileTime written = Files.getLastModifiedTime(shardFiles.get(0));
+
+        assertArrayEquals(expected, coordinator.run(4, 3300, SEED));
+        assertEquals(written, Files.getLastModifiedTime(shardFiles.get(0)), "Completed shards should not be replayed");
+    }
+}
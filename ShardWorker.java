@@ -0,0 +1,74 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * One worker process of a sharded simulation, started by {@link ShardCoordinator}.
+ *
+ * Plays its share of the games with the random streams assigned to it and
+ * writes the resulting {@link HistogramShard} to a file. The worker only
+ * talks to the coordinator through its arguments, the shard file and its exit
+ * status, so it can equally be started by hand or by a job scheduler on
+ * another machine.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class ShardWorker {
+    static final int EXIT_USAGE = 2;
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Plays one share and returns its shard.
+     *
+     * @param numDice the number of dice per game
+     * @param games the number of games in the share
+     * @param seed the seed of the run's random source
+     * @param firstStream the first random stream of the share
+     * @param chunkSize the number of games played per stream
+     * @param threads the number of worker threads
+     * @return the shard
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public static HistogramShard play(int numDice, long games, long seed, long firstStream, int chunkSize,
+            int threads) {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(threads, chunkSize);
+        long[] histogram = simulator.simulate(() -> new ArrayGameKernel(numDice), games, RandomSource.seeded(seed),
+            firstStream);
+        return new HistogramShard(numDice, seed, firstStream, simulator.streamsFor(games), chunkSize, histogram);
+    }
+
+    /**
+     * Main entry point for a worker process.
+     *
+     * Command line arguments (all required):
+     * - args[0]: number of dice
+     * - args[1]: number of games
+     * - args[2]: seed of the run
+     * - args[3]: first random stream
+     * - args[4]: games per stream (chunk size)
+     * - args[5]: number of threads
+     * - args[6]: shard file to write
+     *
+     * @param args command line arguments
+     * @throws IOException if the shard file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 7) {
+            System.err.println("Usage: ShardWorker <numDice> <games> <seed> <firstStream> <chunkSize> <threads>"
+                + " <shardFile>");
+            System.exit(EXIT_USAGE);
+        }
+        int numDice = Integer.parseInt(args[0]);
+        long games = Long.parseLong(args[1]);
+        long seed = Long.parseLong(args[2]);
+        long firstStream = Long.parseLong(args[3]);
+        int chunkSize = Integer.parseInt(args[4]);
+        int threads = Integer.parseInt(args[5]);
+        Path shardFile = Paths.get(args[6]);
+
+        play(numDice, games, seed, firstStream, chunkSize, threads).write(shardFile);
+    }
+}
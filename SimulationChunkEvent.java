@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for every chunk of games a worker plays. It is disabled by
+ * default because a long run plays millions of chunks; enable
+ * {@code dicegame.SimulationChunk} in a recording's settings to see how the
+ * chunks spread over the worker threads.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+@Name("dicegame.SimulationChunk")
+@Label("Simulation Chunk")
+@Category("Dice Game")
+@Description("One chunk of games played by one worker")
+@Enabled(false)
+public class SimulationChunkEvent extends Event {
+    @Label("Games")
+    int games;
+
+    @Label("Rounds")
+    long rounds;
+}
@@ -0,0 +1,295 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A resident simulation server, so that queries stop paying JVM start-up and
+ * JIT warm-up.
+ *
+ * Protocol (HTTP on localhost by default):
+ * - {@code GET /distribution?dice=N&games=M[&seed=S]} runs a job and streams
+ *   one JSON object per line: a progress line after every batch and a final
+ *   line with the whole histogram. The job id is sent in the {@code X-Job-Id}
+ *   header and in every line.
+ * - {@code DELETE /jobs/ID} cancels a running job; it stops after its current
+ *   batch and sends a final line marked cancelled. Closing the connection
+ *   cancels the job as well.
+ * - {@code GET /health} reports the running jobs and the capacity.
+ *
+ * Each request is handled on its own virtual thread when the runtime has
+ * them (Java 21 and later) and on a pooled platform thread otherwise, so
+ * waiting clients cost next to nothing. The games themselves are always
+ * played on one shared, bounded fork-join pool sized to the processors, and
+ * admission control caps the number of concurrent jobs: a request beyond the
+ * cap is refused at once with 503 instead of queueing and oversubscribing
+ * the CPUs.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class SimulationDaemon {
+    public static final int DEFAULT_PORT = 8085;
+    public static final long DEFAULT_MAX_GAMES = 1_000_000_000L;
+    private static final int BATCH_SIZE = StreamingSimulator.DEFAULT_BATCH_SIZE;
+    private static final int MAX_NUM_DICE = 10_000;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ForkJoinPool simulationPool;
+    private final Semaphore admissions;
+    private final int maxJobs;
+    private final long maxGames;
+    private final Map<Long, AtomicBoolean> runningJobs = new ConcurrentHashMap<>();
+    private final AtomicLong nextJobId = new AtomicLong(1);
+
+    /**
+     * Creates a daemon; call {@link #start()} to accept requests.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param threads the number of simulation threads shared by all jobs (must be positive)
+     * @param maxJobs the number of jobs that may run at once (must be positive)
+     * @param maxGames the largest number of games one job may ask for (must be positive)
+     * @throws IllegalArgumentException if a count is non-positive
+     * @throws IOException if the address cannot be bound
+     */
+    public SimulationDaemon(InetSocketAddress address, int threads, int maxJobs, long maxGames) throws IOException {
+        if (threads <= 0 || maxJobs <= 0 || maxGames <= 0) {
+            throw new IllegalArgumentException("Threads, jobs and games must be positive");
+        }
+        this.server = HttpServer.create(address, 0);
+        this.requestExecutor = newRequestExecutor();
+        this.simulationPool = new ForkJoinPool(threads);
+        this.admissions = new Semaphore(maxJobs);
+        this.maxJobs = maxJobs;
+        this.maxGames = maxGames;
+        server.setExecutor(requestExecutor);
+        server.createContext("/distribution", this::handleDistribution);
+        server.createContext("/jobs/", this::handleCancel);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, cancels running jobs and releases the threads.
+     */
+    public void stop() {
+        runningJobs.values().forEach(cancelled -> cancelled.set(true));
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        simulationPool.shutdownNow();
+    }
+
+    /**
+     * @return the port the daemon listens on
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns an executor that starts one virtual thread per task when the
+     * runtime supports it, or a pool of daemon platform threads otherwise.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "daemon-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handleDistribution(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use GET");
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI());
+            int numDice;
+            long games;
+            long seed;
+            try {
+                numDice = Integer.parseInt(query.getOrDefault("dice", "5"));
+                games = Long.parseLong(query.getOrDefault("games", "10000"));
+                seed = query.containsKey("seed") ? Long.parseLong(query.get("seed")) : RandomSource.unseeded().seed();
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "dice, games and seed must be numbers");
+                return;
+            }
+            if (numDice <= 0 || numDice > MAX_NUM_DICE || games <= 0 || games > maxGames) {
+                sendError(exchange, 400, "dice must be 1-" + MAX_NUM_DICE + " and games 1-" + maxGames);
+                return;
+            }
+            if (!admissions.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "All " + maxJobs + " job slots are busy");
+                return;
+            }
+            try {
+                runJob(exchange, numDice, games, seed);
+            } finally {
+                admissions.release();
+            }
+        }
+    }
+
+    private void runJob(HttpExchange exchange, int numDice, long games, long seed) throws IOException {
+        long jobId = nextJobId.getAndIncrement();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        runningJobs.put(jobId, cancelled);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.getResponseHeaders().set("X-Job-Id", Long.toString(jobId));
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            long start = System.nanoTime();
+
+            StreamingSimulator streaming = new StreamingSimulator(
+                new ForkJoinSimulator(simulationPool, ForkJoinSimulator.DEFAULT_CHUNK_SIZE), BATCH_SIZE);
+            SimulationSnapshot result;
+            try {
+                result = streaming.run(() -> new ArrayGameKernel(numDice), RandomSource.seeded(seed), games,
+                    snapshot -> cancelled.get(),
+                    snapshot -> writeLine(out, String.format(Locale.ROOT,
+                        "{\"job\":%d,\"games\":%d,\"mean\":%.6f,\"meanHalfWidth\":%.6f}",
+                        jobId, snapshot.games(), snapshot.mean(), snapshot.meanHalfWidth())));
+            } catch (UncheckedIOException e) {
+                // The client went away; nobody is left to read the result.
+                return;
+            }
+
+            StringBuilder line = new StringBuilder();
+            line.append("{\"job\":").append(jobId)
+                .append(",\"done\":").append(!cancelled.get())
+                .append(",\"cancelled\":").append(cancelled.get())
+                .append(",\"numDice\":").append(numDice)
+                .append(",\"seed\":").append(seed)
+                .append(",\"games\":").append(result.games())
+                .append(",\"elapsedMillis\":").append((System.nanoTime() - start) / NANOS_PER_MILLI)
+                .append(",\"histogram\":[");
+            long[] histogram = result.histogram();
+            for (int score = 0; score < histogram.length; score++) {
+                line.append(score == 0 ? "" : ",").append(histogram[score]);
+            }
+            line.append("]}");
+            writeLine(out, line.toString());
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private void handleCancel(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"DELETE".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use DELETE");
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/jobs/".length());
+            AtomicBoolean cancelled;
+            try {
+                cancelled = runningJobs.get(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                cancelled = null;
+            }
+            if (cancelled == null) {
+                sendError(exchange, 404, "No running job " + id);
+                return;
+            }
+            cancelled.set(true);
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = ("{\"runningJobs\":" + runningJobs.size() + ",\"maxJobs\":" + maxJobs
+                + ",\"threads\":" + simulationPool.getParallelism() + "}\n").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = ("{\"error\":\"" + message.replace("\"", "'") + "\"}\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void writeLine(OutputStream out, String json) {
+        try {
+            out.write((json + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Main entry point for the daemon.
+     *
+     * Command line arguments:
+     * - args[0]: port to listen on (optional, default: 8085)
+     * - args[1]: number of simulation threads (optional, default: available processors)
+     * - args[2]: number of jobs that may run at once (optional, default: 4)
+     *
+     * @param args command line arguments for customizing the daemon
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int maxJobs = args.length >= 3 ? Integer.parseInt(args[2]) : 4;
+
+        SimulationDaemon daemon = new SimulationDaemon(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, maxJobs, DEFAULT_MAX_GAMES);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop));
+        daemon.start();
+        System.out.printf("Simulation daemon listening on port %d with %d threads and %d job slots.%n",
+            daemon.port(), threads, maxJobs);
+    }
+}
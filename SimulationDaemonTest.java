@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the SimulationDaemon class.
+ */
+@DisplayName("SimulationDaemon Unit Tests")
+public class SimulationDaemonTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SimulationDaemon daemon;
+
+    @AfterEach
+    void stopDaemon() {
+        if (daemon != null) {
+            daemon.stop();
+        }
+    }
+
+    private void startDaemon(int maxJobs) throws IOException {
+        daemon = new SimulationDaemon(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, maxJobs,
+            SimulationDaemon.DEFAULT_MAX_GAMES);
+        daemon.start();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + daemon.port() + path))
+            .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long[] histogramOf(String line) {
+        String counts = line.substring(line.indexOf("\"histogram\":[") + 13, line.lastIndexOf(']'));
+        return Arrays.stream(counts.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    @Test
+    @DisplayName("Distribution should stream progress and match a direct seeded run")
+    void testDistribution() throws IOException, InterruptedException {
+        startDaemon(2);
+        int games = 250_000;
+        HttpResponse<String> response = send("GET", "/distribution?dice=4&games=" + games + "&seed=9");
+        assertEquals(200, response.statusCode());
+        List<String> lines = response.body().lines().collect(Collectors.toList());
+        assertEquals(4, lines.size(), "Three progress lines and the final line");
+        String last = lines.get(lines.size() - 1);
+        assertTrue(last.contains("\"done\":true"));
+        assertTrue(last.contains("\"games\":" + games));
+
+        long[] expected = new StreamingSimulator(
+            new ForkJoinSimulator(1, ForkJoinSimulator.DEFAULT_CHUNK_SIZE), StreamingSimulator.DEFAULT_BATCH_SIZE)
+            .run(() -> new ArrayGameKernel(4), RandomSource.seeded(9L), games, snapshot -> false, snapshot -> { })
+            .histogram();
+        assertArrayEquals(expected, histogramOf(last));
+    }
+
+    @Test
+    @DisplayName("A full daemon should refuse jobs, and cancelled jobs should stop early")
+    void testAdmissionAndCancellation() throws IOException, InterruptedException {
+        startDaemon(1);
+        HttpRequest longJob = HttpRequest.newBuilder(URI.create("http://localhost:" + daemon.port()
+            + "/distribution?dice=5&games=" + SimulationDaemon.DEFAULT_MAX_GAMES)).build();
+        HttpResponse<InputStream> running = client.send(longJob, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, running.statusCode());
+        String jobId = running.headers().firstValue("X-Job-Id").orElseThrow();
+
+        try (BufferedReader body = new BufferedReader(
+                new InputStreamReader(running.body(), StandardCharsets.UTF_8))) {
+            assertTrue(body.readLine().contains("\"job\":" + jobId));
+
+            HttpResponse<String> refused = send("GET", "/distribution?dice=5&games=1000");
+            assertEquals(503, refused.statusCode());
+            assertTrue(refused.headers().firstValue("Retry-After").isPresent());
+
+            assertEquals(204, send("DELETE", "/jobs/" + jobId).statusCode());
+            String line;
+            String last = null;
+            while ((line = body.readLine()) != null) {
+                last = line;
+            }
+            assertNotNull(last);
+            assertTrue(last.contains("\"cancelled\":true"));
+            assertTrue(Arrays.stream(histogramOf(last)).sum() < SimulationDaemon.DEFAULT_MAX_GAMES);
+        }
+
+        assertEquals(404, send("DELETE", "/jobs/" + jobId).statusCode());
+        assertEquals(200, send("GET", "/distribution?dice=5&games=1000").statusCode());
+        assertTrue(send("GET", "/health").body().contains("\"runningJobs\":0"));
+    }
+
+    @Test
+    @DisplayName("Bad requests should be rejected")
+    void testValidation() throws IOException, InterruptedException {
+        startDaemon(1);
+        assertEquals(400, send("GET", "/distribution?dice=x").statusCode());
+        assertEquals(400, send("GET", "/distribution?dice=0&games=10").statusCode());
+        assertEquals(400, send("GET", "/distribution?dice=5&games=0").statusCode());
+        assertEquals(405, send("POST", "/distribution").statusCode());
+        assertEquals(404, send("DELETE", "/jobs/42").statusCode());
+        assertThrows(IllegalArgumentException.class, () -> new SimulationDaemon(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, 1, 1));
+    }
+}
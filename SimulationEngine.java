@@ -0,0 +1,53 @@
+import java.util.function.Supplier;
+
+/**
+ * A backend that plays many independent games and counts their scores.
+ *
+ * Every engine splits the games into chunks of a fixed size and plays chunk
+ * {@code c} with stream {@code c} of the {@link RandomSource}, so engines
+ * with the same chunk size produce identical histograms for a seeded source;
+ * they differ only in how the chunks are spread over threads. Use
+ * {@link SimulationEngines} to create one by name.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public interface SimulationEngine {
+
+    /**
+     * Plays the given number of games and returns how often each score occurred.
+     *
+     * @param kernels creates the kernel used by each worker thread
+     * @param numSimulations the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @return the number of games that ended with each score, indexed by score
+     * @throws IllegalArgumentException if numSimulations is non-positive
+     */
+    long[] simulate(Supplier<? extends GameKernel> kernels, long numSimulations, RandomSource randomSource);
+
+    /**
+     * @return the name this engine is selected by
+     */
+    String name();
+
+    /**
+     * @return the number of threads the engine plays games on
+     */
+    int parallelism();
+
+    /**
+     * Plays the given number of games and times the run.
+     *
+     * @param kernels creates the kernel used by each worker thread
+     * @param numSimulations the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @return the histogram together with the engine that produced it and how long it took
+     * @throws IllegalArgumentException if numSimulations is non-positive
+     */
+    default SimulationResult run(Supplier<? extends GameKernel> kernels, long numSimulations,
+            RandomSource randomSource) {
+        long start = System.nanoTime();
+        long[] histogram = simulate(kernels, numSimulations, randomSource);
+        return new SimulationResult(name(), parallelism(), histogram, System.nanoTime() - start);
+    }
+}
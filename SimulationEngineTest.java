@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Paths;
+
+/**
+ * Unit tests for the SimulationEngine backends and the shared command line options.
+ */
+@DisplayName("SimulationEngine Unit Tests")
+public class SimulationEngineTest {
+
+    private static final long SEED = 11L;
+
+    @Test
+    @DisplayName("All engines should give identical histograms for a seeded source")
+    void testEnginesAgree() {
+        int numDice = 5;
+        int games = 30000;
+        long[] expected = new SequentialEngine(1000)
+            .simulate(() -> new ArrayGameKernel(numDice), games, RandomSource.seeded(SEED));
+
+        for (String name : new String[] {SimulationEngines.SEQUENTIAL, SimulationEngines.PARALLEL_STREAM,
+                SimulationEngines.FORK_JOIN}) {
+            SimulationEngine engine = SimulationEngines.byName(name, 3, 1000);
+            SimulationResult result = engine.run(() -> new ArrayGameKernel(numDice), games,
+                RandomSource.seeded(SEED));
+            assertEquals(name, result.engine());
+            assertEquals(games, result.games());
+            assertArrayEquals(expected, result.histogram(), "Engine " + name + " disagrees");
+        }
+    }
+
+    @Test
+    @DisplayName("Results should report engine, threads and games")
+    void testResult() {
+        SimulationResult result = new SimulationResult("forkjoin", 4, new long[] {1, 0, 3}, 2_000_000L);
+        assertEquals(4, result.parallelism());
+        assertEquals(4, result.games());
+        assertEquals(2_000_000L, result.elapsedNanos());
+        assertEquals(1.5, result.snapshot().mean(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Unknown engines and invalid sizes should be rejected")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> SimulationEngines.byName("gpu", 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> SimulationEngines.byName("forkjoin", 0, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SequentialEngine(10).simulate(() -> new ArrayGameKernel(2), 0, RandomSource.seeded(SEED)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DiceGame(5, 10, new SequentialEngine(10), "nosuchkernel"));
+    }
+
+    @Test
+    @DisplayName("Options should mix positional arguments with named options")
+    void testOptions() {
+        SimulationOptions options = SimulationOptions.parse(
+            new String[] {"--engine=parallel-stream", "7", "--threads=3", "500", "--kernel=counting"},
+            SimulationEngines.SEQUENTIAL);
+        assertEquals(7, options.numDice());
+        assertEquals(500, options.numSimulations());
+        assertEquals("parallel-stream", options.engine());
+        assertEquals(3, options.threads());
+        assertEquals("counting", options.kernel());
+        assertNull(options.traceFile());
+        assertTrue(options.newEngine() instanceof ParallelStreamEngine);
+
+        SimulationOptions defaults = SimulationOptions.parse(new String[] {"4", "10", "out.bin"},
+            SimulationEngines.FORK_JOIN);
+        assertEquals(SimulationEngines.FORK_JOIN, defaults.engine());
+        assertEquals(GameKernels.DEFAULT_KERNEL, defaults.kernel());
+        assertEquals(Paths.get("out.bin"), defaults.traceFile());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationOptions.parse(new String[] {"--colour=red"}, SimulationEngines.SEQUENTIAL));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationOptions.parse(new String[] {"--threads=many"}, SimulationEngines.SEQUENTIAL));
+    }
+
+    @Test
+    @DisplayName("Options that a traced, checkpointed or cached run would ignore should be rejected")
+    void testConflictingOptions() {
+        String[][] rejected = {
+            {"5", "10", "out.bin", "--checkpoint=run.ckpt"},
+            {"--checkpoint=run.ckpt", "--cache=cache"},
+            {"5", "10", "out.bin", "--cache=cache"},
+            {"5", "10", "out.bin", "--kernel=counting"},
+            {"--checkpoint=run.ckpt", "--kernel=swar"},
+            {"--cache=cache", "--kernel=array"},
+            {"--cache=cache", "--engine=sequential"},
+            {"--checkpoint=run.ckpt", "--rules=faces=8"},
+        };
+        for (String[] args : rejected) {
+            assertThrows(IllegalArgumentException.class,
+                () -> SimulationOptions.parse(args, SimulationEngines.SEQUENTIAL), String.join(" ", args));
+        }
+        SimulationOptions cached = SimulationOptions.parse(new String[] {"--cache=cache", "--rules=faces=8",
+            "--threads=2"}, SimulationEngines.AUTO);
+        assertEquals(Paths.get("cache"), cached.cacheDirectory());
+        assertEquals(2, cached.threads());
+        assertNotNull(SimulationOptions.parse(new String[] {"--checkpoint=run.ckpt", "--resume"},
+            SimulationEngines.AUTO).checkpointFile());
+    }
+
+    @Test
+    @DisplayName("DiceGame should run on any engine and kernel")
+    void testDiceGameWithEngine() {
+        DiceGame game = new DiceGame(3, 5000, new ParallelStreamEngine(2, 500), "counting");
+        SimulationResult result = game.simulate();
+        assertEquals(5000, result.games());
+        assertEquals(SimulationEngines.PARALLEL_STREAM, result.engine());
+        assertEquals(19, result.histogram().length);
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Creates simulation engines by name and holds the chunk loop they share.
+ *
+ * Known engines:
+ * - "sequential": {@link SequentialEngine}, one thread
+ * - "parallel-stream": {@link ParallelStreamEngine}, a parallel stream over the chunks
+ * - "forkjoin": {@link ForkJoinEngine}, a recursive fork-join task tree
+ * - "auto": {@link PlannedEngine}, one of the above chosen per run by an
+ *   {@link ExecutionPlanner} calibrated on this machine
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class SimulationEngines {
+    public static final String SEQUENTIAL = "sequential";
+    public static final String PARALLEL_STREAM = "parallel-stream";
+    public static final String FORK_JOIN = "forkjoin";
+    public static final String AUTO = "auto";
+
+    private SimulationEngines() {
+    }
+
+    /**
+     * Creates an engine of the named kind.
+     *
+     * @param name the engine name
+     * @param parallelism the number of worker threads (must be positive; ignored by "sequential",
+     *        the most threads "auto" may use)
+     * @param chunkSize the number of games played with each random stream (must be positive;
+     *        "auto" chooses its own)
+     * @return the engine
+     * @throws IllegalArgumentException if the name is unknown or a parameter is non-positive
+     */
+    public static SimulationEngine byName(String name, int parallelism, int chunkSize) {
+        switch (name) {
+            case SEQUENTIAL:
+                return new SequentialEngine(chunkSize);
+            case PARALLEL_STREAM:
+                return new ParallelStreamEngine(parallelism, chunkSize);
+            case FORK_JOIN:
+                return new ForkJoinEngine(parallelism, chunkSize);
+            case AUTO:
+                return new PlannedEngine(new ExecutionPlanner(ExecutionPlanner.defaultCalibrationFile(), parallelism),
+                    null, parallelism);
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+    }
+
+    /**
+     * Returns the number of chunks a run of the given size is split into.
+     *
+     * @throws IllegalArgumentException if numSimulations is non-positive
+     */
+    static long chunkCount(long numSimulations, int chunkSize) {
+        if (numSimulations <= 0) {
+            throw new IllegalArgumentException("Number of simulations must be positive");
+        }
+        return (numSimulations - 1) / chunkSize + 1;
+    }
+
+    /**
+     * Plays one chunk with its own random stream, adding its scores to the
+     * histogram and recording it in metrics unless that is null.
+     */
+    static void playChunk(GameKernel kernel, RandomSource randomSource, long chunk, int chunkSize,
+            long numSimulations, ScoreHistogram histogram, SimulationMetrics.Run metrics) {
+        RandomGenerator random = randomSource.stream(chunk);
+        long firstGame = chunk * chunkSize;
+        int games = (int) Math.min(chunkSize, numSimulations - firstGame);
+        if (metrics != null) {
+            metrics.playChunk(kernel, random, games, histogram);
+            return;
+        }
+        for (int i = 0; i < games; i++) {
+            histogram.increment(kernel.playGame(random));
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+import jdk.jfr.FlightRecorder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Always-on counters for the simulators, published as the JMX MBean
+ * {@value #OBJECT_NAME} and as {@link SimulationRunEvent} and
+ * {@link SimulationChunkEvent} JFR events.
+ *
+ * Workers never touch shared state per game: each chunk counts its games,
+ * rounds and neutral removals in local variables and a per-worker buffer and
+ * adds them to striped {@link LongAdder}s once at the end of the chunk, so the
+ * cost is a handful of adds per few thousand games. Every counter is updated
+ * as chunks finish, so a long run shows its progress; only the run count and
+ * the rates of the last run wait for the run to end. Rounds are only counted
+ * for kernels that report them ({@link TracedGameKernel}); for other kernels
+ * only games and times are recorded.
+ * Setting the system property {@code dicegame.metrics} to {@code false} turns
+ * the instrumentation off.
+ *
+ * Starting the platform MBean server or the JFR event machinery takes
+ * hundreds of milliseconds each, so neither may sit in front of the first
+ * run: the MBean is registered on a background daemon thread, and runs only
+ * create events once a flight recorder has been started.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class SimulationMetrics implements SimulationMetricsMXBean {
+    public static final String OBJECT_NAME = "DiceGame:type=SimulationMetrics";
+    public static final int MAX_TRACKED_ROUNDS = 64;
+    private static final boolean ENABLED = !"false".equals(System.getProperty("dicegame.metrics"));
+    private static final SimulationMetrics GLOBAL = new SimulationMetrics();
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final Thread REGISTRATION = new Thread(SimulationMetrics::register, "simulation-metrics-jmx");
+    private static final ThreadLocal<long[]> ROUND_COUNTS =
+        ThreadLocal.withInitial(() -> new long[MAX_TRACKED_ROUNDS + 1]);
+
+    static {
+        if (ENABLED) {
+            REGISTRATION.setDaemon(true);
+            REGISTRATION.start();
+        }
+    }
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder neutralRemovalRounds = new LongAdder();
+    private final LongAdder mergeNanos = new LongAdder();
+    private final LongAdder[] roundsDistribution = new LongAdder[MAX_TRACKED_ROUNDS + 1];
+    private volatile double lastGamesPerSecond;
+    private volatile double lastRoundsPerSecond;
+    private volatile double lastWorkerImbalance;
+
+    private SimulationMetrics() {
+        for (int i = 0; i < roundsDistribution.length; i++) {
+            roundsDistribution[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return the process-wide metrics
+     */
+    public static SimulationMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Waits until the MBean is registered, or registration has failed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static void awaitRegistration() throws InterruptedException {
+        if (ENABLED) {
+            REGISTRATION.join();
+        }
+    }
+
+    private static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(GLOBAL, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Simulation metrics not registered with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts recording a simulation run.
+     *
+     * @param engine the name of the engine playing the run
+     * @return the run's recorder, or null if instrumentation is turned off
+     */
+    static Run startRun(String engine) {
+        return ENABLED ? new Run(GLOBAL, engine) : null;
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getGames() {
+        return games.sum();
+    }
+
+    @Override
+    public long getRounds() {
+        return rounds.sum();
+    }
+
+    @Override
+    public long getNeutralRemovalRounds() {
+        return neutralRemovalRounds.sum();
+    }
+
+    @Override
+    public long getLowestRemovalRounds() {
+        return rounds.sum() - neutralRemovalRounds.sum();
+    }
+
+    @Override
+    public long[] getRoundsDistribution() {
+        long[] distribution = new long[roundsDistribution.length];
+        for (int i = 0; i < distribution.length; i++) {
+            distribution[i] = roundsDistribution[i].sum();
+        }
+        return distribution;
+    }
+
+    @Override
+    public long getMergeNanos() {
+        return mergeNanos.sum();
+    }
+
+    @Override
+    public double getLastGamesPerSecond() {
+        return lastGamesPerSecond;
+    }
+
+    @Override
+    public double getLastRoundsPerSecond() {
+        return lastRoundsPerSecond;
+    }
+
+    @Override
+    public double getLastWorkerImbalance() {
+        return lastWorkerImbalance;
+    }
+
+    @Override
+    public void reset() {
+        runs.reset();
+        games.reset();
+        rounds.reset();
+        neutralRemovalRounds.reset();
+        mergeNanos.reset();
+        for (LongAdder count : roundsDistribution) {
+            count.reset();
+        }
+        lastGamesPerSecond = 0;
+        lastRoundsPerSecond = 0;
+        lastWorkerImbalance = 0;
+    }
+
+    /**
+     * Records one simulation run. Workers report each chunk they play and
+     * each merge they do, which go to the global counters at once;
+     * {@link #finish()} counts the run, sets the rates and commits its JFR
+     * event.
+     */
+    static final class Run {
+        private final SimulationMetrics metrics;
+        private final SimulationRunEvent event;
+        private final long start = System.nanoTime();
+        private final LongAdder games = new LongAdder();
+        private final LongAdder rounds = new LongAdder();
+        private final LongAdder neutralRemovalRounds = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder mergeNanos = new LongAdder();
+        private final Map<Thread, LongAdder> busyNanos = new ConcurrentHashMap<>();
+
+        Run(SimulationMetrics metrics, String engine) {
+            this.metrics = metrics;
+            // Loading the first event class starts JFR's machinery, which takes
+            // hundreds of milliseconds; without a recorder there is no one to see it.
+            event = FlightRecorder.isInitialized() ? new SimulationRunEvent() : null;
+            if (event != null) {
+                event.engine = engine;
+                event.begin();
+            }
+        }
+
+        /**
+         * Plays a chunk of games into the histogram, counting the rounds if the kernel reports them.
+         */
+        void playChunk(GameKernel kernel, RandomGenerator random, int numGames, ScoreHistogram histogram) {
+            playChunk(kernel, random, numGames, histogram, null, 0);
+        }
+
+        /**
+         * Plays a chunk of games into the histogram and, if a trace is given,
+         * writes every game to it, counting the rounds if the kernel reports them.
+         *
+         * @param trace the trace to write, or null; requires a {@link TracedGameKernel}
+         * @param firstGame the trace index of the chunk's first game
+         */
+        void playChunk(GameKernel kernel, RandomGenerator random, int numGames, ScoreHistogram histogram,
+                TraceWriter trace, long firstGame) {
+            long chunkStart = System.nanoTime();
+            if (!(kernel instanceof TracedGameKernel)) {
+                for (int i = 0; i < numGames; i++) {
+                    histogram.increment(kernel.playGame(random));
+                }
+                chunkPlayed(numGames, 0, chunkStart);
+                return;
+            }
+            TracedGameKernel traced = (TracedGameKernel) kernel;
+            long[] roundCounts = ROUND_COUNTS.get();
+            long chunkRounds = 0;
+            long chunkNeutralRounds = 0;
+            for (int i = 0; i < numGames; i++) {
+                int score = traced.playGame(random);
+                histogram.increment(score);
+                if (trace != null) {
+                    trace.write(firstGame + i, score, traced);
+                }
+                int gameRounds = traced.lastRounds();
+                chunkRounds += gameRounds;
+                chunkNeutralRounds += traced.lastNeutralRounds();
+                roundCounts[Math.min(gameRounds, MAX_TRACKED_ROUNDS)]++;
+            }
+            rounds.add(chunkRounds);
+            neutralRemovalRounds.add(chunkNeutralRounds);
+            metrics.rounds.add(chunkRounds);
+            metrics.neutralRemovalRounds.add(chunkNeutralRounds);
+            for (int i = 0; i < roundCounts.length; i++) {
+                if (roundCounts[i] != 0) {
+                    metrics.roundsDistribution[i].add(roundCounts[i]);
+                    roundCounts[i] = 0;
+                }
+            }
+            chunkPlayed(numGames, chunkRounds, chunkStart);
+        }
+
+        /**
+         * Records a played chunk; the rounds are only reported to JFR.
+         *
+         * @param numGames the games in the chunk
+         * @param chunkRounds the rounds in the chunk, or 0 if they were not counted
+         * @param chunkStart the {@link System#nanoTime()} at which the chunk started
+         */
+        void chunkPlayed(int numGames, long chunkRounds, long chunkStart) {
+            long now = System.nanoTime();
+            games.add(numGames);
+            metrics.games.add(numGames);
+            chunks.increment();
+            busyNanos.computeIfAbsent(Thread.currentThread(), thread -> new LongAdder()).add(now - chunkStart);
+            if (event != null) {
+                SimulationChunkEvent chunkEvent = new SimulationChunkEvent();
+                if (chunkEvent.isEnabled()) {
+                    chunkEvent.games = numGames;
+                    chunkEvent.rounds = chunkRounds;
+                    chunkEvent.commit();
+                }
+            }
+        }
+
+        /**
+         * Records the time a worker spent merging two histograms.
+         */
+        void merged(long nanos) {
+            mergeNanos.add(nanos);
+            metrics.mergeNanos.add(nanos);
+        }
+
+        /**
+         * Counts the run, sets the rates of the last run and commits its JFR event.
+         */
+        void finish() {
+            double seconds = Math.max(System.nanoTime() - start, 1) / NANOS_PER_SECOND;
+            long runGames = games.sum();
+            long runRounds = rounds.sum();
+            long maxBusy = 0;
+            long totalBusy = 0;
+            for (LongAdder worker : busyNanos.values()) {
+                long busy = worker.sum();
+                maxBusy = Math.max(maxBusy, busy);
+                totalBusy += busy;
+            }
+            double imbalance = totalBusy > 0 ? (double) maxBusy * busyNanos.size() / totalBusy : 1;
+
+            metrics.runs.increment();
+            metrics.lastGamesPerSecond = runGames / seconds;
+            metrics.lastRoundsPerSecond = runRounds / seconds;
+            metrics.lastWorkerImbalance = imbalance;
+
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.games = runGames;
+                event.rounds = runRounds;
+                event.neutralRemovalRounds = neutralRemovalRounds.sum();
+                event.chunks = chunks.sum();
+                event.workers = busyNanos.size();
+                event.gamesPerSecond = runGames / seconds;
+                event.workerImbalance = imbalance;
+                event.mergeTime = mergeNanos.sum();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The JMX view of {@link SimulationMetrics}, registered as
+ * {@value SimulationMetrics#OBJECT_NAME}.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * @return the number of simulation runs finished
+     */
+    long getRuns();
+
+    /**
+     * @return the number of games played
+     */
+    long getGames();
+
+    /**
+     * @return the number of rounds played by kernels that report rounds
+     */
+    long getRounds();
+
+    /**
+     * @return the number of rounds that removed the neutral dice
+     */
+    long getNeutralRemovalRounds();
+
+    /**
+     * @return the number of rounds that scored and removed the lowest die
+     */
+    long getLowestRemovalRounds();
+
+    /**
+     * @return the number of games with each number of rounds; the last entry counts all longer games
+     */
+    long[] getRoundsDistribution();
+
+    /**
+     * @return the total time spent merging chunk histograms, in nanoseconds
+     */
+    long getMergeNanos();
+
+    /**
+     * @return the games per second of the last run
+     */
+    double getLastGamesPerSecond();
+
+    /**
+     * @return the rounds per second of the last run
+     */
+    double getLastRoundsPerSecond();
+
+    /**
+     * @return the busiest worker's playing time over the mean worker's in the last run; 1 is perfectly balanced
+     */
+    double getLastWorkerImbalance();
+
+    /**
+     * Sets all counters back to zero.
+     */
+    void reset();
+}
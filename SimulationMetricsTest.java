@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit tests for the SimulationMetrics class.
+ */
+@DisplayName("SimulationMetrics Unit Tests")
+public class SimulationMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Counters should add up the games and rounds of every engine")
+    void testCounters() {
+        SimulationMetrics metrics = SimulationMetrics.global();
+        for (SimulationEngine engine : List.of(new SequentialEngine(1000), new ParallelStreamEngine(2, 1000),
+                new ForkJoinEngine(2, 1000))) {
+            long runs = metrics.getRuns();
+            long games = metrics.getGames();
+            long rounds = metrics.getRounds();
+            long distributed = Arrays.stream(metrics.getRoundsDistribution()).sum();
+
+            engine.simulate(() -> new ArrayGameKernel(1), 10_000, RandomSource.seeded(1L));
+
+            assertEquals(runs + 1, metrics.getRuns(), engine.name());
+            assertEquals(games + 10_000, metrics.getGames(), engine.name());
+            assertEquals(rounds + 10_000, metrics.getRounds(), "One die always takes one round");
+            assertEquals(distributed + 10_000, Arrays.stream(metrics.getRoundsDistribution()).sum());
+            assertEquals(metrics.getRounds(), metrics.getNeutralRemovalRounds() + metrics.getLowestRemovalRounds());
+            assertTrue(metrics.getLastGamesPerSecond() > 0);
+            assertTrue(metrics.getLastWorkerImbalance() >= 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Runs that write a trace should count the rounds they trace")
+    void testTracedRun() throws Exception {
+        SimulationMetrics metrics = SimulationMetrics.global();
+        long games = metrics.getGames();
+        long rounds = metrics.getRounds();
+        long distributed = Arrays.stream(metrics.getRoundsDistribution()).sum();
+        try (TraceWriter trace = TraceWriter.create(directory.resolve("games.trace"), 1, 5000)) {
+            new ForkJoinSimulator(2, 1000).simulate(() -> new ArrayGameKernel(1), 5000, RandomSource.seeded(5L),
+                trace);
+        }
+        assertEquals(games + 5000, metrics.getGames());
+        assertEquals(rounds + 5000, metrics.getRounds(), "One die always takes one round");
+        assertEquals(distributed + 5000, Arrays.stream(metrics.getRoundsDistribution()).sum());
+        assertTrue(metrics.getLastRoundsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Kernels that do not report rounds should still count games")
+    void testUntracedKernel() {
+        SimulationMetrics metrics = SimulationMetrics.global();
+        long games = metrics.getGames();
+        long rounds = metrics.getRounds();
+        new ForkJoinSimulator(2, 1000).simulate(() -> new CountingGameKernel(5), 5000, RandomSource.seeded(2L));
+        assertEquals(games + 5000, metrics.getGames());
+        assertEquals(rounds, metrics.getRounds());
+    }
+
+    @Test
+    @DisplayName("Metrics should be readable through JMX")
+    void testJmx() throws Exception {
+        new ForkJoinSimulator(2, 1000).simulate(() -> new ArrayGameKernel(5), 5000, RandomSource.seeded(3L));
+        SimulationMetrics.awaitRegistration();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SimulationMetrics.OBJECT_NAME);
+        assertEquals(SimulationMetrics.global().getGames(), server.getAttribute(name, "Games"));
+        assertTrue((Long) server.getAttribute(name, "Rounds") > 0);
+        assertEquals(SimulationMetrics.MAX_TRACKED_ROUNDS + 1,
+            ((long[]) server.getAttribute(name, "RoundsDistribution")).length);
+    }
+
+    @Test
+    @DisplayName("Runs and, when enabled, chunks should be recorded as JFR events")
+    void testJfrEvents() throws Exception {
+        Path file = directory.resolve("simulation.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("dicegame.SimulationRun");
+            recording.enable("dicegame.SimulationChunk");
+            recording.start();
+            new ForkJoinSimulator(2, 1000).simulate(() -> new ArrayGameKernel(4), 8000, RandomSource.seeded(4L));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> runs = events.stream()
+            .filter(event -> event.getEventType().getName().equals("dicegame.SimulationRun"))
+            .collect(Collectors.toList());
+        assertEquals(1, runs.size());
+        assertEquals(8000, runs.get(0).getLong("games"));
+        assertEquals(8, runs.get(0).getLong("chunks"));
+        assertEquals(SimulationEngines.FORK_JOIN, runs.get(0).getString("engine"));
+        long chunkGames = events.stream()
+            .filter(event -> event.getEventType().getName().equals("dicegame.SimulationChunk"))
+            .mapToLong(event -> event.getInt("games"))
+            .sum();
+        assertEquals(8000, chunkGames);
+    }
+}
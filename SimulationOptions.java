@@ -0,0 +1,255 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options shared by the {@link DiceGame} and {@link DiceGame2} entry points.
+ *
+ * Positional arguments:
+ * - number of dice (optional, default: 5)
+ * - number of simulations (optional, default: 10000)
+ * - file to write per-game traces to (optional, default: no traces)
+ *
+ * Options, accepted anywhere on the line:
+ * - --engine=NAME: sequential, parallel-stream, forkjoin or auto (see {@link SimulationEngines})
+ * - --threads=N: worker threads for the parallel engines (default: available processors)
+ * - --kernel=NAME: auto, array, counting, vector, swar or alias (see {@link GameKernels})
+ * - --rules=SPEC: a house variant such as faces=8,neutral=3+4,remove=highest,count=2
+ *   (see {@link GameRules}; default: the standard rules)
+ * - --checkpoint=FILE: save the progress to FILE periodically (see {@link CheckpointingSimulator})
+ * - --resume: continue from the checkpoint file instead of starting over
+ * - --cache=DIR: answer from the results cached in DIR, simulating only missing games
+ *   (see {@link ResultCache})
+ *
+ * A trace file, a checkpoint file and a cache directory each select a
+ * different kind of run, so at most one of them may be given. Those runs
+ * always play the array kernel on the fork-join simulator with --threads
+ * workers, so --engine and --kernel are rejected alongside them, as are
+ * --rules for traces and checkpoints, which only cover the standard rules.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class SimulationOptions {
+    static final String USAGE = "Usage: [--engine=sequential|parallel-stream|forkjoin|auto] [--threads=N]"
+        + " [--kernel=auto|array|counting|vector|swar|alias] [--rules=SPEC]"
+        + " [--checkpoint=FILE [--resume]] [--cache=DIR] [numDice] [numSimulations] [traceFile]";
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final long DEFAULT_NUM_SIMULATIONS = 10000;
+
+    private final int numDice;
+    private final long numSimulations;
+    private final String engine;
+    private final int threads;
+    private final String kernel;
+    private final GameRules rules;
+    private final Path traceFile;
+    private final Path checkpointFile;
+    private final boolean resume;
+    private final Path cacheDirectory;
+
+    private SimulationOptions(int numDice, long numSimulations, String engine, int threads, String kernel,
+            GameRules rules, Path traceFile, Path checkpointFile, boolean resume, Path cacheDirectory) {
+        this.numDice = numDice;
+        this.numSimulations = numSimulations;
+        this.engine = engine;
+        this.threads = threads;
+        this.kernel = kernel;
+        this.rules = rules;
+        this.traceFile = traceFile;
+        this.checkpointFile = checkpointFile;
+        this.resume = resume;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Parses the command line.
+     *
+     * @param args the command line arguments
+     * @param defaultEngine the engine used when no --engine option is given
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown or a value is malformed
+     */
+    public static SimulationOptions parse(String[] args, String defaultEngine) {
+        String engine = defaultEngine;
+        boolean engineGiven = false;
+        boolean kernelGiven = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String kernel = GameKernels.DEFAULT_KERNEL;
+        GameRules rules = GameRules.standard();
+        Path checkpointFile = null;
+        boolean resume = false;
+        Path cacheDirectory = null;
+        List<String> positional = new ArrayList<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+            if ("--resume".equals(arg)) {
+                resume = true;
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Option needs a value: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "engine":
+                    engine = value;
+                    engineGiven = true;
+                    break;
+                case "threads":
+                    threads = parseInt(value, arg);
+                    break;
+                case "kernel":
+                    kernel = value;
+                    kernelGiven = true;
+                    break;
+                case "rules":
+                    rules = GameRules.parse(value);
+                    break;
+                case "checkpoint":
+                    checkpointFile = Paths.get(value);
+                    break;
+                case "cache":
+                    cacheDirectory = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (positional.size() > 3) {
+            throw new IllegalArgumentException("Too many arguments");
+        }
+        if (resume && checkpointFile == null) {
+            throw new IllegalArgumentException("--resume needs --checkpoint=FILE");
+        }
+
+        int numDice = positional.size() >= 1 ? parseInt(positional.get(0), "numDice") : DEFAULT_NUM_DICE;
+        long numSimulations = positional.size() >= 2
+            ? parseLong(positional.get(1), "numSimulations") : DEFAULT_NUM_SIMULATIONS;
+        Path traceFile = positional.size() >= 3 ? Paths.get(positional.get(2)) : null;
+        int modes = (traceFile != null ? 1 : 0) + (checkpointFile != null ? 1 : 0) + (cacheDirectory != null ? 1 : 0);
+        if (modes > 1) {
+            throw new IllegalArgumentException("Give at most one of a trace file, --checkpoint and --cache");
+        }
+        if (modes == 1 && (engineGiven || kernelGiven)) {
+            throw new IllegalArgumentException("Traced, checkpointed and cached runs use the fork-join engine"
+                + " and array kernel; drop --engine and --kernel");
+        }
+        if ((traceFile != null || checkpointFile != null) && !rules.isStandard()) {
+            throw new IllegalArgumentException("Traces and checkpoints only cover the standard rules");
+        }
+        return new SimulationOptions(numDice, numSimulations, engine, threads, kernel, rules, traceFile,
+            checkpointFile, resume, cacheDirectory);
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number for " + what + ": " + value, e);
+        }
+    }
+
+    private static long parseLong(String value, String what) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number for " + what + ": " + value, e);
+        }
+    }
+
+    /**
+     * @return the number of dice per game
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * @return the number of games to play
+     */
+    public long numSimulations() {
+        return numSimulations;
+    }
+
+    /**
+     * @return the engine name
+     */
+    public String engine() {
+        return engine;
+    }
+
+    /**
+     * @return the number of worker threads for parallel engines
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * @return the kernel name
+     */
+    public String kernel() {
+        return kernel;
+    }
+
+    /**
+     * @return the rules to simulate
+     */
+    public GameRules rules() {
+        return rules;
+    }
+
+    /**
+     * @return the trace file, or null if no traces are written
+     */
+    public Path traceFile() {
+        return traceFile;
+    }
+
+    /**
+     * @return the checkpoint file, or null if the run is not checkpointed
+     */
+    public Path checkpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * @return true if the run continues from its checkpoint file
+     */
+    public boolean resume() {
+        return resume;
+    }
+
+    /**
+     * @return the result cache directory, or null if results are not cached
+     */
+    public Path cacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Creates the engine the options select. The "auto" engine calibrates
+     * per dice count, kernel and rules.
+     *
+     * @return the engine
+     * @throws IllegalArgumentException if the engine name or thread count is invalid
+     */
+    public SimulationEngine newEngine() {
+        if (SimulationEngines.AUTO.equals(engine)) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Threads must be positive");
+            }
+            return new PlannedEngine(new ExecutionPlanner(ExecutionPlanner.defaultCalibrationFile(), threads),
+                numDice + "-" + kernel + "-" + rules, threads);
+        }
+        return SimulationEngines.byName(engine, threads, ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.PrintStream;
+
+/**
+ * The outcome of one simulation run: the score histogram, which engine
+ * produced it and how long the run took. Every {@link SimulationEngine}
+ * returns this same type.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class SimulationResult {
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final String engine;
+    private final int parallelism;
+    private final long[] histogram;
+    private final long games;
+    private final long elapsedNanos;
+
+    /**
+     * Creates a result. The histogram is copied.
+     *
+     * @param engine the name of the engine that ran the simulation
+     * @param parallelism the number of threads the engine used
+     * @param histogram the number of games that ended with each score, indexed by score
+     * @param elapsedNanos the wall-clock duration of the run in nanoseconds
+     */
+    public SimulationResult(String engine, int parallelism, long[] histogram, long elapsedNanos) {
+        this.engine = engine;
+        this.parallelism = parallelism;
+        this.histogram = histogram.clone();
+        long count = 0;
+        for (long frequency : histogram) {
+            count += frequency;
+        }
+        this.games = count;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the name of the engine that ran the simulation
+     */
+    public String engine() {
+        return engine;
+    }
+
+    /**
+     * @return the number of threads the engine used
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return a copy of the score histogram
+     */
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * @return the number of games played
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * @return the wall-clock duration of the run in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the summary statistics of the histogram
+     */
+    public SimulationSnapshot snapshot() {
+        return new SimulationSnapshot(histogram);
+    }
+
+    /**
+     * Prints the result in the simulator's usual table format.
+     *
+     * @param numDice the number of dice per game, for the header line
+     * @param out where to write
+     */
+    public void writeTable(int numDice, PrintStream out) {
+        out.println("Number of simulations was " + games + " using " + numDice + " dice.");
+
+        for (int score = 0; score < histogram.length; score++) {
+            long count = histogram[score];
+            if (count > 0) {
+                double percentage = (double) count * PERCENTAGE_MULTIPLIER / games;
+                out.printf("Total %d occurs %.2f%% occurred %.1f times.%n",
+                    score, percentage, (double) count);
+            }
+        }
+
+        out.printf("Total simulation took %d milliseconds.%n", elapsedNanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,48 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event committed at the end of every instrumented simulation run; its
+ * duration is the run's wall-clock time.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+@Name("dicegame.SimulationRun")
+@Label("Simulation Run")
+@Category("Dice Game")
+@Description("One simulation run with its throughput and load balance")
+public class SimulationRunEvent extends Event {
+    @Label("Engine")
+    String engine;
+
+    @Label("Games")
+    long games;
+
+    @Label("Rounds")
+    long rounds;
+
+    @Label("Neutral Removal Rounds")
+    long neutralRemovalRounds;
+
+    @Label("Chunks")
+    long chunks;
+
+    @Label("Workers")
+    int workers;
+
+    @Label("Games per Second")
+    double gamesPerSecond;
+
+    @Label("Worker Imbalance")
+    @Description("Busiest worker's playing time over the mean worker's")
+    double workerImbalance;
+
+    @Label("Merge Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mergeTime;
+}
@@ -0,0 +1,134 @@
+/**
+ * An immutable view of a simulation in progress: the score histogram so far
+ * together with the summary statistics derived from it.
+ *
+ * All confidence intervals are two-sided at the 95% level. The interval for
+ * the mean uses the normal approximation; the intervals for the individual
+ * score probabilities use the Wilson score interval, which stays sensible for
+ * the rare scores whose counts are still close to zero.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class SimulationSnapshot {
+    /** The 97.5th percentile of the standard normal distribution. */
+    public static final double Z_95 = 1.959963984540054;
+
+    private final long[] histogram;
+    private final long games;
+    private final double mean;
+    private final double variance;
+
+    /**
+     * Creates a snapshot of the given histogram. The histogram is copied.
+     *
+     * @param histogram the number of games that ended with each score, indexed by score
+     */
+    public SimulationSnapshot(long[] histogram) {
+        this.histogram = histogram.clone();
+        long count = 0;
+        double sum = 0;
+        for (int score = 0; score < histogram.length; score++) {
+            count += histogram[score];
+            sum += (double) score * histogram[score];
+        }
+        this.games = count;
+        this.mean = count > 0 ? sum / count : 0;
+        double squaredDeviations = 0;
+        for (int score = 0; score < histogram.length; score++) {
+            double deviation = score - mean;
+            squaredDeviations += deviation * deviation * histogram[score];
+        }
+        this.variance = count > 1 ? squaredDeviations / (count - 1) : 0;
+    }
+
+    /**
+     * @return a copy of the score histogram
+     */
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * @return the number of games played so far
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * @return the mean score over all games played so far
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * @return the unbiased sample variance of the score
+     */
+    public double variance() {
+        return variance;
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval on the mean score
+     */
+    public double meanHalfWidth() {
+        return games > 0 ? Z_95 * Math.sqrt(variance / games) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param score the score to look up
+     * @return the observed fraction of games that ended with the score
+     */
+    public double probability(int score) {
+        if (games == 0 || score < 0 || score >= histogram.length) {
+            return 0;
+        }
+        return (double) histogram[score] / games;
+    }
+
+    /**
+     * @param score the score to look up
+     * @return the lower end of the 95% Wilson interval for the score's probability
+     */
+    public double lowerBound(int score) {
+        return wilsonCentre(score) - wilsonHalfWidth(score);
+    }
+
+    /**
+     * @param score the score to look up
+     * @return the upper end of the 95% Wilson interval for the score's probability
+     */
+    public double upperBound(int score) {
+        return wilsonCentre(score) + wilsonHalfWidth(score);
+    }
+
+    /**
+     * @return the widest 95% interval half-width over all score probabilities
+     */
+    public double maxBucketHalfWidth() {
+        double widest = 0;
+        for (int score = 0; score < histogram.length; score++) {
+            widest = Math.max(widest, wilsonHalfWidth(score));
+        }
+        return widest;
+    }
+
+    private double wilsonCentre(int score) {
+        if (games == 0) {
+            return 0.5;
+        }
+        double z2 = Z_95 * Z_95;
+        return (probability(score) + z2 / (2 * games)) / (1 + z2 / games);
+    }
+
+    private double wilsonHalfWidth(int score) {
+        if (games == 0) {
+            return 0.5;
+        }
+        double p = probability(score);
+        double z2 = Z_95 * Z_95;
+        return Z_95 / (1 + z2 / games) * Math.sqrt(p * (1 - p) / games + z2 / (4.0 * games * games));
+    }
+}
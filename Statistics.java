@@ -0,0 +1,326 @@
+/**
+ * Goodness-of-fit tests for comparing simulated score histograms with a
+ * reference distribution, given either as probabilities or as the histogram
+ * of a trusted run.
+ *
+ * The Kolmogorov-Smirnov p-values use the asymptotic distribution with
+ * Stephens' small-sample correction. Scores are discrete, which makes those
+ * p-values conservative: a correct engine is rejected less often than the
+ * nominal rate, never more.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class Statistics {
+    /** Bins expecting fewer games than this are pooled with their neighbours. */
+    public static final double MIN_EXPECTED_COUNT = 5;
+    private static final int MAX_ITERATIONS = 1000;
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+    private static final double STEPHENS_OFFSET = 0.12;
+    private static final double STEPHENS_SCALE = 0.11;
+    /** Below this the Kolmogorov tail probability is 1 to double precision. */
+    private static final double MIN_KOLMOGOROV_LAMBDA = 0.2;
+    private static final double LANCZOS_SHIFT = 5.2421875;
+    private static final double LANCZOS_BASE = 0.999999999999997092;
+    private static final double SQRT_TWO_PI = 2.5066282746310005;
+    private static final double[] LANCZOS = {
+        57.1562356658629235, -59.5979603554754912, 14.1360979747417471, -0.491913816097620199,
+        0.339946499848118887e-4, 0.465236289270485756e-4, -0.983744753048795646e-4, 0.158088703224912494e-3,
+        -0.210264441724104883e-3, 0.217439618115212643e-3, -0.164318106536763890e-3, 0.844182239838527433e-4,
+        -0.261908384015814087e-4, 0.368991826595316234e-5};
+
+    private Statistics() {
+    }
+
+    /**
+     * Runs Pearson's chi-squared test of a histogram against expected
+     * probabilities. Adjacent bins are pooled, in score order, until each
+     * expects at least {@value #MIN_EXPECTED_COUNT} games.
+     *
+     * @param observed the number of games that ended with each score
+     * @param probabilities the expected probability of each score
+     * @return the p-value: the chance of a fit at least this bad if the histogram follows the probabilities
+     * @throws IllegalArgumentException if the arrays differ in length or the histogram is empty
+     */
+    public static double chiSquaredPValue(long[] observed, double[] probabilities) {
+        if (observed.length != probabilities.length) {
+            throw new IllegalArgumentException("Histogram has " + observed.length + " bins, expected "
+                + probabilities.length);
+        }
+        long games = total(observed);
+        if (games == 0) {
+            throw new IllegalArgumentException("Histogram is empty");
+        }
+
+        double[] binExpected = new double[observed.length];
+        long[] binObserved = new long[observed.length];
+        int bins = 0;
+        double pooledExpected = 0;
+        long pooledObserved = 0;
+        for (int score = 0; score < observed.length; score++) {
+            pooledExpected += probabilities[score] * games;
+            pooledObserved += observed[score];
+            if (pooledExpected >= MIN_EXPECTED_COUNT) {
+                binExpected[bins] = pooledExpected;
+                binObserved[bins++] = pooledObserved;
+                pooledExpected = 0;
+                pooledObserved = 0;
+            }
+        }
+        if (bins == 0) {
+            return 1;
+        }
+        // A short tail joins the last full bin.
+        binExpected[bins - 1] += pooledExpected;
+        binObserved[bins - 1] += pooledObserved;
+        if (bins < 2) {
+            return 1;
+        }
+
+        double statistic = 0;
+        for (int bin = 0; bin < bins; bin++) {
+            statistic += square(binObserved[bin] - binExpected[bin]) / binExpected[bin];
+        }
+        return chiSquaredSurvival(statistic, bins - 1);
+    }
+
+    /**
+     * Runs Pearson's chi-squared test of homogeneity between two histograms,
+     * such as an engine's run and a trusted reference run. Adjacent bins are
+     * pooled, in score order, until each expects at least
+     * {@value #MIN_EXPECTED_COUNT} games in both histograms.
+     *
+     * @param observed the number of games that ended with each score
+     * @param reference the number of games of the reference run that ended with each score
+     * @return the p-value: the chance of a difference at least this large if both follow one distribution
+     * @throws IllegalArgumentException if the arrays differ in length or either histogram is empty
+     */
+    public static double chiSquaredPValue(long[] observed, long[] reference) {
+        if (observed.length != reference.length) {
+            throw new IllegalArgumentException("Histogram has " + observed.length + " bins, expected "
+                + reference.length);
+        }
+        long games = total(observed);
+        long referenceGames = total(reference);
+        if (games == 0 || referenceGames == 0) {
+            throw new IllegalArgumentException("Histogram is empty");
+        }
+        double smallerShare = (double) Math.min(games, referenceGames) / (games + referenceGames);
+
+        long[] binObserved = new long[observed.length];
+        long[] binReference = new long[observed.length];
+        int bins = 0;
+        long pooledObserved = 0;
+        long pooledReference = 0;
+        for (int score = 0; score < observed.length; score++) {
+            pooledObserved += observed[score];
+            pooledReference += reference[score];
+            if ((pooledObserved + pooledReference) * smallerShare >= MIN_EXPECTED_COUNT) {
+                binObserved[bins] = pooledObserved;
+                binReference[bins++] = pooledReference;
+                pooledObserved = 0;
+                pooledReference = 0;
+            }
+        }
+        if (bins == 0) {
+            return 1;
+        }
+        binObserved[bins - 1] += pooledObserved;
+        binReference[bins - 1] += pooledReference;
+        if (bins < 2) {
+            return 1;
+        }
+
+        double statistic = 0;
+        double observedShare = (double) games / (games + referenceGames);
+        for (int bin = 0; bin < bins; bin++) {
+            double expected = (binObserved[bin] + binReference[bin]) * observedShare;
+            double referenceExpected = binObserved[bin] + binReference[bin] - expected;
+            statistic += square(binObserved[bin] - expected) / expected
+                + square(binReference[bin] - referenceExpected) / referenceExpected;
+        }
+        return chiSquaredSurvival(statistic, bins - 1);
+    }
+
+    /**
+     * Returns the Kolmogorov-Smirnov distance between a histogram and expected
+     * probabilities: the largest gap between their cumulative distributions.
+     *
+     * @param observed the number of games that ended with each score
+     * @param probabilities the expected probability of each score
+     * @return the distance, between 0 and 1
+     * @throws IllegalArgumentException if the arrays differ in length or the histogram is empty
+     */
+    public static double kolmogorovSmirnovStatistic(long[] observed, double[] probabilities) {
+        if (observed.length != probabilities.length) {
+            throw new IllegalArgumentException("Histogram has " + observed.length + " bins, expected "
+                + probabilities.length);
+        }
+        long games = total(observed);
+        if (games == 0) {
+            throw new IllegalArgumentException("Histogram is empty");
+        }
+        double distance = 0;
+        long cumulativeObserved = 0;
+        double cumulativeExpected = 0;
+        for (int score = 0; score < observed.length; score++) {
+            cumulativeObserved += observed[score];
+            cumulativeExpected += probabilities[score];
+            distance = Math.max(distance, Math.abs((double) cumulativeObserved / games - cumulativeExpected));
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the Kolmogorov-Smirnov distance between two histograms.
+     *
+     * @param observed the number of games that ended with each score
+     * @param reference the number of games of the reference run that ended with each score
+     * @return the distance, between 0 and 1
+     * @throws IllegalArgumentException if the arrays differ in length or either histogram is empty
+     */
+    public static double kolmogorovSmirnovStatistic(long[] observed, long[] reference) {
+        long referenceGames = total(reference);
+        if (referenceGames == 0) {
+            throw new IllegalArgumentException("Histogram is empty");
+        }
+        double[] probabilities = new double[reference.length];
+        for (int score = 0; score < reference.length; score++) {
+            probabilities[score] = (double) reference[score] / referenceGames;
+        }
+        return kolmogorovSmirnovStatistic(observed, probabilities);
+    }
+
+    /**
+     * Runs the one-sample Kolmogorov-Smirnov test of a histogram against expected probabilities.
+     *
+     * @param observed the number of games that ended with each score
+     * @param probabilities the expected probability of each score
+     * @return the p-value: the chance of a distance at least this large if the histogram follows the probabilities
+     * @throws IllegalArgumentException if the arrays differ in length or the histogram is empty
+     */
+    public static double kolmogorovSmirnovPValue(long[] observed, double[] probabilities) {
+        double distance = kolmogorovSmirnovStatistic(observed, probabilities);
+        return kolmogorovPValue(distance, total(observed));
+    }
+
+    /**
+     * Runs the two-sample Kolmogorov-Smirnov test between two histograms.
+     *
+     * @param observed the number of games that ended with each score
+     * @param reference the number of games of the reference run that ended with each score
+     * @return the p-value: the chance of a distance at least this large if both follow one distribution
+     * @throws IllegalArgumentException if the arrays differ in length or either histogram is empty
+     */
+    public static double kolmogorovSmirnovPValue(long[] observed, long[] reference) {
+        double distance = kolmogorovSmirnovStatistic(observed, reference);
+        double games = total(observed);
+        double referenceGames = total(reference);
+        return kolmogorovPValue(distance, games * referenceGames / (games + referenceGames));
+    }
+
+    /**
+     * Returns the probability that the Kolmogorov distribution exceeds lambda:
+     * {@code 2 * sum((-1)^(k-1) * exp(-2 k^2 lambda^2))} over k from 1.
+     *
+     * @param lambda the scaled distance
+     * @return the upper tail probability
+     */
+    public static double kolmogorovSurvival(double lambda) {
+        if (lambda < MIN_KOLMOGOROV_LAMBDA) {
+            return 1;
+        }
+        double sum = 0;
+        double sign = 1;
+        for (int k = 1; k < MAX_ITERATIONS; k++) {
+            double term = Math.exp(-2 * square(k * lambda));
+            sum += sign * term;
+            if (term <= EPSILON * sum) {
+                break;
+            }
+            sign = -sign;
+        }
+        return Math.max(0, Math.min(1, 2 * sum));
+    }
+
+    private static double kolmogorovPValue(double distance, double effectiveGames) {
+        double root = Math.sqrt(effectiveGames);
+        return kolmogorovSurvival((root + STEPHENS_OFFSET + STEPHENS_SCALE / root) * distance);
+    }
+
+    /**
+     * Returns the probability that a chi-squared variable exceeds x.
+     *
+     * @param x the statistic
+     * @param degreesOfFreedom the degrees of freedom (must be positive)
+     * @return the upper tail probability
+     */
+    public static double chiSquaredSurvival(double x, int degreesOfFreedom) {
+        if (degreesOfFreedom <= 0) {
+            throw new IllegalArgumentException("Degrees of freedom must be positive");
+        }
+        return x <= 0 ? 1 : regularizedGammaQ(degreesOfFreedom / 2.0, x / 2);
+    }
+
+    /**
+     * The regularized upper incomplete gamma function Q(a, x), by its series
+     * below {@code a + 1} and its continued fraction above.
+     */
+    static double regularizedGammaQ(double a, double x) {
+        double logPrefix = a * Math.log(x) - x - logGamma(a);
+        if (x < a + 1) {
+            double term = 1 / a;
+            double sum = term;
+            for (int n = 1; n < MAX_ITERATIONS && Math.abs(term) > Math.abs(sum) * EPSILON; n++) {
+                term *= x / (a + n);
+                sum += term;
+            }
+            return Math.max(0, 1 - sum * Math.exp(logPrefix));
+        }
+        double b = x + 1 - a;
+        double c = 1 / TINY;
+        double d = 1 / b;
+        double fraction = d;
+        for (int n = 1; n < MAX_ITERATIONS; n++) {
+            double an = -n * (n - a);
+            b += 2;
+            d = an * d + b;
+            d = Math.abs(d) < TINY ? TINY : d;
+            c = b + an / c;
+            c = Math.abs(c) < TINY ? TINY : c;
+            d = 1 / d;
+            double delta = d * c;
+            fraction *= delta;
+            if (Math.abs(delta - 1) < EPSILON) {
+                break;
+            }
+        }
+        return Math.exp(logPrefix) * fraction;
+    }
+
+    /**
+     * The natural logarithm of the gamma function for positive x, by the
+     * 14-term Lanczos approximation, accurate to about 1e-15.
+     */
+    static double logGamma(double x) {
+        double t = x + LANCZOS_SHIFT;
+        double series = LANCZOS_BASE;
+        for (int i = 0; i < LANCZOS.length; i++) {
+            series += LANCZOS[i] / (x + i + 1);
+        }
+        return (x + 0.5) * Math.log(t) - t + Math.log(SQRT_TWO_PI * series / x);
+    }
+
+    private static long total(long[] histogram) {
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Statistics class.
+ */
+@DisplayName("Statistics Unit Tests")
+public class StatisticsTest {
+
+    @Test
+    @DisplayName("Chi-squared tail probabilities should match tabulated values")
+    void testChiSquaredSurvival() {
+        assertEquals(0.05, Statistics.chiSquaredSurvival(3.841459, 1), 1e-6);
+        assertEquals(0.05, Statistics.chiSquaredSurvival(18.307038, 10), 1e-6);
+        assertEquals(0.01, Statistics.chiSquaredSurvival(63.690740, 40), 1e-6);
+        assertEquals(Math.exp(-1), Statistics.chiSquaredSurvival(2, 2), 1e-12);
+        assertEquals(1, Statistics.chiSquaredSurvival(0, 3));
+        assertEquals(Math.log(24), Statistics.logGamma(5), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Chi-squared test should accept fair samples and reject biased ones")
+    void testChiSquaredPValue() {
+        double[] fair = {1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0, 1 / 6.0};
+        assertEquals(1, Statistics.chiSquaredPValue(new long[] {100, 100, 100, 100, 100, 100}, fair), 1e-12);
+        assertTrue(Statistics.chiSquaredPValue(new long[] {130, 100, 100, 100, 100, 70}, fair) < 0.01);
+
+        double[] skewed = {0.5, 0.49, 0.004, 0.003, 0.002, 0.001};
+        assertTrue(Statistics.chiSquaredPValue(new long[] {500, 490, 4, 3, 2, 1}, skewed) > 0.99,
+            "Sparse tail bins are pooled");
+
+        assertThrows(IllegalArgumentException.class, () -> Statistics.chiSquaredPValue(new long[2], fair));
+        assertThrows(IllegalArgumentException.class, () -> Statistics.chiSquaredPValue(new long[6], fair));
+    }
+
+    @Test
+    @DisplayName("Kolmogorov-Smirnov tests should match tabulated values and reject shifted samples")
+    void testKolmogorovSmirnov() {
+        assertEquals(0.05, Statistics.kolmogorovSurvival(1.358099), 1e-5);
+        assertEquals(0.01, Statistics.kolmogorovSurvival(1.627624), 1e-5);
+        assertEquals(1, Statistics.kolmogorovSurvival(0.1));
+
+        double[] fair = {0.25, 0.25, 0.25, 0.25};
+        assertEquals(0.1, Statistics.kolmogorovSmirnovStatistic(new long[] {35, 25, 25, 15}, fair), 1e-12);
+        assertEquals(1, Statistics.kolmogorovSmirnovPValue(new long[] {250, 250, 250, 250}, fair), 1e-12);
+        assertTrue(Statistics.kolmogorovSmirnovPValue(new long[] {300, 270, 230, 200}, fair) < 0.01);
+        assertTrue(Statistics.kolmogorovSmirnovPValue(new long[] {260, 250, 245, 245}, fair) > 0.05);
+
+        long[] reference = {500, 500, 500, 500};
+        assertEquals(0, Statistics.kolmogorovSmirnovStatistic(new long[] {25, 25, 25, 25}, reference));
+        assertTrue(Statistics.kolmogorovSmirnovPValue(new long[] {300, 270, 230, 200}, reference) < 0.05);
+        assertThrows(IllegalArgumentException.class, () -> Statistics.kolmogorovSmirnovPValue(new long[4], fair));
+        assertThrows(IllegalArgumentException.class, () -> Statistics.kolmogorovSmirnovPValue(new long[3], fair));
+    }
+
+    @Test
+    @DisplayName("Two-sample chi-squared test should accept matching runs and reject differing ones")
+    void testTwoSampleChiSquared() {
+        long[] reference = {2000, 2000, 2000, 2000, 2000, 2000};
+        assertEquals(1, Statistics.chiSquaredPValue(new long[] {100, 100, 100, 100, 100, 100}, reference), 1e-12);
+        assertTrue(Statistics.chiSquaredPValue(new long[] {130, 100, 100, 100, 100, 70}, reference) < 0.01);
+        assertTrue(Statistics.chiSquaredPValue(new long[] {500, 490, 4, 3, 2, 1},
+            new long[] {5000, 4900, 40, 30, 20, 10}) > 0.99, "Sparse tail bins are pooled");
+        assertThrows(IllegalArgumentException.class, () -> Statistics.chiSquaredPValue(new long[6], reference));
+        assertThrows(IllegalArgumentException.class, () -> Statistics.chiSquaredPValue(new long[5], reference));
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs a simulation in batches, publishing a {@link SimulationSnapshot} after
+ * each batch and stopping as soon as the results are precise enough.
+ *
+ * Batches are played on one pool for the whole run by
+ * {@link ForkJoinSimulator#batches}, and each one continues with the random
+ * streams where the previous batch stopped, so a run that stops after N games
+ * has exactly the histogram a fixed run of N games with the same seed and
+ * chunk size would have had. The workers play the following batches while the
+ * listener and stop condition look at a snapshot; batches started but not
+ * needed once the run stops are cancelled.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class StreamingSimulator {
+    public static final int DEFAULT_BATCH_SIZE = 100_000;
+    private static final int DEFAULT_NUM_DICE = 5;
+    private static final double DEFAULT_TARGET_HALF_WIDTH = 0.01;
+    private static final long DEFAULT_MAX_GAMES = 1_000_000_000L;
+
+    private final ForkJoinSimulator simulator;
+    private final int batchSize;
+
+    /**
+     * Constructs a streaming simulator with the given batch size.
+     * The batch size is rounded up to a whole number of simulator chunks.
+     *
+     * @param simulator the simulator that plays each batch
+     * @param batchSize the number of games between snapshots (must be positive)
+     * @throws IllegalArgumentException if batchSize is non-positive
+     */
+    public StreamingSimulator(ForkJoinSimulator simulator, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        int chunkSize = simulator.chunkSize();
+        long alignedBatch = ((long) batchSize + chunkSize - 1) / chunkSize * chunkSize;
+        this.simulator = simulator;
+        this.batchSize = (int) Math.min(alignedBatch, Integer.MAX_VALUE / chunkSize * chunkSize);
+    }
+
+    /**
+     * Plays batches until the stop condition holds or maxGames games have been played.
+     *
+     * @param kernels creates the kernel owned by each worker thread
+     * @param randomSource the source of per-chunk random streams
+     * @param maxGames the hard limit on the number of games (must be positive)
+     * @param stopWhen checked after every batch; the run ends once it returns true
+     * @param listener receives the snapshot taken after every batch
+     * @return the final snapshot
+     * @throws IllegalArgumentException if maxGames is non-positive
+     */
+    public SimulationSnapshot run(Supplier<? extends GameKernel> kernels, RandomSource randomSource, long maxGames,
+            Predicate<SimulationSnapshot> stopWhen, Consumer<SimulationSnapshot> listener) {
+        if (maxGames <= 0) {
+            throw new IllegalArgumentException("Maximum number of games must be positive");
+        }
+        ScoreHistogram histogram = new ScoreHistogram();
+        int histogramLength = kernels.get().maxScore() + 1;
+        SimulationSnapshot snapshot;
+
+        try (ForkJoinSimulator.Batches batches = simulator.batches(kernels, maxGames, randomSource, 0, batchSize)) {
+            do {
+                histogram.merge(ScoreHistogram.of(batches.next()));
+                snapshot = new SimulationSnapshot(histogram.toArray(histogramLength));
+                listener.accept(snapshot);
+            } while (batches.hasNext() && !stopWhen.test(snapshot));
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Stops once the 95% confidence interval on the mean is narrower than +/-epsilon.
+     *
+     * @param epsilon the target half-width in points
+     * @return the stop condition
+     */
+    public static Predicate<SimulationSnapshot> meanHalfWidthBelow(double epsilon) {
+        return snapshot -> snapshot.meanHalfWidth() < epsilon;
+    }
+
+    /**
+     * Stops once every score probability is known to within +/-epsilon at 95% confidence.
+     *
+     * @param epsilon the target half-width as a probability
+     * @return the stop condition
+     */
+    public static Predicate<SimulationSnapshot> bucketHalfWidthBelow(double epsilon) {
+        return snapshot -> snapshot.maxBucketHalfWidth() < epsilon;
+    }
+
+    /**
+     * Main entry point for a streaming simulation.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: target 95% half-width on the mean score (optional, default: 0.01)
+     * - args[2]: maximum number of games (optional, default: 1000000000)
+     *
+     * @param args command line arguments for customizing the simulation
+     */
+    public static void main(String[] args) {
+        int numDice = DEFAULT_NUM_DICE;
+        double targetHalfWidth = DEFAULT_TARGET_HALF_WIDTH;
+        long maxGames = DEFAULT_MAX_GAMES;
+
+        if (args.length >= 1) {
+            numDice = Integer.parseInt(args[0]);
+        }
+        if (args.length >= 2) {
+            targetHalfWidth = Double.parseDouble(args[1]);
+        }
+        if (args.length >= 3) {
+            maxGames = Long.parseLong(args[2]);
+        }
+
+        final int dice = numDice;
+        long startTime = System.currentTimeMillis();
+        StreamingSimulator streaming = new StreamingSimulator(new ForkJoinSimulator(), DEFAULT_BATCH_SIZE);
+        SimulationSnapshot result = streaming.run(() -> new ArrayGameKernel(dice), RandomSource.unseeded(),
+            maxGames, meanHalfWidthBelow(targetHalfWidth),
+            snapshot -> System.out.printf("After %d games: mean %.4f +/- %.4f, variance %.4f%n",
+                snapshot.games(), snapshot.mean(), snapshot.meanHalfWidth(), snapshot.variance()));
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.println("Number of simulations was " + result.games() + " using " + numDice + " dice.");
+        long[] histogram = result.histogram();
+        for (int score = 0; score < histogram.length; score++) {
+            if (histogram[score] > 0) {
+                System.out.printf("Total %d occurs %.2f%% (95%% CI %.2f%% - %.2f%%) occurred %.1f times.%n",
+                    score, result.probability(score) * 100, result.lowerBound(score) * 100,
+                    result.upperBound(score) * 100, (double) histogram[score]);
+            }
+        }
+        System.out.printf("Total simulation took %d milliseconds.%n", duration);
+    }
+}
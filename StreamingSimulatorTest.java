@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the StreamingSimulator and SimulationSnapshot classes.
+ */
+@DisplayName("StreamingSimulator Unit Tests")
+public class StreamingSimulatorTest {
+    
+    private static final int TEST_NUM_DICE = 5;
+    private static final long SEED = 31L;
+    
+    @Test
+    @DisplayName("Run should stop early once the mean is precise enough")
+    void testStopsAtTargetPrecision() {
+        StreamingSimulator streaming = new StreamingSimulator(new ForkJoinSimulator(2, 1000), 10000);
+        List<SimulationSnapshot> snapshots = new ArrayList<>();
+        
+        SimulationSnapshot result = streaming.run(() -> new ArrayGameKernel(TEST_NUM_DICE),
+            RandomSource.seeded(SEED), 10_000_000, StreamingSimulator.meanHalfWidthBelow(0.05), snapshots::add);
+        
+        assertTrue(result.meanHalfWidth() < 0.05);
+        assertTrue(result.games() < 10_000_000, "Run should not have used the whole budget");
+        assertEquals(result.games(), snapshots.get(snapshots.size() - 1).games());
+        for (int i = 1; i < snapshots.size(); i++) {
+            assertTrue(snapshots.get(i).games() > snapshots.get(i - 1).games());
+        }
+    }
+    
+    @Test
+    @DisplayName("Batched run should equal a single run of the same size")
+    void testBatchesMatchSingleRun() {
+        ForkJoinSimulator simulator = new ForkJoinSimulator(2, 1000);
+        StreamingSimulator streaming = new StreamingSimulator(simulator, 5000);
+        
+        SimulationSnapshot streamed = streaming.run(() -> new ArrayGameKernel(TEST_NUM_DICE),
+            RandomSource.seeded(SEED), 23500, snapshot -> false, snapshot -> { });
+        long[] single = simulator.simulate(() -> new ArrayGameKernel(TEST_NUM_DICE), 23500,
+            RandomSource.seeded(SEED));
+        
+        assertEquals(23500, streamed.games());
+        assertArrayEquals(single, streamed.histogram());
+    }
+    
+    @Test
+    @DisplayName("Snapshot statistics should match a hand-computed histogram")
+    void testSnapshotStatistics() {
+        // Scores 1, 1, 3, 3: mean 2, sample variance 4/3
+        SimulationSnapshot snapshot = new SimulationSnapshot(new long[] {0, 2, 0, 2});
+        
+        assertEquals(4, snapshot.games());
+        assertEquals(2.0, snapshot.mean(), 1e-12);
+        assertEquals(4.0 / 3, snapshot.variance(), 1e-12);
+        assertEquals(0.5, snapshot.probability(1), 1e-12);
+        assertTrue(snapshot.lowerBound(1) < 0.5 && snapshot.upperBound(1) > 0.5);
+        assertTrue(snapshot.lowerBound(0) >= 0 - 1e-12);
+    }
+    
+    @Test
+    @DisplayName("Constructor should reject non-positive batch sizes")
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingSimulator(new ForkJoinSimulator(), 0));
+    }
+}
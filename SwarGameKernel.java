@@ -0,0 +1,183 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * A game kernel that keeps the whole board in one {@code long}, three bits
+ * per die, and applies the rules with SIMD-within-a-register bit tricks.
+ *
+ * Die i occupies bits {@code 3i..3i+2}, so up to {@value #MAX_DICE} dice fit
+ * in a word. Since every remaining die is re-rolled each round, removing dice
+ * never needs to compact the board: removing all 3s just subtracts their
+ * count from the number of active dice, and removing the lowest die
+ * subtracts one. Each round therefore only has to
+ * - find the lanes equal to 3, by XOR-ing every lane with 3 and detecting
+ *   the lanes that became zero, and
+ * - if there are none, find the lowest face, which without 3s is decided by
+ *   three lane-wise tests of the face's bits.
+ *
+ * Dice are drawn as base-6 digits of 63-bit random words. A word is accepted
+ * when it is below the largest multiple of 6^21 that fits, which happens for
+ * all but about 0.1% of words, and then yields 21 exactly uniform dice; a
+ * word's unused digits carry over to the next round, but not to the next
+ * game, so every game only depends on its own draws from the generator.
+ *
+ * The digit pool and board are per kernel, so a kernel must only be used by
+ * one thread at a time.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class SwarGameKernel implements TracedGameKernel {
+    public static final int MAX_DICE = 21;
+    private static final int LANE_BITS = 3;
+    private static final long DIE_FACES = 6;
+    private static final long NEUTRAL_VALUE = 3;
+    private static final long MIN_DIE_VALUE = 1;
+    private static final int MAX_DIE_VALUE = 6;
+    /** The lowest bit of every lane. */
+    private static final long LANE_LOW_BITS = 0x1249249249249249L;
+    private static final int DIGITS_PER_DRAW = MAX_DICE;
+    private static final long DIGITS_RANGE = pow(DIE_FACES, DIGITS_PER_DRAW);
+    private static final long DRAW_LIMIT = Long.MAX_VALUE / DIGITS_RANGE * DIGITS_RANGE;
+
+    private final int numDice;
+    private long digitPool;
+    private int digitsLeft;
+    private int lastRounds;
+    private int lastNeutralRounds;
+
+    /**
+     * Constructs a kernel for games with the given number of dice.
+     *
+     * @param numDice the number of dice to use in each game (1 to {@value #MAX_DICE})
+     * @throws IllegalArgumentException if numDice is out of range
+     */
+    public SwarGameKernel(int numDice) {
+        if (numDice <= 0 || numDice > MAX_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 1 and " + MAX_DICE);
+        }
+        this.numDice = numDice;
+    }
+
+    @Override
+    public int playGame(RandomGenerator random) {
+        digitsLeft = 0;
+        int activeDice = numDice;
+        int totalScore = 0;
+        int rounds = 0;
+        int neutralRounds = 0;
+
+        while (activeDice > 0) {
+            rounds++;
+            long board = roll(activeDice, random);
+            long lanes = activeLanes(activeDice);
+            int neutralDice = countNeutral(board, lanes);
+            if (neutralDice > 0) {
+                neutralRounds++;
+                activeDice -= neutralDice;
+            } else {
+                totalScore += lowest(board, lanes);
+                activeDice--;
+            }
+        }
+
+        lastRounds = rounds;
+        lastNeutralRounds = neutralRounds;
+        return totalScore;
+    }
+
+    @Override
+    public int maxScore() {
+        return numDice * MAX_DIE_VALUE;
+    }
+
+    @Override
+    public int lastRounds() {
+        return lastRounds;
+    }
+
+    @Override
+    public int lastNeutralRounds() {
+        return lastNeutralRounds;
+    }
+
+    /**
+     * Rolls the given number of dice into the low lanes of a board.
+     */
+    private long roll(int activeDice, RandomGenerator random) {
+        long board = 0;
+        for (int shift = 0; shift < activeDice * LANE_BITS; shift += LANE_BITS) {
+            if (digitsLeft == 0) {
+                long bits;
+                do {
+                    bits = random.nextLong() >>> 1;
+                } while (bits >= DRAW_LIMIT);
+                digitPool = bits;
+                digitsLeft = DIGITS_PER_DRAW;
+            }
+            long rest = digitPool / DIE_FACES;
+            board |= (digitPool - rest * DIE_FACES + MIN_DIE_VALUE) << shift;
+            digitPool = rest;
+            digitsLeft--;
+        }
+        return board;
+    }
+
+    /**
+     * Returns the lowest bit of each of the first activeDice lanes.
+     */
+    static long activeLanes(int activeDice) {
+        return LANE_LOW_BITS >>> (LANE_BITS * (MAX_DICE - activeDice));
+    }
+
+    /**
+     * Counts the dice showing 3. A lane is 3 exactly when XOR-ing it with 3
+     * leaves no bit set.
+     *
+     * @param board the packed dice
+     * @param lanes the lowest bit of every active lane
+     */
+    static int countNeutral(long board, long lanes) {
+        long difference = board ^ (lanes * NEUTRAL_VALUE);
+        long nonZero = difference | (difference >>> 1) | (difference >>> 2);
+        return Long.bitCount(~nonZero & lanes);
+    }
+
+    /**
+     * Returns the lowest face on a board without 3s. Faces 1 and 2 are the
+     * only ones with the high bit clear, 4 is the only one with both low bits
+     * clear, and of 5 and 6 only 5 has the lowest bit set.
+     *
+     * @param board the packed dice, none of them showing 3
+     * @param lanes the lowest bit of every active lane
+     */
+    static int lowest(long board, long lanes) {
+        long middleBits = board >>> 1;
+        long highBits = board >>> 2;
+        if ((~highBits & lanes) != 0) {
+            return (board & ~middleBits & ~highBits & lanes) != 0 ? 1 : 2;
+        }
+        if ((~(board | middleBits) & lanes) != 0) {
+            return 4;
+        }
+        return (board & lanes) != 0 ? 5 : 6;
+    }
+
+    /**
+     * Packs dice values into a board, for tests.
+     */
+    static long pack(int[] dice) {
+        long board = 0;
+        for (int i = 0; i < dice.length; i++) {
+            board |= (long) dice[i] << (LANE_BITS * i);
+        }
+        return board;
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
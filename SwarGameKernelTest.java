@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the SwarGameKernel class.
+ */
+@DisplayName("SwarGameKernel Unit Tests")
+public class SwarGameKernelTest {
+
+    @Test
+    @DisplayName("Lane tests should agree with a plain scan of the dice")
+    void testBoardOperations() {
+        RandomGenerator random = RandomSource.seeded(30L).stream(0);
+        for (int trial = 0; trial < 100_000; trial++) {
+            int activeDice = 1 + random.nextInt(SwarGameKernel.MAX_DICE);
+            int[] dice = new int[activeDice];
+            for (int i = 0; i < activeDice; i++) {
+                dice[i] = 1 + random.nextInt(6);
+            }
+            long board = SwarGameKernel.pack(dice);
+            long lanes = SwarGameKernel.activeLanes(activeDice);
+
+            int threes = (int) Arrays.stream(dice).filter(die -> die == 3).count();
+            assertEquals(threes, SwarGameKernel.countNeutral(board, lanes), Arrays.toString(dice));
+            if (threes == 0) {
+                assertEquals(Arrays.stream(dice).min().getAsInt(), SwarGameKernel.lowest(board, lanes),
+                    Arrays.toString(dice));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Distribution should match the exact solver")
+    void testMatchesExactDistribution() {
+        for (int numDice : new int[] {1, 5, SwarGameKernel.MAX_DICE}) {
+            int games = 200000;
+            double[] expected = new ExactDistributionSolver().distribution(numDice);
+            long[] histogram = new ForkJoinSimulator(2, 10000).simulate(() -> new SwarGameKernel(numDice), games,
+                RandomSource.seeded(31L));
+
+            for (int score = 0; score < expected.length; score++) {
+                double observed = (double) histogram[score] / games;
+                double standardError = Math.sqrt(expected[score] * (1 - expected[score]) / games);
+                assertEquals(expected[score], observed, 5 * standardError + 1e-9,
+                    numDice + " dice, score " + score + " is out of tolerance");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Games should only depend on their own random draws")
+    void testReproducible() {
+        RandomSource source = RandomSource.seeded(32L);
+        SwarGameKernel kernel = new SwarGameKernel(8);
+        for (int stream = 0; stream < 20; stream++) {
+            kernel.playGame(source.stream(100 + stream));
+            assertEquals(new SwarGameKernel(8).playGame(source.stream(stream)),
+                kernel.playGame(source.stream(stream)), "A previous game must not leak into the next");
+        }
+    }
+
+    @Test
+    @DisplayName("Rounds should be reported like the array kernel does")
+    void testRounds() {
+        SwarGameKernel kernel = new SwarGameKernel(1);
+        RandomGenerator random = RandomSource.seeded(33L).stream(0);
+        for (int i = 0; i < 100; i++) {
+            int score = kernel.playGame(random);
+            assertEquals(1, kernel.lastRounds());
+            assertEquals(score == 0 ? 1 : 0, kernel.lastNeutralRounds());
+        }
+        SwarGameKernel larger = new SwarGameKernel(6);
+        for (int i = 0; i < 100; i++) {
+            larger.playGame(random);
+            assertTrue(larger.lastRounds() >= 1 && larger.lastRounds() <= 6 + larger.lastNeutralRounds());
+        }
+    }
+
+    @Test
+    @DisplayName("The default kernel should pick the packed board when the dice fit")
+    void testKernelSelection() {
+        assertEquals("auto", GameKernels.DEFAULT_KERNEL);
+        assertTrue(GameKernels.byName("auto", 5).get() instanceof SwarGameKernel);
+        assertTrue(GameKernels.byName("auto", SwarGameKernel.MAX_DICE).get() instanceof SwarGameKernel);
+        assertTrue(GameKernels.byName("auto", SwarGameKernel.MAX_DICE + 1).get() instanceof ArrayGameKernel);
+        assertTrue(GameKernels.byName("swar", 100).get() instanceof ArrayGameKernel);
+        assertThrows(IllegalArgumentException.class, () -> new SwarGameKernel(0));
+        assertThrows(IllegalArgumentException.class, () -> new SwarGameKernel(SwarGameKernel.MAX_DICE + 1));
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Simulates many dice counts in one JVM on a single shared worker pool.
+ *
+ * Every configuration becomes one fork-join task tree on the same pool and
+ * all trees are submitted together, most expensive first, ordered by games
+ * times the dice a game rolls. Every round removes at least one die and, on
+ * average, the sixth of the dice that come up 3, so a game rolls about
+ * {@code n (n + 1) / 2} dice for a handful of dice but only about {@code 6n}
+ * for many: the cost grows linearly with {@code n}, not quadratically. Work
+ * stealing then spreads the chunks of the large configurations over the
+ * threads that finish the small ones early. JIT warm-up and pool start-up
+ * are paid once for the sweep.
+ *
+ * Every configuration plays the default kernel,
+ * {@value GameKernels#DEFAULT_KERNEL}, as a single run of its dice count
+ * would. The whole sweep is recorded as one run in the global
+ * {@link SimulationMetrics}, like any other fork-join simulation, and the
+ * run is finished even if a configuration fails.
+ *
+ * Each configuration draws from its own range of random streams, so a seeded
+ * sweep is reproducible.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class SweepRunner {
+    private static final long DEFAULT_NUM_SIMULATIONS = 10000;
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Constructs a sweep runner.
+     *
+     * @param parallelism the number of worker threads shared by all configurations (must be positive)
+     * @param chunkSize the number of games each leaf task plays (must be positive)
+     * @throws IllegalArgumentException if either parameter is non-positive
+     */
+    public SweepRunner(int parallelism, int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Simulates every dice count with its own budget.
+     *
+     * @param diceCounts the dice counts to simulate (each must be positive and appear once)
+     * @param budgets the number of games per dice count, either one value for all or one per count
+     * @param randomSource the source of random streams for the whole sweep
+     * @return the histogram of each dice count, in the order the counts were given
+     * @throws IllegalArgumentException if the arrays are empty, mismatched or contain invalid values
+     */
+    public Map<Integer, long[]> run(int[] diceCounts, long[] budgets, RandomSource randomSource) {
+        if (diceCounts.length == 0 || (budgets.length != 1 && budgets.length != diceCounts.length)) {
+            throw new IllegalArgumentException("Need one budget, or one budget per dice count");
+        }
+        if (Arrays.stream(diceCounts).distinct().count() != diceCounts.length) {
+            throw new IllegalArgumentException("Dice counts must not repeat");
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        SimulationMetrics.Run metrics = SimulationMetrics.startRun(SimulationEngines.FORK_JOIN);
+        try {
+            ForkJoinSimulator simulator = new ForkJoinSimulator(pool, chunkSize);
+            List<SweepTask> tasks = new ArrayList<>();
+            long nextStream = 0;
+            for (int i = 0; i < diceCounts.length; i++) {
+                int numDice = diceCounts[i];
+                long games = budgets.length == 1 ? budgets[0] : budgets[i];
+                Supplier<GameKernel> kernels = GameKernels.byName(GameKernels.DEFAULT_KERNEL, numDice);
+                ForkJoinTask<long[]> task = simulator.newTask(kernels, games, randomSource, nextStream, metrics);
+                tasks.add(new SweepTask(numDice, games, task));
+                nextStream += simulator.streamsFor(games);
+            }
+
+            List<SweepTask> byCost = new ArrayList<>(tasks);
+            byCost.sort(Comparator.comparingDouble(SweepTask::estimatedCost).reversed());
+            for (SweepTask task : byCost) {
+                pool.execute(task.task);
+            }
+
+            Map<Integer, long[]> results = new LinkedHashMap<>();
+            for (SweepTask task : tasks) {
+                results.put(task.numDice, task.task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+            if (metrics != null) {
+                metrics.finish();
+            }
+        }
+    }
+
+    /**
+     * Writes the results as CSV with one row per dice count and score.
+     *
+     * @param results the histograms returned by {@link #run(int[], long[], RandomSource)}
+     * @param out where to write
+     */
+    public static void writeCsv(Map<Integer, long[]> results, PrintStream out) {
+        out.println("numDice,games,score,count,probability");
+        for (Map.Entry<Integer, long[]> entry : results.entrySet()) {
+            long[] histogram = entry.getValue();
+            long games = Arrays.stream(histogram).sum();
+            for (int score = 0; score < histogram.length; score++) {
+                if (histogram[score] > 0) {
+                    out.printf("%d,%d,%d,%d,%.8f%n", entry.getKey(), games, score, histogram[score],
+                        (double) histogram[score] / games);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the results as one table per dice count in the simulator's usual format.
+     *
+     * @param results the histograms returned by {@link #run(int[], long[], RandomSource)}
+     * @param out where to write
+     */
+    public static void writeTable(Map<Integer, long[]> results, PrintStream out) {
+        for (Map.Entry<Integer, long[]> entry : results.entrySet()) {
+            long[] histogram = entry.getValue();
+            long games = Arrays.stream(histogram).sum();
+            out.println("Number of simulations was " + games + " using " + entry.getKey() + " dice.");
+            for (int score = 0; score < histogram.length; score++) {
+                if (histogram[score] > 0) {
+                    double percentage = (double) histogram[score] * PERCENTAGE_MULTIPLIER / games;
+                    out.printf("Total %d occurs %.2f%% occurred %.1f times.%n",
+                        score, percentage, (double) histogram[score]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a list of values such as {@code 1..50}, {@code 3,5,10} or {@code 1..5,10,20}.
+     *
+     * @param spec the list to parse
+     * @return the values in the order given
+     * @throws IllegalArgumentException if the list is malformed
+     */
+    static int[] parseList(String spec) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String item = part.trim();
+            int range = item.indexOf("..");
+            try {
+                if (range >= 0) {
+                    int from = Integer.parseInt(item.substring(0, range).trim());
+                    int to = Integer.parseInt(item.substring(range + 2).trim());
+                    if (from > to) {
+                        throw new IllegalArgumentException("Empty range: " + item);
+                    }
+                    for (int value = from; value <= to; value++) {
+                        values.add(value);
+                    }
+                } else {
+                    values.add(Integer.parseInt(item));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number or range: " + item, e);
+            }
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Parses a comma-separated list of game budgets such as {@code 10000} or {@code 5000000000,1000}.
+     *
+     * @param spec the list to parse
+     * @return the values in the order given
+     * @throws IllegalArgumentException if the list is malformed
+     */
+    static long[] parseBudgets(String spec) {
+        String[] parts = spec.split(",");
+        long[] values = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                values[i] = Long.parseLong(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + parts[i].trim(), e);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * One configuration of a sweep together with its simulation task.
+     */
+    private static final class SweepTask {
+        final int numDice;
+        final long games;
+        final ForkJoinTask<long[]> task;
+
+        SweepTask(int numDice, long games, ForkJoinTask<long[]> task) {
+            this.numDice = numDice;
+            this.games = games;
+            this.task = task;
+        }
+
+        /**
+         * Relative cost of the configuration, used to submit the largest first.
+         */
+        double estimatedCost() {
+            return games * expectedDiceRolled(numDice);
+        }
+    }
+
+    /**
+     * Estimates the dice a game rolls by letting each round remove a sixth
+     * of the active dice, but at least one.
+     */
+    static double expectedDiceRolled(int numDice) {
+        double rolled = 0;
+        for (double active = numDice; active > 0; active -= Math.max(1, active / 6)) {
+            rolled += active;
+        }
+        return rolled;
+    }
+
+    /**
+     * Main entry point for a sweep.
+     *
+     * Command line arguments:
+     * - args[0]: dice counts, e.g. 1..50 or 3,5,10 (required)
+     * - args[1]: games, one value for all or a comma-separated list per dice count (optional, default: 10000)
+     * - args[2]: output, "table", "csv" or a file name to write CSV to (optional, default: table)
+     * - args[3]: number of worker threads (optional, default: available processors)
+     *
+     * @param args command line arguments for customizing the sweep
+     * @throws FileNotFoundException if the CSV file cannot be created
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        if (args.length < 1) {
+            System.err.println("Usage: SweepRunner <dice counts> [games] [table|csv|<file.csv>] [threads]");
+            System.exit(2);
+        }
+        int[] diceCounts = parseList(args[0]);
+        long[] budgets = args.length >= 2 ? parseBudgets(args[1]) : new long[] {DEFAULT_NUM_SIMULATIONS};
+        String output = args.length >= 3 ? args[2] : "table";
+        int threads = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long startTime = System.currentTimeMillis();
+        SweepRunner runner = new SweepRunner(threads, ForkJoinSimulator.DEFAULT_CHUNK_SIZE);
+        Map<Integer, long[]> results = runner.run(diceCounts, budgets, RandomSource.unseeded());
+        long duration = System.currentTimeMillis() - startTime;
+
+        if ("table".equals(output)) {
+            writeTable(results, System.out);
+        } else if ("csv".equals(output)) {
+            writeCsv(results, System.out);
+        } else {
+            try (PrintStream file = new PrintStream(output)) {
+                writeCsv(results, file);
+            }
+        }
+        System.err.printf("Sweep of %d configurations took %d milliseconds.%n", results.size(), duration);
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Unit tests for the SweepRunner class.
+ */
+@DisplayName("SweepRunner Unit Tests")
+public class SweepRunnerTest {
+    
+    private static final long SEED = 55L;
+    
+    @Test
+    @DisplayName("Sweep should simulate every dice count with its own budget")
+    void testPerConfigBudgets() {
+        SweepRunner runner = new SweepRunner(3, 500);
+        Map<Integer, long[]> results = runner.run(new int[] {1, 4, 12}, new long[] {1000, 2000, 3000},
+            RandomSource.seeded(SEED));
+        
+        assertArrayEquals(new Integer[] {1, 4, 12}, results.keySet().toArray(new Integer[0]));
+        assertEquals(1000, Arrays.stream(results.get(1)).sum());
+        assertEquals(2000, Arrays.stream(results.get(4)).sum());
+        assertEquals(3000, Arrays.stream(results.get(12)).sum());
+        assertEquals(12 * 6 + 1, results.get(12).length);
+    }
+    
+    @Test
+    @DisplayName("Seeded sweep should be reproducible for any thread count")
+    void testReproducible() {
+        int[] dice = SweepRunner.parseList("2..6");
+        Map<Integer, long[]> single = new SweepRunner(1, 500).run(dice, new long[] {5000}, RandomSource.seeded(SEED));
+        Map<Integer, long[]> multi = new SweepRunner(4, 500).run(dice, new long[] {5000}, RandomSource.seeded(SEED));
+        
+        for (int numDice : dice) {
+            assertArrayEquals(single.get(numDice), multi.get(numDice), "Dice count " + numDice);
+        }
+    }
+    
+    @Test
+    @DisplayName("Cost estimates should grow linearly with the dice and record the sweep as one run")
+    void testCostAndMetrics() {
+        for (int n = 1; n <= 6; n++) {
+            assertEquals(n * (n + 1) / 2, SweepRunner.expectedDiceRolled(n), 1e-9, "Each round removes one die");
+        }
+        double perDie = SweepRunner.expectedDiceRolled(10_000) / 10_000;
+        assertEquals(perDie, SweepRunner.expectedDiceRolled(20_000) / 20_000, 0.05 * perDie);
+        assertTrue(perDie < 10, "About six dice rolled per die, not n / 2: " + perDie);
+
+        SimulationMetrics metrics = SimulationMetrics.global();
+        long runs = metrics.getRuns();
+        long games = metrics.getGames();
+        new SweepRunner(2, 500).run(new int[] {1, 3}, new long[] {1000, 2000}, RandomSource.seeded(SEED));
+        assertEquals(runs + 1, metrics.getRuns());
+        assertEquals(games + 3000, metrics.getGames());
+    }
+    
+    @Test
+    @DisplayName("List specs should accept ranges and single values")
+    void testParseList() {
+        assertArrayEquals(new int[] {1, 2, 3, 10, 20}, SweepRunner.parseList("1..3,10, 20"));
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseList("5..1"));
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseList("a"));
+        assertArrayEquals(new long[] {5_000_000_000L, 10}, SweepRunner.parseBudgets("5000000000, 10"));
+        assertThrows(IllegalArgumentException.class, () -> SweepRunner.parseBudgets("1..3"));
+    }
+    
+    @Test
+    @DisplayName("Mismatched budgets and repeated dice counts should be rejected")
+    void testInvalidArguments() {
+        SweepRunner runner = new SweepRunner(1, 100);
+        assertThrows(IllegalArgumentException.class,
+            () -> runner.run(new int[] {1, 2, 3}, new long[] {10, 20}, RandomSource.seeded(SEED)));
+        assertThrows(IllegalArgumentException.class,
+            () -> runner.run(new int[] {2, 2}, new long[] {10}, RandomSource.seeded(SEED)));
+    }
+    
+    @Test
+    @DisplayName("CSV output should have a header and one row per observed score")
+    void testWriteCsv() {
+        Map<Integer, long[]> results = new SweepRunner(1, 100).run(new int[] {1}, new long[] {600},
+            RandomSource.seeded(SEED));
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        SweepRunner.writeCsv(results, new PrintStream(buffer));
+        
+        String[] lines = buffer.toString().trim().split("\\R");
+        assertEquals("numDice,games,score,count,probability", lines[0]);
+        assertEquals(Arrays.stream(results.get(1)).filter(count -> count > 0).count() + 1, lines.length);
+        assertTrue(lines[1].startsWith("1,600,"));
+    }
+}
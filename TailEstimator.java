@@ -0,0 +1,473 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Estimates the score distribution with variance reduction, so that rare
+ * high scores are measured with far fewer games than plain simulation needs.
+ *
+ * Games are played round by round from the exact round outcome
+ * probabilities (see {@link CountingGameKernel}): {@code k} dice showing 3,
+ * or no 3s and lowest face 1, 2, 4, 5 or 6. Three techniques can be used:
+ * - Importance sampling: each round is drawn from the outcome distribution
+ *   exponentially tilted by {@code exp(tilt * points)}, which makes rounds
+ *   without 3s and with high lowest faces - the ones every high score needs -
+ *   common. Each game is weighted by its likelihood ratio, the product of
+ *   {@code p / q} over its rounds, which keeps every estimate unbiased. A tilt
+ *   of 0 is plain simulation; {@link #tiltFor(int, double)} picks the tilt
+ *   that centres the games on a target score.
+ * - Antithetic pairs: the second game of a pair replays the first game's
+ *   uniforms as {@code 1 - u}. Outcomes are ordered from worst to best, so the
+ *   two games are negatively correlated.
+ * - Stratification on the first round's outcome: each outcome is a stratum
+ *   whose probability is known exactly, games are allocated to the strata in
+ *   proportion to how often the (tilted) sampler would reach them, and the
+ *   stratum estimates are combined with their exact probabilities.
+ *
+ * Chunk {@code c} of the games draws from stream {@code c} of the random
+ * source and the chunk results are combined in chunk order, so estimates only
+ * depend on the seed and the chunk size.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class TailEstimator {
+    /**
+     * How games are drawn.
+     */
+    public enum Method {
+        /** Independent games. */
+        SIMPLE,
+        /** Pairs of games with mirrored uniforms. */
+        ANTITHETIC,
+        /** Games stratified on the outcome of the first round. */
+        STRATIFIED
+    }
+
+    /**
+     * Per-score probability estimates with their standard errors.
+     */
+    public static final class Estimate {
+        private final double[] probabilities;
+        private final double[] standardErrors;
+        private final long games;
+
+        Estimate(double[] probabilities, double[] standardErrors, long games) {
+            this.probabilities = probabilities;
+            this.standardErrors = standardErrors;
+            this.games = games;
+        }
+
+        /**
+         * @return the number of games played
+         */
+        public long games() {
+            return games;
+        }
+
+        /**
+         * @return the number of score buckets
+         */
+        public int buckets() {
+            return probabilities.length;
+        }
+
+        /**
+         * @param score the score
+         * @return the estimated probability of the score
+         */
+        public double probability(int score) {
+            return probabilities[score];
+        }
+
+        /**
+         * @param score the score
+         * @return the standard error of the estimate
+         */
+        public double standardError(int score) {
+            return standardErrors[score];
+        }
+
+        /**
+         * @param score the lowest score
+         * @return the estimated probability of scoring at least the given score
+         */
+        public double tailProbability(int score) {
+            double total = 0;
+            for (int i = Math.max(0, score); i < probabilities.length; i++) {
+                total += probabilities[i];
+            }
+            return total;
+        }
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    private static final int[] SCORING_FACES = {1, 2, 4, 5, 6};
+    private static final int MAX_DIE_VALUE = 6;
+    private static final double MAX_TILT = 20;
+    private static final int TILT_ITERATIONS = 100;
+    private static final int MIN_STRATUM_GAMES = 2;
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+
+    private final int numDice;
+    private final double tilt;
+    private final Method method;
+    private final int parallelism;
+    private final int chunkSize;
+    /** Round outcome probabilities, tilted cumulative probabilities and log likelihood ratios, by board size. */
+    private final double[][] probabilities;
+    private final double[][] cumulative;
+    private final double[][] logRatios;
+
+    /**
+     * Constructs an estimator.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param tilt the importance sampling tilt; 0 samples the true distribution (must be between 0 and 20)
+     * @param method how games are drawn
+     * @param parallelism the number of worker threads (must be positive)
+     * @param chunkSize the number of games per random stream (must be positive)
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public TailEstimator(int numDice, double tilt, Method method, int parallelism, int chunkSize) {
+        if (numDice <= 0 || parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Number of dice, parallelism and chunk size must be positive");
+        }
+        if (!(tilt >= 0 && tilt <= MAX_TILT) || method == null) {
+            throw new IllegalArgumentException("Tilt must be between 0 and " + MAX_TILT + " and method set");
+        }
+        this.numDice = numDice;
+        this.tilt = tilt;
+        this.method = method;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.probabilities = new double[numDice + 1][];
+        this.cumulative = new double[numDice + 1][];
+        this.logRatios = new double[numDice + 1][];
+        for (int n = 1; n <= numDice; n++) {
+            probabilities[n] = outcomeProbabilities(n);
+            double[] tilted = tilted(probabilities[n], n, tilt);
+            cumulative[n] = new double[tilted.length];
+            logRatios[n] = new double[tilted.length];
+            double total = 0;
+            for (int outcome = 0; outcome < tilted.length; outcome++) {
+                total += tilted[outcome];
+                cumulative[n][outcome] = total;
+                // Outcomes too unlikely for a double are never drawn and need no weight.
+                logRatios[n][outcome] = tilted[outcome] > 0 ? Math.log(probabilities[n][outcome] / tilted[outcome])
+                    : 0;
+            }
+        }
+    }
+
+    /**
+     * Estimates the probability of every score.
+     *
+     * @param games the number of games to play (must be positive)
+     * @param randomSource the source of per-chunk random streams
+     * @return the estimates with their standard errors
+     * @throws IllegalArgumentException if games is non-positive
+     */
+    public Estimate estimate(long games, RandomSource randomSource) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("Number of games must be positive");
+        }
+        int strata = method == Method.STRATIFIED ? numDice + SCORING_FACES.length : 1;
+        long[] stratumGames = allocate(games, strata);
+
+        List<long[]> chunks = new ArrayList<>();
+        long stream = 0;
+        for (int stratum = 0; stratum < strata; stratum++) {
+            for (long done = 0; done < stratumGames[stratum]; done += chunkSize) {
+                chunks.add(new long[] {stratum, Math.min(chunkSize, stratumGames[stratum] - done), stream++});
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<WeightedHistogram> results;
+        try {
+            results = pool.submit(() -> chunks.parallelStream()
+                .map(chunk -> playChunk(method == Method.STRATIFIED ? (int) chunk[0] : -1, (int) chunk[1],
+                    randomSource.stream(chunk[2])))
+                .collect(Collectors.toList()))
+                .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        WeightedHistogram[] byStratum = new WeightedHistogram[strata];
+        for (int i = 0; i < chunks.size(); i++) {
+            int stratum = (int) chunks.get(i)[0];
+            if (byStratum[stratum] == null) {
+                byStratum[stratum] = results.get(i);
+            } else {
+                byStratum[stratum].merge(results.get(i));
+            }
+        }
+
+        int buckets = numDice * MAX_DIE_VALUE + 1;
+        double[] estimates = new double[buckets];
+        double[] variances = new double[buckets];
+        for (int stratum = 0; stratum < strata; stratum++) {
+            double stratumProbability = method == Method.STRATIFIED ? probabilities[numDice][stratum] : 1;
+            WeightedHistogram histogram = byStratum[stratum];
+            for (int score = 0; score < buckets; score++) {
+                double error = histogram.standardError(score);
+                estimates[score] += stratumProbability * histogram.probability(score);
+                variances[score] += stratumProbability * stratumProbability * error * error;
+            }
+        }
+        double[] standardErrors = new double[buckets];
+        for (int score = 0; score < buckets; score++) {
+            standardErrors[score] = Math.sqrt(variances[score]);
+        }
+        return new Estimate(estimates, standardErrors, Arrays.stream(stratumGames).sum());
+    }
+
+    /**
+     * Splits the games over the strata in proportion to how likely the tilted
+     * sampler makes each first-round outcome, with a minimum per stratum.
+     */
+    private long[] allocate(long games, int strata) {
+        if (strata == 1) {
+            return new long[] {games};
+        }
+        long[] allocation = new long[strata];
+        double previous = 0;
+        for (int stratum = 0; stratum < strata; stratum++) {
+            double share = cumulative[numDice][stratum] - previous;
+            previous = cumulative[numDice][stratum];
+            allocation[stratum] = Math.max(MIN_STRATUM_GAMES, Math.round(share * games));
+        }
+        return allocation;
+    }
+
+    /**
+     * Plays one chunk. For antithetic sampling each pair of games is one sample.
+     */
+    private WeightedHistogram playChunk(int forcedFirstOutcome, int games, RandomGenerator random) {
+        WeightedHistogram histogram = new WeightedHistogram(numDice * MAX_DIE_VALUE + 1);
+        Game game = new Game();
+        if (method == Method.ANTITHETIC) {
+            for (int i = 0; i + 1 < games; i += 2) {
+                game.play(random, -1, false);
+                int firstScore = game.score;
+                double firstWeight = game.weight;
+                game.play(random, -1, true);
+                histogram.add(firstScore, firstWeight / 2, game.score, game.weight / 2);
+            }
+            if (games % 2 == 1) {
+                game.play(random, -1, false);
+                histogram.add(game.score, game.weight);
+            }
+        } else {
+            for (int i = 0; i < games; i++) {
+                game.play(random, forcedFirstOutcome, false);
+                histogram.add(game.score, game.weight);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * The state of the game being played: its score, its likelihood ratio and
+     * the uniforms it drew, which the antithetic partner mirrors.
+     */
+    private final class Game {
+        private double[] draws = new double[16];
+        private int drawCount;
+        int score;
+        double weight;
+
+        /**
+         * Plays a game. A non-negative forcedFirstOutcome fixes the first round,
+         * whose probability is then accounted for by the stratum instead of the weight.
+         */
+        void play(RandomGenerator random, int forcedFirstOutcome, boolean mirror) {
+            int recorded = mirror ? drawCount : 0;
+            int round = 0;
+            int activeDice = numDice;
+            double logWeight = 0;
+            score = 0;
+            if (!mirror) {
+                drawCount = 0;
+            }
+            while (activeDice > 0) {
+                int outcome;
+                if (round == 0 && forcedFirstOutcome >= 0) {
+                    outcome = forcedFirstOutcome;
+                } else {
+                    double u;
+                    if (mirror && round < recorded) {
+                        u = 1 - draws[round];
+                    } else {
+                        u = random.nextDouble();
+                        if (!mirror) {
+                            record(u);
+                        }
+                    }
+                    outcome = sample(cumulative[activeDice], u);
+                    logWeight += logRatios[activeDice][outcome];
+                }
+                round++;
+                if (outcome < activeDice) {
+                    activeDice -= activeDice - outcome;
+                } else {
+                    score += SCORING_FACES[outcome - activeDice];
+                    activeDice--;
+                }
+            }
+            weight = Math.exp(logWeight);
+        }
+
+        private void record(double u) {
+            if (drawCount == draws.length) {
+                draws = Arrays.copyOf(draws, drawCount * 2);
+            }
+            draws[drawCount++] = u;
+        }
+    }
+
+    /**
+     * Finds the first outcome whose cumulative probability exceeds u; values
+     * above the last entry, which rounding can leave a hair below 1, fall into
+     * the last outcome.
+     */
+    private static int sample(double[] cumulative, double u) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (u < cumulative[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the round outcome probabilities for a board of n dice, worst
+     * first: outcome {@code i < n} is {@code n - i} dice showing 3, outcome
+     * {@code n + j} is no 3s with lowest face {@code SCORING_FACES[j]}.
+     */
+    private static double[] outcomeProbabilities(int n) {
+        double[] lowestFaces = ExactDistributionSolver.lowestFaceProbabilities(n);
+        double[] neutralCounts = ExactDistributionSolver.neutralCountProbabilities(n);
+        double[] outcomes = new double[n + SCORING_FACES.length];
+        for (int i = 0; i < n; i++) {
+            outcomes[i] = neutralCounts[n - i];
+        }
+        for (int j = 0; j < SCORING_FACES.length; j++) {
+            outcomes[n + j] = lowestFaces[SCORING_FACES[j]];
+        }
+        return outcomes;
+    }
+
+    /**
+     * Tilts outcome probabilities by exp(tilt * points) and normalises them.
+     */
+    private static double[] tilted(double[] outcomes, int n, double tilt) {
+        double[] tilted = new double[outcomes.length];
+        double total = 0;
+        for (int outcome = 0; outcome < outcomes.length; outcome++) {
+            int points = outcome < n ? 0 : SCORING_FACES[outcome - n];
+            tilted[outcome] = outcomes[outcome] * Math.exp(tilt * (points - MAX_DIE_VALUE));
+            total += tilted[outcome];
+        }
+        for (int outcome = 0; outcome < tilted.length; outcome++) {
+            tilted[outcome] /= total;
+        }
+        return tilted;
+    }
+
+    /**
+     * Returns the expected score of a game when every round is drawn from the tilted distribution.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param tilt the tilt
+     * @return the mean score the importance sampler centres on
+     */
+    static double tiltedMean(int numDice, double tilt) {
+        double[] means = new double[numDice + 1];
+        for (int n = 1; n <= numDice; n++) {
+            double[] tilted = tilted(outcomeProbabilities(n), n, tilt);
+            double mean = 0;
+            for (int outcome = 0; outcome < tilted.length; outcome++) {
+                mean += outcome < n ? tilted[outcome] * means[outcome]
+                    : tilted[outcome] * (SCORING_FACES[outcome - n] + means[n - 1]);
+            }
+            means[n] = mean;
+        }
+        return means[numDice];
+    }
+
+    /**
+     * Finds the tilt whose games score targetScore on average, so the
+     * importance sampler concentrates on the tail around that score.
+     *
+     * @param numDice the number of dice per game (must be positive)
+     * @param targetScore the score to centre on
+     * @return the tilt; 0 if the target is not above the ordinary mean score
+     */
+    public static double tiltFor(int numDice, double targetScore) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        if (targetScore <= tiltedMean(numDice, 0)) {
+            return 0;
+        }
+        double low = 0;
+        double high = MAX_TILT;
+        for (int i = 0; i < TILT_ITERATIONS; i++) {
+            double middle = (low + high) / 2;
+            if (tiltedMean(numDice, middle) < targetScore) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Main entry point for variance-reduced estimation.
+     *
+     * Command line arguments:
+     * - args[0]: number of dice (optional, default: 5)
+     * - args[1]: number of games (optional, default: 1000000)
+     * - args[2]: simple, antithetic or stratified (optional, default: stratified)
+     * - args[3]: score to concentrate on (optional, default: 90% of the maximum score)
+     *
+     * @param args command line arguments for customizing the estimation
+     */
+    public static void main(String[] args) {
+        int numDice = args.length >= 1 ? Integer.parseInt(args[0]) : 5;
+        long games = args.length >= 2 ? Long.parseLong(args[1]) : 1_000_000;
+        Method method = args.length >= 3 ? Method.valueOf(args[2].toUpperCase(Locale.ROOT)) : Method.STRATIFIED;
+        double target = args.length >= 4 ? Double.parseDouble(args[3]) : 0.9 * numDice * MAX_DIE_VALUE;
+
+        double tilt = tiltFor(numDice, target);
+        TailEstimator estimator = new TailEstimator(numDice, tilt, method,
+            Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+        long start = System.nanoTime();
+        Estimate estimate = estimator.estimate(games, RandomSource.unseeded());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Estimated %d dice from %d %s games with tilt %.3f.%n", numDice, games,
+            method.name().toLowerCase(Locale.ROOT), tilt);
+        for (int score = 0; score < estimate.buckets(); score++) {
+            if (estimate.probability(score) > 0) {
+                System.out.printf("Total %d occurs %.6e%% +/- %.1e%%.%n", score,
+                    estimate.probability(score) * PERCENTAGE_MULTIPLIER,
+                    estimate.standardError(score) * PERCENTAGE_MULTIPLIER);
+            }
+        }
+        System.out.printf("Total estimation took %d milliseconds.%n", elapsedMillis);
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TailEstimator and WeightedHistogram classes.
+ */
+@DisplayName("TailEstimator Unit Tests")
+public class TailEstimatorTest {
+
+    private static TailEstimator.Estimate estimate(int numDice, double tilt, TailEstimator.Method method, long seed) {
+        return new TailEstimator(numDice, tilt, method, 2, 1000).estimate(100_000, RandomSource.seeded(seed));
+    }
+
+    @Test
+    @DisplayName("Rare top scores should be estimated within a few standard errors by every method")
+    void testRareTail() {
+        double[] exact = new ExactDistributionSolver().distribution(5);
+        double tilt = TailEstimator.tiltFor(5, 28);
+        assertTrue(tilt > 0);
+        for (TailEstimator.Method method : TailEstimator.Method.values()) {
+            TailEstimator.Estimate estimate = estimate(5, tilt, method, 60L);
+            for (int score = 28; score <= 30; score++) {
+                double error = estimate.standardError(score);
+                assertTrue(Math.abs(estimate.probability(score) - exact[score]) < 4 * error,
+                    method + " score " + score + ": " + estimate.probability(score) + " vs " + exact[score]);
+                assertTrue(error < 0.1 * exact[score], method + " score " + score + " relative error " + error);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Without a tilt the estimate should be an unweighted histogram")
+    void testNoTilt() {
+        double[] exact = new ExactDistributionSolver().distribution(3);
+        TailEstimator.Estimate estimate = estimate(3, 0, TailEstimator.Method.SIMPLE, 61L);
+        assertEquals(100_000, estimate.games());
+        assertEquals(19, estimate.buckets());
+        assertEquals(1, estimate.tailProbability(0), 1e-9);
+        for (int score = 0; score < estimate.buckets(); score++) {
+            assertEquals(exact[score], estimate.probability(score), 4 * estimate.standardError(score) + 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Antithetic pairs and stratification should reduce the standard error of the zero-score estimate")
+    void testVarianceReduction() {
+        double simple = estimate(4, 0, TailEstimator.Method.SIMPLE, 62L).standardError(0);
+        double antithetic = estimate(4, 0, TailEstimator.Method.ANTITHETIC, 62L).standardError(0);
+        double stratified = estimate(4, 0, TailEstimator.Method.STRATIFIED, 62L).standardError(0);
+        assertTrue(antithetic < simple, antithetic + " vs " + simple);
+        assertTrue(stratified < simple, stratified + " vs " + simple);
+    }
+
+    @Test
+    @DisplayName("Estimates should be reproducible regardless of parallelism")
+    void testReproducible() {
+        TailEstimator.Estimate first = new TailEstimator(6, 1, TailEstimator.Method.STRATIFIED, 1, 500)
+            .estimate(20_000, RandomSource.seeded(63L));
+        TailEstimator.Estimate second = new TailEstimator(6, 1, TailEstimator.Method.STRATIFIED, 3, 500)
+            .estimate(20_000, RandomSource.seeded(63L));
+        for (int score = 0; score < first.buckets(); score++) {
+            assertEquals(first.probability(score), second.probability(score));
+        }
+    }
+
+    @Test
+    @DisplayName("Tilts should centre games on the target score")
+    void testTiltFor() {
+        assertEquals(0, TailEstimator.tiltFor(5, 1));
+        double tilt = TailEstimator.tiltFor(8, 40);
+        assertEquals(40, TailEstimator.tiltedMean(8, tilt), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> new TailEstimator(5, -1, TailEstimator.Method.SIMPLE, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TailEstimator(0, 0, TailEstimator.Method.SIMPLE, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Weighted histograms should report means and standard errors of their samples")
+    void testWeightedHistogram() {
+        WeightedHistogram histogram = new WeightedHistogram(3);
+        histogram.add(1, 2);
+        histogram.add(1, 0.5, 2, 0.5);
+        histogram.add(2, 1);
+        histogram.add(0, 1);
+        assertEquals(4, histogram.samples());
+        assertEquals(0.625, histogram.probability(1), 1e-12);
+        assertEquals(0.375, histogram.probability(2), 1e-12);
+        // Bucket 1 contributions are 2, 0.5, 0, 0: sample variance 0.8958, over 4 samples.
+        assertEquals(Math.sqrt(0.8958333333333334 / 4), histogram.standardError(1), 1e-12);
+
+        WeightedHistogram other = new WeightedHistogram(3);
+        other.add(0, 1);
+        histogram.merge(other);
+        assertEquals(5, histogram.samples());
+        assertEquals(0.4, histogram.probability(0), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> new WeightedHistogram(0));
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a trace file written by {@link TraceWriter}.
+ *
+ * The records are read straight from read-only memory mappings, so scanning a
+ * trace copies nothing onto the Java heap and files larger than memory are
+ * paged in by the operating system as the scan advances.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class TraceReader implements AutoCloseable {
+    private static final int PERCENTAGE_MULTIPLIER = 100;
+
+    private final FileChannel channel;
+    private final int numDice;
+    private final long games;
+    private final int segmentRecords;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Receives the records of a trace in game order.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /**
+         * @param gameIndex the index of the game
+         * @param score the game's score
+         * @param rounds the number of rounds the game took
+         * @param neutralRounds the number of rounds in which 3s were removed
+         */
+        void visit(long gameIndex, int score, int rounds, int neutralRounds);
+    }
+
+    private TraceReader(FileChannel channel, int numDice, long games) throws IOException {
+        this.channel = channel;
+        this.numDice = numDice;
+        this.games = games;
+        this.segmentRecords = TraceWriter.DEFAULT_SEGMENT_RECORDS;
+        this.segments = TraceWriter.mapSegments(channel, FileChannel.MapMode.READ_ONLY, games, segmentRecords);
+    }
+
+    /**
+     * Opens a trace file for reading.
+     *
+     * @param path the file to read
+     * @return the reader
+     * @throws IOException if the file cannot be read, is not a trace file or is truncated
+     */
+    public static TraceReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TraceWriter.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a trace file: " + path);
+                }
+            }
+            header.flip();
+            long magic = header.getLong();
+            int version = header.getInt();
+            int recordBytes = header.getInt();
+            int numDice = header.getInt();
+            header.getInt();
+            long games = header.getLong();
+            if (magic != TraceWriter.MAGIC || version != TraceWriter.VERSION
+                    || recordBytes != TraceWriter.RECORD_BYTES) {
+                throw new IOException("Not a trace file: " + path);
+            }
+            if (games <= 0 || channel.size() < TraceWriter.HEADER_BYTES + games * TraceWriter.RECORD_BYTES) {
+                throw new IOException("Truncated trace file: " + path);
+            }
+            return new TraceReader(channel, numDice, games);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of dice per game
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * @return the number of games in the file
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * @param gameIndex the index of the game
+     * @return the game's score
+     */
+    public int score(long gameIndex) {
+        return (int) record(gameIndex);
+    }
+
+    /**
+     * @param gameIndex the index of the game
+     * @return the number of rounds the game took
+     */
+    public int rounds(long gameIndex) {
+        return (int) (record(gameIndex) >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * @param gameIndex the index of the game
+     * @return the number of rounds of the game in which 3s were removed
+     */
+    public int neutralRounds(long gameIndex) {
+        return (int) (record(gameIndex) >>> 48);
+    }
+
+    /**
+     * Hands every record to the visitor, in game order.
+     *
+     * @param visitor receives the records
+     */
+    public void forEach(RecordVisitor visitor) {
+        long gameIndex = 0;
+        for (MappedByteBuffer segment : segments) {
+            int limit = segment.limit();
+            for (int offset = 0; offset < limit; offset += TraceWriter.RECORD_BYTES) {
+                long record = segment.getLong(offset);
+                visitor.visit(gameIndex++, (int) record, (int) (record >>> 32) & 0xFFFF, (int) (record >>> 48));
+            }
+        }
+    }
+
+    /**
+     * @return the number of games that ended with each score, indexed by score
+     */
+    public long[] scoreHistogram() {
+        long[] histogram = new long[numDice * 6 + 1];
+        forEach((gameIndex, score, rounds, neutralRounds) -> histogram[score]++);
+        return histogram;
+    }
+
+    /**
+     * @return the number of games that took each number of rounds, indexed by rounds
+     */
+    public long[] roundsHistogram() {
+        long[] histogram = new long[numDice + 1];
+        forEach((gameIndex, score, rounds, neutralRounds) -> histogram[rounds]++);
+        return histogram;
+    }
+
+    /**
+     * Closes the file. The mappings are released by the garbage collector.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long record(long gameIndex) {
+        if (gameIndex < 0 || gameIndex >= games) {
+            throw new IndexOutOfBoundsException("Game index " + gameIndex + " out of range for " + games + " games");
+        }
+        int offset = (int) (gameIndex % segmentRecords) * TraceWriter.RECORD_BYTES;
+        return segments[(int) (gameIndex / segmentRecords)].getLong(offset);
+    }
+
+    /**
+     * Prints the score and round distributions of a trace file.
+     *
+     * Command line arguments:
+     * - args[0]: trace file (required)
+     *
+     * @param args command line arguments
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceReader <trace file>");
+            System.exit(2);
+        }
+        try (TraceReader reader = open(Paths.get(args[0]))) {
+            long games = reader.games();
+            System.out.println("Trace of " + games + " games using " + reader.numDice() + " dice.");
+            long[] scores = reader.scoreHistogram();
+            for (int score = 0; score < scores.length; score++) {
+                if (scores[score] > 0) {
+                    System.out.printf("Total %d occurs %.2f%% occurred %.1f times.%n",
+                        score, (double) scores[score] * PERCENTAGE_MULTIPLIER / games, (double) scores[score]);
+                }
+            }
+            long[] rounds = reader.roundsHistogram();
+            for (int round = 0; round < rounds.length; round++) {
+                if (rounds[round] > 0) {
+                    System.out.printf("Rounds %d occurs %.2f%% occurred %.1f times.%n",
+                        round, (double) rounds[round] * PERCENTAGE_MULTIPLIER / games, (double) rounds[round]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes per-game traces of a simulation to a memory-mapped binary file.
+ *
+ * The file is a fixed header followed by one fixed-width record per game,
+ * stored at offset {@code HEADER_BYTES + gameIndex * RECORD_BYTES}. Because a
+ * game's record position depends only on its index, every worker writes its
+ * own chunk of games straight into the mapping with no locking and no shared
+ * append pointer. The file is sized for all games up front and mapped in
+ * segments of at most {@code 2^24} records, since one mapping cannot exceed
+ * 2 GiB.
+ *
+ * Header (little-endian, {@value #HEADER_BYTES} bytes):
+ * - magic "DGTRACE1" (8 bytes)
+ * - format version (int), record size in bytes (int)
+ * - number of dice (int), reserved (int)
+ * - number of games (long)
+ *
+ * Record (one little-endian long):
+ * - bits 0-31: score
+ * - bits 32-47: number of rounds (unsigned)
+ * - bits 48-63: number of rounds in which 3s were removed (unsigned)
+ *
+ * A game always takes at least one round, so a record that is still zero
+ * marks a game that was never written.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class TraceWriter implements AutoCloseable {
+    public static final int HEADER_BYTES = 32;
+    public static final int RECORD_BYTES = Long.BYTES;
+    public static final int MAX_NUM_DICE = 0xFFFF;
+    static final long MAGIC = 0x3145434152544744L;
+    static final int VERSION = 1;
+    static final int DEFAULT_SEGMENT_RECORDS = 1 << 24;
+
+    private final FileChannel channel;
+    private final int numDice;
+    private final long games;
+    private final int segmentRecords;
+    private final MappedByteBuffer[] segments;
+
+    private TraceWriter(FileChannel channel, int numDice, long games, int segmentRecords) throws IOException {
+        this.channel = channel;
+        this.numDice = numDice;
+        this.games = games;
+        this.segmentRecords = segmentRecords;
+        this.segments = mapSegments(channel, FileChannel.MapMode.READ_WRITE, games, segmentRecords);
+    }
+
+    /**
+     * Creates (or truncates) a trace file with room for the given number of games.
+     *
+     * @param path the file to write
+     * @param numDice the number of dice per game (between 1 and {@value #MAX_NUM_DICE})
+     * @param games the number of games the file holds (must be positive)
+     * @return the writer, which must be closed to flush the file
+     * @throws IllegalArgumentException if numDice or games is out of range
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static TraceWriter create(Path path, int numDice, long games) throws IOException {
+        return create(path, numDice, games, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Creates a trace file mapped in segments of the given number of records.
+     *
+     * @see #create(Path, int, long)
+     */
+    static TraceWriter create(Path path, int numDice, long games, int segmentRecords) throws IOException {
+        if (numDice <= 0 || numDice > MAX_NUM_DICE) {
+            throw new IllegalArgumentException("Number of dice must be between 1 and " + MAX_NUM_DICE);
+        }
+        if (games <= 0) {
+            throw new IllegalArgumentException("Number of games must be positive");
+        }
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("Segment size out of range");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(numDice).putInt(0).putLong(games);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return new TraceWriter(channel, numDice, games, segmentRecords);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the trace of one game. Different threads may write different games concurrently.
+     *
+     * @param gameIndex the index of the game, between 0 and {@link #games()} - 1
+     * @param score the game's score
+     * @param rounds the number of rounds the game took
+     * @param neutralRounds the number of rounds in which 3s were removed
+     * @throws IndexOutOfBoundsException if gameIndex is out of range
+     */
+    public void write(long gameIndex, int score, int rounds, int neutralRounds) {
+        if (gameIndex < 0 || gameIndex >= games) {
+            throw new IndexOutOfBoundsException("Game index " + gameIndex + " out of range for " + games + " games");
+        }
+        int offset = (int) (gameIndex % segmentRecords) * RECORD_BYTES;
+        segments[(int) (gameIndex / segmentRecords)].putLong(offset, pack(score, rounds, neutralRounds));
+    }
+
+    /**
+     * Stores the trace of the game the kernel has just played.
+     *
+     * @param gameIndex the index of the game, between 0 and {@link #games()} - 1
+     * @param score the score the kernel returned
+     * @param kernel the kernel that played the game
+     */
+    public void write(long gameIndex, int score, TracedGameKernel kernel) {
+        write(gameIndex, score, kernel.lastRounds(), kernel.lastNeutralRounds());
+    }
+
+    /**
+     * @return the number of dice per game
+     */
+    public int numDice() {
+        return numDice;
+    }
+
+    /**
+     * @return the number of games the file holds
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * Flushes every segment to the file and closes it. Must only be called once
+     * all writers are done; the mappings themselves are released by the garbage
+     * collector.
+     *
+     * @throws IOException if the file cannot be flushed or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    static long pack(int score, int rounds, int neutralRounds) {
+        return (score & 0xFFFFFFFFL) | ((long) (rounds & 0xFFFF) << 32) | ((long) (neutralRounds & 0xFFFF) << 48);
+    }
+
+    /**
+     * Maps the records of a trace file in segments of segmentRecords records.
+     */
+    static MappedByteBuffer[] mapSegments(FileChannel channel, FileChannel.MapMode mode, long games,
+            int segmentRecords) throws IOException {
+        int numSegments = (int) ((games + segmentRecords - 1) / segmentRecords);
+        MappedByteBuffer[] segments = new MappedByteBuffer[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            long firstRecord = (long) i * segmentRecords;
+            long records = Math.min(segmentRecords, games - firstRecord);
+            segments[i] = channel.map(mode, HEADER_BYTES + firstRecord * RECORD_BYTES, records * RECORD_BYTES);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+}
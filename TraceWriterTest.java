@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the TraceWriter and TraceReader classes.
+ */
+@DisplayName("TraceWriter Unit Tests")
+public class TraceWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Records should read back as written, across segment boundaries")
+    void testRoundTrip() throws IOException {
+        Path file = directory.resolve("trace.bin");
+        try (TraceWriter writer = TraceWriter.create(file, 7, 10, 3)) {
+            for (int game = 0; game < 10; game++) {
+                writer.write(game, game * 4, game % 7 + 1, game % 3);
+            }
+        }
+
+        try (TraceReader reader = TraceReader.open(file)) {
+            assertEquals(7, reader.numDice());
+            assertEquals(10, reader.games());
+            for (int game = 0; game < 10; game++) {
+                assertEquals(game * 4, reader.score(game));
+                assertEquals(game % 7 + 1, reader.rounds(game));
+                assertEquals(game % 3, reader.neutralRounds(game));
+            }
+            long[] visited = new long[1];
+            reader.forEach((gameIndex, score, rounds, neutralRounds) -> {
+                assertEquals(gameIndex * 4, score);
+                visited[0]++;
+            });
+            assertEquals(10, visited[0]);
+        }
+        assertEquals(TraceWriter.HEADER_BYTES + 10 * TraceWriter.RECORD_BYTES, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Traced simulation should match the untraced histogram and the rules")
+    void testTracedSimulation() throws IOException {
+        Path file = directory.resolve("simulation.bin");
+        int numDice = 6;
+        int games = 20000;
+        ForkJoinSimulator simulator = new ForkJoinSimulator(4, 1000);
+        long[] plain = simulator.simulate(() -> new ArrayGameKernel(numDice), games, RandomSource.seeded(3L));
+        long[] traced;
+        try (TraceWriter writer = TraceWriter.create(file, numDice, games)) {
+            traced = simulator.simulate(() -> new ArrayGameKernel(numDice), games, RandomSource.seeded(3L), writer);
+        }
+        assertArrayEquals(plain, traced);
+
+        try (TraceReader reader = TraceReader.open(file)) {
+            assertArrayEquals(plain, reader.scoreHistogram());
+            assertEquals(games, Arrays.stream(reader.roundsHistogram()).sum());
+            reader.forEach((gameIndex, score, rounds, neutralRounds) -> {
+                int scoringRounds = rounds - neutralRounds;
+                assertTrue(rounds >= 1 && scoringRounds >= 0 && scoringRounds <= numDice,
+                    "Impossible trace for game " + gameIndex);
+                assertTrue(score >= scoringRounds && score <= scoringRounds * 6,
+                    "Score does not match scoring rounds for game " + gameIndex);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("ArrayGameKernel should report rounds of its last game")
+    void testKernelRounds() {
+        ArrayGameKernel kernel = new ArrayGameKernel(1);
+        RandomGenerator random = RandomSource.seeded(4L).stream(0);
+        for (int i = 0; i < 100; i++) {
+            int score = kernel.playGame(random);
+            assertEquals(score == 0 ? 1 : 0, kernel.lastNeutralRounds());
+            assertEquals(1, kernel.lastRounds());
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid files and arguments should be rejected")
+    void testValidation() throws IOException {
+        Path file = directory.resolve("bad.bin");
+        assertThrows(IllegalArgumentException.class, () -> TraceWriter.create(file, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> TraceWriter.create(file, 5, 0));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> TraceReader.open(file));
+
+        try (TraceWriter writer = TraceWriter.create(file, 5, 2)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> writer.write(2, 0, 1, 1));
+            ForkJoinSimulator simulator = new ForkJoinSimulator(1, 10);
+            assertThrows(IllegalArgumentException.class,
+                () -> simulator.simulate(() -> new ArrayGameKernel(5), 3, RandomSource.seeded(5L), writer));
+        }
+    }
+}
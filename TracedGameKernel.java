@@ -0,0 +1,23 @@
+/**
+ * A game kernel that also reports how its last game was played, for
+ * simulations that keep a per-game trace (see {@link TraceWriter}).
+ * 
+ * A game with {@code n} dice takes {@code lastRounds()} rounds, of which
+ * {@code lastNeutralRounds()} removed 3s and the rest each scored one die,
+ * so {@code n - (lastRounds() - lastNeutralRounds())} dice were removed as 3s.
+ * 
+ * @author Generated
+ * @version 1.0
+ */
+public interface TracedGameKernel extends GameKernel {
+    
+    /**
+     * @return the number of rounds the last game took
+     */
+    int lastRounds();
+    
+    /**
+     * @return the number of rounds of the last game in which 3s were removed
+     */
+    int lastNeutralRounds();
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Unit tests for the VectorGameKernel class and kernel selection in GameKernels.
+ * 
+ * The vector tests only run when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and the kernel was built from
+ * the vector source directory; they reach it through GameKernels, so this
+ * class compiles without the module.
+ */
+@DisplayName("VectorGameKernel Unit Tests")
+public class VectorGameKernelTest {
+    
+    @Test
+    @DisplayName("Distribution should match the exact solver")
+    void testMatchesExactDistribution() {
+        assumeTrue(GameKernels.vectorApiAvailable(), "Vector API module not loaded");
+        int numDice = 5;
+        int games = 200000;
+        double[] expected = new ExactDistributionSolver().distribution(numDice);
+        long[] histogram = new ForkJoinSimulator(2, 10000).simulate(
+            GameKernels.byName("vector", numDice), games, RandomSource.seeded(17L));
+        
+        for (int score = 0; score < expected.length; score++) {
+            double observed = (double) histogram[score] / games;
+            double standardError = Math.sqrt(expected[score] * (1 - expected[score]) / games);
+            assertEquals(expected[score], observed, 5 * standardError + 1e-9,
+                "Score " + score + " is out of tolerance");
+        }
+    }
+    
+    @Test
+    @DisplayName("Results should only depend on the random stream")
+    void testReproducible() {
+        assumeTrue(GameKernels.vectorApiAvailable(), "Vector API module not loaded");
+        RandomSource source = RandomSource.seeded(18L);
+        GameKernel kernel = GameKernels.byName("vector", 8).get();
+        assertEquals("VectorGameKernel", kernel.getClass().getName());
+        
+        int[] first = new int[10];
+        RandomGenerator random = source.stream(0);
+        for (int i = 0; i < first.length; i++) {
+            first[i] = kernel.playGame(random);
+        }
+        kernel.playGame(source.stream(1));
+        RandomGenerator again = source.stream(0);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], kernel.playGame(again));
+        }
+    }
+    
+    @Test
+    @DisplayName("Kernel names should resolve, with unknown names rejected")
+    void testKernelNames() {
+        assertTrue(GameKernels.byName("array", 3).get() instanceof ArrayGameKernel);
+        assertTrue(GameKernels.byName("counting", 3).get() instanceof CountingGameKernel);
+        assertEquals(18, GameKernels.byName("vector", 3).get().maxScore());
+        assertThrows(IllegalArgumentException.class, () -> GameKernels.byName("nope", 3));
+        assertThrows(IllegalArgumentException.class, () -> GameKernels.byName("array", 0));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Accumulates weighted game results into per-score probability estimates
+ * with standard errors.
+ *
+ * Each sample adds a weight to one or two score buckets. A bucket's
+ * probability is estimated by the mean contribution per sample, and its
+ * standard error by the sample standard deviation of those contributions
+ * over the square root of the number of samples. Plain Monte Carlo is the
+ * special case of weight 1; importance sampling adds likelihood ratios;
+ * an antithetic pair adds both games at half weight as one sample.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public final class WeightedHistogram {
+    private final double[] sums;
+    private final double[] squaredSums;
+    private long samples;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param buckets the number of score buckets (must be positive)
+     * @throws IllegalArgumentException if buckets is non-positive
+     */
+    public WeightedHistogram(int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Number of buckets must be positive");
+        }
+        this.sums = new double[buckets];
+        this.squaredSums = new double[buckets];
+    }
+
+    /**
+     * Adds a sample that contributes a weight to one bucket.
+     *
+     * @param score the bucket
+     * @param weight the sample's contribution
+     */
+    public void add(int score, double weight) {
+        sums[score] += weight;
+        squaredSums[score] += weight * weight;
+        samples++;
+    }
+
+    /**
+     * Adds a sample that contributes to two buckets, such as an antithetic pair.
+     *
+     * @param firstScore the first bucket
+     * @param firstWeight the contribution to the first bucket
+     * @param secondScore the second bucket
+     * @param secondWeight the contribution to the second bucket
+     */
+    public void add(int firstScore, double firstWeight, int secondScore, double secondWeight) {
+        if (firstScore == secondScore) {
+            double weight = firstWeight + secondWeight;
+            sums[firstScore] += weight;
+            squaredSums[firstScore] += weight * weight;
+        } else {
+            sums[firstScore] += firstWeight;
+            squaredSums[firstScore] += firstWeight * firstWeight;
+            sums[secondScore] += secondWeight;
+            squaredSums[secondScore] += secondWeight * secondWeight;
+        }
+        samples++;
+    }
+
+    /**
+     * Adds all samples of another histogram with the same number of buckets.
+     *
+     * @param other the histogram to add
+     */
+    public void merge(WeightedHistogram other) {
+        for (int score = 0; score < sums.length; score++) {
+            sums[score] += other.sums[score];
+            squaredSums[score] += other.squaredSums[score];
+        }
+        samples += other.samples;
+    }
+
+    /**
+     * @return the number of samples added
+     */
+    public long samples() {
+        return samples;
+    }
+
+    /**
+     * @return the number of score buckets
+     */
+    public int buckets() {
+        return sums.length;
+    }
+
+    /**
+     * @param score the bucket
+     * @return the estimated probability of the score
+     */
+    public double probability(int score) {
+        return samples > 0 ? sums[score] / samples : 0;
+    }
+
+    /**
+     * @param score the bucket
+     * @return the standard error of the probability estimate
+     */
+    public double standardError(int score) {
+        if (samples < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = sums[score] / samples;
+        double variance = Math.max(0, (squaredSums[score] - samples * mean * mean) / (samples - 1));
+        return Math.sqrt(variance / samples);
+    }
+}
@@ -0,0 +1,54 @@
+package dicegame.bench;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link GameAllocationBenchmark} under the JMH GC profiler and fails
+ * when any game allocates memory in steady state.
+ *
+ * <pre>java -cp benchmarks/target/benchmarks.jar dicegame.bench.AllocationCheck</pre>
+ *
+ * Exits with status 1 if the normalised allocation rate of a benchmark
+ * exceeds {@value #MAX_BYTES_PER_GAME} bytes per game.
+ */
+public final class AllocationCheck {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double MAX_BYTES_PER_GAME = 0.5;
+
+    private AllocationCheck() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(GameAllocationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        boolean failed = false;
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION_METRIC);
+            if (allocation == null) {
+                System.out.printf("%s: no %s reported%n", benchmark, ALLOCATION_METRIC);
+                failed = true;
+                continue;
+            }
+            double bytesPerGame = allocation.getScore();
+            boolean allocates = bytesPerGame > MAX_BYTES_PER_GAME;
+            System.out.printf("%s: %.3f bytes/game %s%n", benchmark, bytesPerGame, allocates ? "FAIL" : "ok");
+            failed |= allocates;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
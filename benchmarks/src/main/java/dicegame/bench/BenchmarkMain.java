@@ -0,0 +1,51 @@
+package dicegame.bench;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}: the standard JMH command line, but
+ * writing machine-readable JSON results by default so runs can be compared
+ * between releases.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                       # everything
+ * java -jar benchmarks/target/benchmarks.jar PlayGame -p numDice=5  # one benchmark
+ * </pre>
+ *
+ * Unless {@code -rf}/{@code -rff} are given, results go to
+ * {@code jmh-result-<timestamp>.json} in the working directory.
+ */
+public final class BenchmarkMain {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result("jmh-result-" + LocalDateTime.now().format(TIMESTAMP) + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package dicegame.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Plays single games on the allocation-free hot paths.
+ *
+ * Run with the GC profiler to see the bytes allocated per game, which should
+ * be zero in steady state:
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar GameAllocationBenchmark -prof gc</pre>
+ *
+ * {@link AllocationCheck} runs the same benchmark and fails if it allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameAllocationBenchmark {
+
+    @Param({"5"})
+    public int numDice;
+
+    private Object kernel;
+    private Object diceGame;
+    private RandomGenerator random;
+
+    @Setup
+    public void setUp() {
+        kernel = Simulators.arrayKernel(numDice);
+        diceGame = Simulators.diceGame(numDice, 1);
+        random = RandomGeneratorFactory.of("L64X128MixRandom").create(42L);
+    }
+
+    @Benchmark
+    public int arrayKernelGame() throws Throwable {
+        return (int) Simulators.PLAY_KERNEL_GAME.invokeExact(kernel, random);
+    }
+
+    @Benchmark
+    public int diceGamePlayGame() throws Throwable {
+        return (int) Simulators.PLAY_DICE_GAME.invokeExact(diceGame);
+    }
+}
@@ -0,0 +1,53 @@
+package dicegame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one histogram merge in the fork-join tree reduction.
+ *
+ * A simulation of N chunks performs N - 1 {@code ScoreHistogram} merges, each
+ * over the populated score range of a chunk; comparing this figure with the
+ * per-chunk playing time shows when a chunk size is too small.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistogramMergeBenchmark {
+
+    @Param({"5", "50", "1000"})
+    public int numDice;
+
+    private Object into;
+    private Object from;
+
+    @Setup
+    public void setUp() {
+        long[] counts = new long[numDice * 6 + 1];
+        for (int score = 0; score < counts.length; score++) {
+            counts[score] = score;
+        }
+        into = Simulators.histogram(new long[counts.length]);
+        from = Simulators.histogram(counts);
+    }
+
+    @Benchmark
+    public Object merge() throws Throwable {
+        Simulators.MERGE_HISTOGRAMS.invokeExact(into, from);
+        return into;
+    }
+}
@@ -0,0 +1,71 @@
+package dicegame.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-game throughput, reported in games per second.
+ *
+ * {@code diceGame} measures the public {@code DiceGame.playGame()} with its
+ * shared {@code java.util.Random}; {@code kernel} measures the game kernels
+ * used by the simulators, fed from a {@code RandomSource} stream. The forked
+ * JVM loads the Vector API module so the "vector" kernel runs its SIMD path
+ * rather than the scalar fallback. "rules:neutral=4" plays a variant with the
+ * same game length distribution through a kernel compiled by {@code GameRules},
+ * so comparing it with "array" shows the cost of configurable rules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PlayGameBenchmark {
+
+    @Param({"5", "20", "100"})
+    public int numDice;
+
+    private Object diceGame;
+
+    @State(Scope.Thread)
+    public static class KernelState {
+        @Param({"array", "counting", "vector", "swar", "alias", "rules:neutral=4"})
+        public String kernelName;
+
+        Object kernel;
+        RandomGenerator random;
+
+        @Setup
+        public void setUp(PlayGameBenchmark benchmark) {
+            kernel = Simulators.kernel(kernelName, benchmark.numDice);
+            random = Simulators.stream(Simulators.randomSource("L64X128MixRandom", 42L), 0);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        diceGame = Simulators.diceGame(numDice, 1);
+    }
+
+    @Benchmark
+    public int diceGame() throws Throwable {
+        return (int) Simulators.PLAY_DICE_GAME.invokeExact(diceGame);
+    }
+
+    @Benchmark
+    public int kernel(KernelState state) throws Throwable {
+        return (int) Simulators.PLAY_KERNEL_GAME.invokeExact(state.kernel, state.random);
+    }
+}
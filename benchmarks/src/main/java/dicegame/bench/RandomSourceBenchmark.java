@@ -0,0 +1,72 @@
+package dicegame.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Die rolls and whole games per second for each random generator algorithm.
+ *
+ * {@code Random} is the legacy generator the simulators started with; the
+ * {@code sharedRandom} variant lets four threads roll on one instance to show
+ * the cost of its contended seed update.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomSourceBenchmark {
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        @Param({"L64X128MixRandom", "L64X256MixRandom", "L128X256MixRandom", "SplittableRandom", "Random"})
+        public String algorithm;
+
+        @Param({"5"})
+        public int numDice;
+
+        RandomGenerator random;
+        Object kernel;
+
+        @Setup
+        public void setUp() {
+            random = RandomGeneratorFactory.of(algorithm).create(42L);
+            kernel = Simulators.arrayKernel(numDice);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final java.util.Random random = new java.util.Random(42L);
+    }
+
+    @Benchmark
+    public int rollDie(PerThread state) {
+        return state.random.nextInt(6) + 1;
+    }
+
+    @Benchmark
+    public int playGame(PerThread state) throws Throwable {
+        return (int) Simulators.PLAY_KERNEL_GAME.invokeExact(state.kernel, state.random);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int sharedRandom(Shared state) {
+        return state.random.nextInt(6) + 1;
+    }
+}
@@ -0,0 +1,54 @@
+package dicegame.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for one full {@code DiceGame2.simulate()} run across thread counts.
+ *
+ * Divide {@code numSimulations} by the reported time to get games per second;
+ * the JSON result carries all parameters needed to do so.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"5"})
+    public int numDice;
+
+    @Param({"1000000"})
+    public int numSimulations;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"4096"})
+    public int chunkSize;
+
+    private Object game;
+
+    @Setup
+    public void setUp() {
+        game = Simulators.diceGame2(numDice, numSimulations, threads, chunkSize, 42L);
+    }
+
+    @Benchmark
+    public long[] simulate() throws Throwable {
+        return (long[]) Simulators.SIMULATE_DICE_GAME2.invokeExact(game);
+    }
+}
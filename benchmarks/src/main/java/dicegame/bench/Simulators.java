@@ -0,0 +1,222 @@
+package dicegame.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Method-handle bridge from the benchmarks to the simulator classes.
+ *
+ * The simulators are declared in the default package, which code in a named
+ * package cannot reference directly, while JMH refuses benchmarks in the
+ * default package. The handles below are resolved once and stored in static
+ * final fields, so the JIT treats them as constants and inlines the target
+ * methods exactly as if they had been called directly.
+ */
+final class Simulators {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final String RULES_PREFIX = "rules:";
+
+    /** {@code new ArrayGameKernel(int numDice)}, returned as Object. */
+    static final MethodHandle NEW_ARRAY_KERNEL = constructor("ArrayGameKernel", int.class);
+
+    /** {@code GameKernels.byName(String name, int numDice)}. */
+    static final MethodHandle KERNELS_BY_NAME = staticMethod("GameKernels", "byName",
+        Supplier.class, String.class, int.class);
+
+    /** {@code GameRules.parse(String spec)}, returned as Object. */
+    static final MethodHandle PARSE_RULES = staticMethod("GameRules", "parse",
+        simulatorClass("GameRules"), String.class);
+
+    /** {@code GameRules.kernels(int numDice)} taking the rules as Object. */
+    static final MethodHandle RULES_KERNELS = virtual("GameRules", "kernels",
+        MethodType.methodType(Supplier.class, int.class));
+
+    /** {@code GameKernel.playGame(RandomGenerator)} taking the kernel as Object. */
+    static final MethodHandle PLAY_KERNEL_GAME = virtual("GameKernel", "playGame",
+        MethodType.methodType(int.class, RandomGenerator.class));
+
+    /** {@code new DiceGame(int numDice, long numSimulations)}, returned as Object. */
+    static final MethodHandle NEW_DICE_GAME = constructor("DiceGame", int.class, long.class);
+
+    /** {@code DiceGame.playGame()} taking the game as Object. */
+    static final MethodHandle PLAY_DICE_GAME = virtual("DiceGame", "playGame", MethodType.methodType(int.class));
+
+    /** {@code new DiceGame2(int, long, RandomSource, ForkJoinSimulator)}, taking and returning Objects. */
+    static final MethodHandle NEW_DICE_GAME2 = constructor("DiceGame2", int.class, long.class,
+        simulatorClass("RandomSource"), simulatorClass("ForkJoinSimulator"));
+
+    /** {@code DiceGame2.simulate()} taking the game as Object. */
+    static final MethodHandle SIMULATE_DICE_GAME2 = virtual("DiceGame2", "simulate",
+        MethodType.methodType(long[].class));
+
+    /** {@code RandomSource.of(String algorithm, long seed)}, returned as Object. */
+    static final MethodHandle RANDOM_SOURCE_OF = staticMethod("RandomSource", "of",
+        simulatorClass("RandomSource"), String.class, long.class);
+
+    /** {@code RandomSource.stream(long index)} taking the source as Object. */
+    static final MethodHandle RANDOM_SOURCE_STREAM = virtual("RandomSource", "stream",
+        MethodType.methodType(RandomGenerator.SplittableGenerator.class, long.class));
+
+    /** {@code new ForkJoinSimulator(int parallelism, int chunkSize)}, returned as Object. */
+    static final MethodHandle NEW_FORK_JOIN_SIMULATOR = constructor("ForkJoinSimulator", int.class, int.class);
+
+    /** {@code ScoreHistogram.of(long[] histogram)}, returned as Object. */
+    static final MethodHandle HISTOGRAM_OF = staticMethod("ScoreHistogram", "of",
+        simulatorClass("ScoreHistogram"), long[].class);
+
+    /** {@code ScoreHistogram.merge(ScoreHistogram other)} taking both histograms as Objects. */
+    static final MethodHandle MERGE_HISTOGRAMS = virtual("ScoreHistogram", "merge",
+        MethodType.methodType(void.class, simulatorClass("ScoreHistogram")));
+
+    private Simulators() {
+    }
+
+    /**
+     * Creates an {@code ArrayGameKernel} for the given number of dice.
+     */
+    static Object arrayKernel(int numDice) {
+        try {
+            return (Object) NEW_ARRAY_KERNEL.invokeExact(numDice);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create kernel", e);
+        }
+    }
+
+    /**
+     * Creates a kernel by its {@code GameKernels} name, e.g. "array", "counting", "vector" or "swar",
+     * or compiles house rules given as "rules:" followed by a {@code GameRules} spec.
+     */
+    static Object kernel(String name, int numDice) {
+        try {
+            Supplier<?> kernels;
+            if (name.startsWith(RULES_PREFIX)) {
+                Object rules = (Object) PARSE_RULES.invokeExact(name.substring(RULES_PREFIX.length()));
+                kernels = (Supplier<?>) RULES_KERNELS.invokeExact(rules, numDice);
+            } else {
+                kernels = (Supplier<?>) KERNELS_BY_NAME.invokeExact(name, numDice);
+            }
+            return kernels.get();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create kernel " + name, e);
+        }
+    }
+
+    /**
+     * Creates a {@code DiceGame} for the given number of dice and simulations.
+     */
+    static Object diceGame(int numDice, int numSimulations) {
+        try {
+            return (Object) NEW_DICE_GAME.invokeExact(numDice, (long) numSimulations);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create game", e);
+        }
+    }
+
+    /**
+     * Creates a seeded {@code DiceGame2} running on a fork-join simulator with the given shape.
+     */
+    static Object diceGame2(int numDice, int numSimulations, int threads, int chunkSize, long seed) {
+        try {
+            Object randomSource = randomSource("L64X128MixRandom", seed);
+            Object simulator = (Object) NEW_FORK_JOIN_SIMULATOR.invokeExact(threads, chunkSize);
+            return (Object) NEW_DICE_GAME2.invokeExact(numDice, (long) numSimulations, randomSource, simulator);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create game", e);
+        }
+    }
+
+    /**
+     * Creates a {@code ScoreHistogram} holding the counts of a dense array indexed by score.
+     */
+    static Object histogram(long[] counts) {
+        try {
+            return (Object) HISTOGRAM_OF.invokeExact(counts);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create histogram", e);
+        }
+    }
+
+    /**
+     * Creates a {@code RandomSource} for the given algorithm and seed.
+     */
+    static Object randomSource(String algorithm, long seed) {
+        try {
+            return (Object) RANDOM_SOURCE_OF.invokeExact(algorithm, seed);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create random source", e);
+        }
+    }
+
+    /**
+     * Returns stream {@code index} of a {@code RandomSource}.
+     */
+    static RandomGenerator stream(Object randomSource, long index) {
+        try {
+            return (RandomGenerator.SplittableGenerator) RANDOM_SOURCE_STREAM.invokeExact(randomSource, index);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create random stream", e);
+        }
+    }
+
+    /**
+     * Replaces every default-package type in a method type with Object, leaving
+     * JDK types such as String or RandomGenerator untouched.
+     */
+    private static MethodType simulatorTypesErased(MethodType type) {
+        MethodType erased = type;
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isSimulatorType(type.parameterType(i))) {
+                erased = erased.changeParameterType(i, Object.class);
+            }
+        }
+        if (isSimulatorType(type.returnType())) {
+            erased = erased.changeReturnType(Object.class);
+        }
+        return erased;
+    }
+
+    private static boolean isSimulatorType(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+
+    static Class<?> simulatorClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Simulator class not on the class path: " + name, e);
+        }
+    }
+
+    private static MethodHandle constructor(String className, Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(simulatorClass(className),
+                MethodType.methodType(void.class, parameters));
+            return handle.asType(simulatorTypesErased(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle staticMethod(String className, String method, Class<?> returnType,
+            Class<?>... parameters) {
+        try {
+            MethodHandle handle = LOOKUP.findStatic(simulatorClass(className), method,
+                MethodType.methodType(returnType, parameters));
+            return handle.asType(simulatorTypesErased(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle virtual(String className, String method, MethodType type) {
+        try {
+            MethodHandle handle = LOOKUP.findVirtual(simulatorClass(className), method, type);
+            return handle.asType(simulatorTypesErased(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
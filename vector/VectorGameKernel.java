@@ -0,0 +1,142 @@
+import java.util.random.RandomGenerator;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A game kernel that plays one game per SIMD lane, advancing all lanes in lockstep
+ * with the incubating Java Vector API.
+ *
+ * Since every remaining die is re-rolled each round, a game's state is just
+ * its number of active dice and its score. Each round rolls one vector of dice
+ * per die position, and masked lane-wise operations count the 3s, track the
+ * lowest face and update the score and active count; no lane ever branches.
+ * Lanes that have finished stay masked off until the slowest game in the batch
+ * ends, and the batch's scores are then handed out one per {@link #playGame}.
+ *
+ * Dice come from a vectorised SplitMix64 generator with one state per lane,
+ * seeded from the caller's generator at the start of every batch. A die is
+ * taken from the high 32 bits of each output by multiply-shift, which is
+ * uniform to within 2^-29.
+ *
+ * The Vector API is an incubator module in Java 17, so this class lives in
+ * its own source directory and is the only one that needs
+ * {@code --add-modules jdk.incubator.vector}; the rest of the simulator
+ * compiles and runs without it. Build it after the main sources into the
+ * same output directory:
+ *
+ * {@code javac --add-modules jdk.incubator.vector -cp out -d out vector/VectorGameKernel.java}
+ *
+ * Nothing refers to the class directly: {@link GameKernels} loads it by name
+ * and falls back to the scalar kernel when it was not built or the module is
+ * not loaded.
+ *
+ * @author Generated
+ * @version 1.0
+ */
+public class VectorGameKernel implements GameKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final long DIE_FACES = 6;
+    private static final long NEUTRAL_VALUE = 3;
+    private static final long MIN_DIE_VALUE = 1;
+    private static final long MAX_DIE_VALUE = 6;
+    private static final long INITIAL_LOWEST_VALUE = MAX_DIE_VALUE + 1;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int numDice;
+    private final long[] randomState = new long[LANES];
+    private final long[] scores = new long[LANES];
+    private int nextScore = LANES;
+    private RandomGenerator seededFrom;
+
+    /**
+     * Constructs a kernel for games with the given number of dice.
+     *
+     * @param numDice the number of dice to use in each game (must be positive)
+     * @throws IllegalArgumentException if numDice is non-positive
+     */
+    public VectorGameKernel(int numDice) {
+        if (numDice <= 0) {
+            throw new IllegalArgumentException("Number of dice must be positive");
+        }
+        this.numDice = numDice;
+    }
+
+    /**
+     * @return the number of games played in lockstep
+     */
+    public static int lanes() {
+        return LANES;
+    }
+
+    @Override
+    public int playGame(RandomGenerator random) {
+        if (random != seededFrom) {
+            // A new stream starts a new batch so that results only depend on the stream.
+            seededFrom = random;
+            nextScore = LANES;
+        }
+        if (nextScore == LANES) {
+            for (int lane = 0; lane < LANES; lane++) {
+                randomState[lane] = random.nextLong();
+            }
+            playBatch();
+            nextScore = 0;
+        }
+        return (int) scores[nextScore++];
+    }
+
+    @Override
+    public int maxScore() {
+        return numDice * (int) MAX_DIE_VALUE;
+    }
+
+    /**
+     * Plays one game in every lane until all of them have run out of dice.
+     */
+    private void playBatch() {
+        LongVector state = LongVector.fromArray(SPECIES, randomState, 0);
+        LongVector active = LongVector.broadcast(SPECIES, numDice);
+        LongVector score = LongVector.zero(SPECIES);
+
+        VectorMask<Long> playing = active.compare(VectorOperators.GT, 0);
+        while (playing.anyTrue()) {
+            LongVector neutralCount = LongVector.zero(SPECIES);
+            LongVector lowest = LongVector.broadcast(SPECIES, INITIAL_LOWEST_VALUE);
+            long mostActive = active.reduceLanes(VectorOperators.MAX);
+
+            for (long die = 0; die < mostActive; die++) {
+                state = state.add(GOLDEN_GAMMA);
+                LongVector roll = mix64(state)
+                    .lanewise(VectorOperators.LSHR, 32)
+                    .mul(DIE_FACES)
+                    .lanewise(VectorOperators.LSHR, 32)
+                    .add(MIN_DIE_VALUE);
+                VectorMask<Long> rolled = active.compare(VectorOperators.GT, die);
+                VectorMask<Long> neutral = roll.compare(VectorOperators.EQ, NEUTRAL_VALUE).and(rolled);
+                neutralCount = neutralCount.add(1, neutral);
+                lowest = lowest.blend(lowest.min(roll), rolled);
+            }
+
+            VectorMask<Long> scoring = neutralCount.compare(VectorOperators.EQ, 0).and(playing);
+            score = score.add(lowest, scoring);
+            active = active.sub(neutralCount).sub(1, scoring);
+            playing = active.compare(VectorOperators.GT, 0);
+        }
+
+        state.intoArray(randomState, 0);
+        score.intoArray(scores, 0);
+    }
+
+    /**
+     * The SplitMix64 output function, applied lane-wise.
+     */
+    private static LongVector mix64(LongVector z) {
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 30)).mul(0xbf58476d1ce4e5b9L);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 27)).mul(0x94d049bb133111ebL);
+        return z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 31));
+    }
+}